@@ -0,0 +1,137 @@
+package raven.utilityBox.files;
+
+import java.io.File;
+import java.io.IOException;
+import java.lang.management.ManagementFactory;
+import java.nio.file.Files;
+import java.util.Random;
+
+import raven.utilityBox.preferences.rules.FilenameFormatterRule;
+
+/**
+ * Measures the amount of memory {@link FilenameFormatter#format()} allocates
+ * per file name. The allocated bytes of the current thread are read via
+ * {@link com.sun.management.ThreadMXBean} before and after formatting a batch
+ * of names; creating the formatters is not measured.<br>
+ * All stages are enabled: lowercasing, trimming, bracket content checking,
+ * prefix removal and capitalizing. The benchmark only uses API that
+ * {@link FilenameFormatter} offered before it formatted in place, so it can be
+ * run against older versions as well.<br>
+ * It is a plain main class that doesn't need JMH (see the README).<br>
+ * Usage: <code>FilenameFormatterAllocationBenchmark [rounds] [batchSize]</code>
+ */
+public class FilenameFormatterAllocationBenchmark {
+
+	/**
+	 * The rounds that are run before measuring so that the JIT has compiled
+	 * everything
+	 */
+	private static final int WARMUP_ROUNDS = 50;
+	/**
+	 * The building blocks of the generated file names
+	 */
+	private static final String[] WORDS = { "the", "BEATLES", "let", "it", "be", "Remastered", "o'neill", "ÄRZTE",
+			"in", "da", "club", "2009", "feat.", "someone", "LIVE" };
+	/**
+	 * The brackets appended to some of the generated file names
+	 */
+	private static final String[] BRACKETS = { " (Official Video)", " [HD]", " (feat. Someone)", " (Remix)",
+			" {Live at Wembley}" };
+
+
+	public static void main(String[] args) throws IOException {
+		int rounds = (args.length > 0) ? Integer.parseInt(args[0]) : 200;
+		int batchSize = (args.length > 1) ? Integer.parseInt(args[1]) : 1000;
+
+		com.sun.management.ThreadMXBean threads = (com.sun.management.ThreadMXBean) ManagementFactory
+				.getThreadMXBean();
+
+		if (!threads.isThreadAllocatedMemorySupported()) {
+			System.err.println("The JVM can't measure the allocated memory per thread");
+			return;
+		}
+
+		threads.setThreadAllocatedMemoryEnabled(true);
+
+		FilenameFormatterRule rules = new FilenameFormatterRule() {
+			@Override
+			public void initializeWithDefaults() {
+				super.initializeWithDefaults();
+
+				allowedBracketContent = new String[] { "feat", "remix", "live" };
+				prefixesToRemove = new String[] { "\\d+\\s*-\\s*", "track\\s*\\d+" };
+			}
+		};
+		rules.initializeWithDefaults();
+
+		File dir = Files.createTempDirectory("formatterBenchmark").toFile();
+		File[] files = createFiles(dir, batchSize);
+
+		try {
+			long threadId = Thread.currentThread().getId();
+			long allocated = 0;
+			long formatted = 0;
+
+			for (int k = 0; k < WARMUP_ROUNDS + rounds; k++) {
+				FilenameFormatter[] formatters = new FilenameFormatter[files.length];
+
+				for (int i = 0; i < files.length; i++) {
+					formatters[i] = new FilenameFormatter(files[i], rules);
+				}
+
+				long before = threads.getThreadAllocatedBytes(threadId);
+
+				for (FilenameFormatter currentFormatter : formatters) {
+					currentFormatter.format();
+				}
+
+				long after = threads.getThreadAllocatedBytes(threadId);
+
+				if (k >= WARMUP_ROUNDS) {
+					allocated += after - before;
+					formatted += formatters.length;
+				}
+			}
+
+			System.out.println("Formatted " + formatted + " names, allocated " + (allocated / formatted)
+					+ " bytes per name");
+		} finally {
+			for (File currentFile : files) {
+				currentFile.delete();
+			}
+			dir.delete();
+		}
+	}
+
+	/**
+	 * Creates the given amount of (empty) files with random names in the given
+	 * directory
+	 */
+	private static File[] createFiles(File dir, int amount) throws IOException {
+		Random random = new Random(0);
+		File[] files = new File[amount];
+
+		for (int i = 0; i < amount; i++) {
+			StringBuilder name = new StringBuilder();
+
+			if (random.nextBoolean()) {
+				name.append(String.format("%02d - ", random.nextInt(100)));
+			}
+
+			int words = 2 + random.nextInt(6);
+			for (int j = 0; j < words; j++) {
+				name.append(j == 0 ? "" : (random.nextInt(5) == 0 ? "  " : " "))
+						.append(WORDS[random.nextInt(WORDS.length)]);
+			}
+
+			if (random.nextBoolean()) {
+				name.append(BRACKETS[random.nextInt(BRACKETS.length)]);
+			}
+
+			files[i] = new File(dir, name.append(" ").append(i).append(".mp3").toString());
+			files[i].createNewFile();
+		}
+
+		return files;
+	}
+}
@@ -0,0 +1,141 @@
+package raven.utilityBox.table;
+
+import java.io.IOException;
+import java.io.Writer;
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.infra.Blackhole;
+
+/**
+ * Compares writing a table as CSV through {@link CSVCellEncoder} with the
+ * regex-based path it replaced (building the CSV as a String with per-cell
+ * replacements and escaping the percent signs of the complete CSV by a regex).
+ * Both variants produce the same characters (see CSVCellEncoderTest).<br>
+ * Has to be compiled with <code>jmh-generator-annprocess</code> on the
+ * annotation processor path and is run via <code>org.openjdk.jmh.Main
+ * CSVCellEncoderBenchmark</code> (add <code>-prof gc</code> to see the
+ * allocations).
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class CSVCellEncoderBenchmark {
+
+	/**
+	 * The characters the cells are built of
+	 */
+	private static final String CELL_CHARACTERS = "abcdefghijklmnopqrstuvwxyz0123456789 .,";
+
+	/**
+	 * The amount of rows of the written table
+	 */
+	@Param({ "100", "10000" })
+	public int rows;
+	/**
+	 * The probability (in percent) for a cell to contain a percent sign
+	 */
+	@Param({ "0", "20" })
+	public int percentSigns;
+
+	/**
+	 * The table to write
+	 */
+	private Table<String> table;
+	/**
+	 * The encoder used for the table
+	 */
+	private CSVCellEncoder encoder;
+	/**
+	 * A writer discarding everything written to it
+	 */
+	private Writer sink;
+
+
+	@Setup
+	public void setUp() {
+		Random random = new Random(0);
+		String[][] data = new String[rows][12];
+
+		for (String[] currentRow : data) {
+			for (int j = 0; j < currentRow.length; j++) {
+				if (random.nextInt(10) == 0) {
+					// empty cell
+					continue;
+				}
+
+				StringBuilder cell = new StringBuilder();
+				int length = 1 + random.nextInt(16);
+
+				for (int k = 0; k < length; k++) {
+					cell.append(CELL_CHARACTERS.charAt(random.nextInt(CELL_CHARACTERS.length())));
+				}
+				if (random.nextInt(100) < percentSigns) {
+					cell.insert(random.nextInt(cell.length() + 1), random.nextBoolean() ? "%" : "\\%");
+				}
+				if (random.nextInt(50) == 0) {
+					cell.append(";\n");
+				}
+
+				currentRow[j] = cell.toString();
+			}
+		}
+
+		table = new Table<>(String.class, data);
+		encoder = new CSVCellEncoder(";", ",", "", true);
+		sink = new Writer() {
+			@Override
+			public void write(char[] cbuf, int off, int len) {
+			}
+
+			@Override
+			public void flush() {
+			}
+
+			@Override
+			public void close() {
+			}
+		};
+	}
+
+	@Benchmark
+	public void encoder() throws IOException, IllegalAccessException {
+		table.writeCSV(sink, encoder);
+	}
+
+	@Benchmark
+	public void regex(Blackhole blackhole) throws IllegalAccessException {
+		StringBuilder builder = new StringBuilder();
+
+		for (int i = 0; i < table.getRowCount(); i++) {
+			String[] row = table.getRow(i);
+
+			for (int j = 0; j < row.length; j++) {
+				if (j > 0) {
+					builder.append(";");
+				}
+
+				builder.append(row[j] == null ? "" : row[j].replace(";", ",").replace("\n", " "));
+			}
+
+			builder.append("\n");
+		}
+
+		blackhole.consume(
+				builder.toString().replaceAll("(^|[^\\\\]|(?:^|[^\\\\])(?:\\\\\\\\)+)(%)", "$1\\\\$2"));
+	}
+}
@@ -4,7 +4,6 @@ import raven.utilityBox.interfaces.IPreferenceSensitiveObject;
 import raven.utilityBox.logging.LogMessage;
 import raven.utilityBox.logging.Logger;
 import raven.utilityBox.preferences.AbstractPreference;
-import raven.utilityBox.preferences.rules.FilenameFormatterRule;
 
 public abstract class AbstractPreferenceSensitiveAction extends AbstractAction implements IPreferenceSensitiveObject {
 
@@ -16,7 +15,7 @@ public abstract class AbstractPreferenceSensitiveAction extends AbstractAction i
 	@Override
 	public void setPreferenceRules(AbstractPreference preferences) {
 		if (preferences.getClass().equals(getPreferenceType())) {
-			this.preferences = (FilenameFormatterRule) preferences;
+			this.preferences = preferences;
 		} else {
 			Logger.getDefault().log(new LogMessage("Invalid preference type. Switching to default behaviour!", this,
 					LogMessage.SEVERITY_WARNING));
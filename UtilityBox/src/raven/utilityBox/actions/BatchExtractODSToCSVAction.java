@@ -0,0 +1,329 @@
+package raven.utilityBox.actions;
+
+import java.io.File;
+import java.io.IOException;
+import java.lang.reflect.Array;
+import java.nio.file.FileVisitResult;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.SimpleFileVisitor;
+import java.nio.file.attribute.BasicFileAttributes;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+import raven.utilityBox.enums.EStatus;
+import raven.utilityBox.interfaces.ITypeConverter;
+import raven.utilityBox.logging.LogMessage;
+import raven.utilityBox.logging.Logger;
+import raven.utilityBox.preferences.AbstractPreference;
+import raven.utilityBox.preferences.rules.ExtractODSToCSVRule;
+
+/**
+ * This action runs an {@link ExtractODSToCSVAction} for every .ods spreadsheet
+ * inside a directory tree. The spreadsheets are processed concurrently on a
+ * work-stealing pool while the tree is still being walked. Failures don't stop
+ * the other spreadsheets from being processed - instead all results are
+ * summarized at the end.
+ * 
+ * @author Raven
+ *
+ */
+public class BatchExtractODSToCSVAction extends AbstractPreferenceSensitiveAction {
+
+	/**
+	 * The root directory to search for spreadsheets
+	 */
+	protected File rootDir;
+	/**
+	 * The target directory for the CSVs (as passed to every
+	 * {@link ExtractODSToCSVAction})
+	 */
+	protected String csvTarget;
+	/**
+	 * Indicating whether spreadsheets that haven't changed since the last run
+	 * should be skipped
+	 */
+	protected boolean checkTimestamp;
+	/**
+	 * The replacement to use for empty cells
+	 */
+	protected String emptyCellReplacement;
+	/**
+	 * Indicates that the transposed tables should also be generated
+	 */
+	protected boolean addTransposed;
+	/**
+	 * The amount of spreadsheets to process concurrently
+	 */
+	protected int threads;
+
+
+	/**
+	 * Creates a new instance of this action. The generated CSVs will be stored
+	 * next to the respective spreadsheet.
+	 * 
+	 * @param root
+	 *            The directory to search for spreadsheets
+	 */
+	public BatchExtractODSToCSVAction(String root) {
+		setParameter(new Object[] { root });
+	}
+
+	public BatchExtractODSToCSVAction() {
+		// empty constructor
+	}
+
+	@Override
+	protected EStatus doRun() {
+		ExecutorService executor = Executors.newWorkStealingPool(threads);
+
+		final List<String> spreadSheets = new ArrayList<>();
+		final List<Future<EStatus>> results = new ArrayList<>();
+		final List<String> failures = new ArrayList<>();
+
+		try {
+			final ExecutorService pool = executor;
+
+			// submit every spreadsheet as soon as it has been found
+			Files.walkFileTree(rootDir.toPath(), new SimpleFileVisitor<Path>() {
+
+				@Override
+				public FileVisitResult visitFile(Path file, BasicFileAttributes attrs) {
+					if (attrs.isRegularFile() && file.getFileName().toString().toLowerCase().endsWith(".ods")) {
+						spreadSheets.add(file.toString());
+						results.add(pool.submit(createTask(file.toString())));
+					}
+
+					return FileVisitResult.CONTINUE;
+				}
+
+				@Override
+				public FileVisitResult visitFileFailed(Path file, IOException exc) {
+					failures.add(file + ": " + exc.getMessage());
+
+					return FileVisitResult.CONTINUE;
+				}
+			});
+		} catch (IOException e) {
+			failures.add(rootDir + ": " + e.getMessage());
+		}
+
+		int succeeded = 0;
+
+		for (int i = 0; i < results.size(); i++) {
+			try {
+				if (results.get(i).get() == EStatus.OK) {
+					succeeded++;
+				} else {
+					failures.add(spreadSheets.get(i) + ": extraction failed (see above)");
+				}
+			} catch (ExecutionException e) {
+				failures.add(spreadSheets.get(i) + ": " + e.getCause());
+			} catch (InterruptedException e) {
+				Thread.currentThread().interrupt();
+
+				failures.add(spreadSheets.get(i) + ": interrupted");
+			}
+		}
+
+		executor.shutdownNow();
+
+		// summarize
+		Logger.getDefault().log(new LogMessage("Processed " + spreadSheets.size() + " spreadsheets in " + rootDir
+				+ ": " + succeeded + " succeeded, " + failures.size() + " failed", this,
+				failures.isEmpty() ? LogMessage.SEVERITY_INFO : LogMessage.SEVERITY_WARNING));
+
+		for (String currentFailure : failures) {
+			Logger.getDefault().log(new LogMessage("Failed: " + currentFailure, this, LogMessage.SEVERITY_ERROR));
+		}
+
+		return failures.isEmpty() ? EStatus.OK : EStatus.ERROR;
+	}
+
+	/**
+	 * Creates the task extracting the given spreadsheet
+	 * 
+	 * @param spreadSheet
+	 *            The path to the spreadsheet
+	 */
+	protected Callable<EStatus> createTask(String spreadSheet) {
+		// the actions are created here (and not inside the task) as their creation isn't
+		// thread-safe
+		final ExtractODSToCSVAction action = new ExtractODSToCSVAction();
+
+		action.setPreferenceRules(getPreferenceRules());
+
+		final Object[] parameter = new Object[] { spreadSheet, csvTarget, checkTimestamp, emptyCellReplacement,
+				addTransposed, 1 };
+
+		return new Callable<EStatus>() {
+
+			@Override
+			public EStatus call() {
+				action.setParameter(parameter);
+
+				return action.run();
+			}
+		};
+	}
+
+	@Override
+	public Class<?> getPreferenceType() {
+		return ExtractODSToCSVRule.class;
+	}
+
+	@Override
+	public AbstractPreference getDefaultPreferences() {
+		AbstractPreference preferences = new ExtractODSToCSVRule();
+		preferences.initializeWithDefaults();
+
+		return preferences;
+	}
+
+	@Override
+	public boolean validateParameter(Object[] args) {
+		if (args == null) {
+			Logger.getDefault()
+					.log(new LogMessage("The parameter array must not be null!", this, LogMessage.SEVERITY_ERROR));
+
+			return false;
+		}
+
+		if (args.length != getDefaultParameter().length) {
+			Logger.getDefault()
+					.log(new LogMessage("Expected the parameter array to contain " + getDefaultParameter().length
+							+ " elements (got " + args.length + ")!", this, LogMessage.SEVERITY_ERROR));
+
+			return false;
+		}
+
+		if (!(args[0] instanceof String)) {
+			Logger.getDefault().log(
+					new LogMessage("Expected first argument to be of type String!", this, LogMessage.SEVERITY_ERROR));
+
+			return false;
+		}
+
+		if (!new File((String) args[0]).isDirectory()) {
+			Logger.getDefault().log(new LogMessage("The specified path is not a directory! (" + args[0] + ")", this,
+					LogMessage.SEVERITY_ERROR));
+
+			return false;
+		}
+
+		if (!(args[1] instanceof String)) {
+			Logger.getDefault().log(
+					new LogMessage("Expected second argument to be of type String!", this, LogMessage.SEVERITY_ERROR));
+
+			return false;
+		}
+
+		if (!(args[2] instanceof Boolean)) {
+			Logger.getDefault()
+					.log(new LogMessage("Expected third argument to be of type Boolean (got \"" + args[2] + "\")!",
+							this, LogMessage.SEVERITY_ERROR));
+
+			return false;
+		}
+
+		if (!(args[4] instanceof Boolean)) {
+			Logger.getDefault()
+					.log(new LogMessage("Expected fifth argument to be of type Boolean (got \"" + args[4] + "\")!",
+							this, LogMessage.SEVERITY_ERROR));
+
+			return false;
+		}
+
+		if (!(args[5] instanceof Integer) || (Integer) args[5] < 1) {
+			Logger.getDefault()
+					.log(new LogMessage("Expected sixth argument to be a positive Integer (got \"" + args[5] + "\")!",
+							this, LogMessage.SEVERITY_ERROR));
+
+			return false;
+		}
+
+		return true;
+	}
+
+	@Override
+	protected void applyParameter(Object[] args) {
+		rootDir = new File((String) args[0]);
+
+		csvTarget = (String) args[1];
+
+		checkTimestamp = (Boolean) args[2];
+
+		emptyCellReplacement = (String) args[3];
+
+		addTransposed = (Boolean) args[4];
+
+		threads = (Integer) args[5];
+	}
+
+	@Override
+	public Object[] getDefaultParameter() {
+		return new Object[] { null, ExtractODSToCSVAction.USE_SAME_DIR, true, "", false,
+				Runtime.getRuntime().availableProcessors() };
+	}
+
+	@Override
+	protected String[] getParameterKeys() {
+		return new String[] { "root", "targetDir", "checkTimestamp", "replaceEmpty", "addTransposed", "threads" };
+	}
+
+	@Override
+	protected ITypeConverter<String, Object>[] getParameterConverters() {
+		@SuppressWarnings("unchecked")
+		ITypeConverter<String, Object>[] converter = (ITypeConverter<String, Object>[]) Array
+				.newInstance(ITypeConverter.class, 6);
+
+		converter[0] = new ITypeConverter<String, Object>() {
+
+			@Override
+			public Object convert(String input) {
+				return input;
+			}
+		};
+
+		converter[1] = converter[0];
+
+		converter[2] = new ITypeConverter<String, Object>() {
+
+			@Override
+			public Object convert(String input) {
+				return Boolean.parseBoolean(input);
+			}
+		};
+
+		converter[3] = converter[0];
+
+		converter[4] = converter[2];
+
+		converter[5] = new ITypeConverter<String, Object>() {
+
+			@Override
+			public Object convert(String input) {
+				try {
+					return Integer.parseUnsignedInt(input);
+				} catch (NumberFormatException e) {
+					Logger.getDefault().log(e, this);
+
+					return null;
+				}
+			}
+		};
+
+		return converter;
+	}
+
+	@Override
+	public boolean requiresParameter() {
+		return true;
+	}
+
+}
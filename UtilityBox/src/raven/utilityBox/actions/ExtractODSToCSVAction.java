@@ -1,27 +1,51 @@
 package raven.utilityBox.actions;
 
-import java.io.BufferedReader;
 import java.io.File;
-import java.io.FileOutputStream;
-import java.io.FileReader;
 import java.io.IOException;
+import java.io.Writer;
 import java.lang.reflect.Array;
+import java.nio.ByteBuffer;
+import java.nio.channels.Channels;
+import java.nio.charset.Charset;
+import java.nio.charset.CharsetEncoder;
+import java.nio.charset.CodingErrorAction;
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.util.HashMap;
+import java.util.LinkedList;
 import java.util.List;
+import java.util.Map;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
 
 import raven.utilityBox.enums.EStatus;
+import raven.utilityBox.enums.ETableLayout;
+import raven.utilityBox.files.AtomicFileWriter;
+import raven.utilityBox.files.AtomicFileWriter.SyncBatch;
+import raven.utilityBox.files.RunStateStore;
+import raven.utilityBox.files.RunStateStore.FileState;
+import raven.utilityBox.interfaces.ISubTableHandler;
 import raven.utilityBox.interfaces.ITypeConverter;
 import raven.utilityBox.logging.LogMessage;
 import raven.utilityBox.logging.Logger;
-import raven.utilityBox.openDocument.ODSExtractor;
+import raven.utilityBox.openDocument.StreamingODSExtractor;
 import raven.utilityBox.preferences.AbstractPreference;
 import raven.utilityBox.preferences.rules.ExtractODSToCSVRule;
+import raven.utilityBox.table.CSVCellEncoder;
+import raven.utilityBox.table.StreamingTableDivider;
 import raven.utilityBox.table.Table;
-import raven.utilityBox.table.TableNullDivider;
+import raven.utilityBox.table.TableDivider;
+import raven.utilityBox.util.FutureUtil;
 
 /**
  * This action will extract the data out of a .ods spreadsheet, will subdivide
- * it into different data-sets (sub-tables - see {@link TableNullDivider}) and
- * then written into .csv files
+ * it into different data-sets (sub-tables - see {@link TableDivider}) and then
+ * written into .csv files. If {@link ExtractODSToCSVRule#streamSubTables()} is
+ * set, every sub-table is written as soon as it has been found (see
+ * {@link StreamingTableDivider}).
  * 
  * @author Raven
  *
@@ -58,6 +82,43 @@ public class ExtractODSToCSVAction extends AbstractPreferenceSensitiveAction {
 	 * Indicates that the transposed tables should also be generated
 	 */
 	protected boolean addTransposed;
+	/**
+	 * The amount of threads to divide the spreadsheet's sheets and to write the
+	 * CSVs with
+	 */
+	protected int threads;
+	/**
+	 * The store holding the state of the spreadsheets during their last run
+	 * (<code>null</code> if the timestamp isn't checked)
+	 */
+	protected RunStateStore runState;
+	/**
+	 * The state of the spreadsheet that gets recorded once the current run has
+	 * succeeded
+	 */
+	protected FileState pendingState;
+	/**
+	 * The amount of sub-tables that have been written during the current run
+	 */
+	protected int subTableCount;
+	/**
+	 * The executor writing the CSVs or <code>null</code> if they are written
+	 * directly
+	 */
+	protected ExecutorService executor;
+	/**
+	 * The submitted writes that have not been reported yet (in submission order)
+	 */
+	protected LinkedList<PendingWrite> pendingWrites;
+	/**
+	 * The last write that has been submitted for every target file
+	 */
+	protected Map<File, Future<?>> lastWrites;
+	/**
+	 * The batch the written CSVs are synced and published with (<code>null</code>
+	 * if they shouldn't be synced)
+	 */
+	protected SyncBatch syncBatch;
 
 	/**
 	 * The flag to use for the second argument in order to indicate that the
@@ -107,6 +168,15 @@ public class ExtractODSToCSVAction extends AbstractPreferenceSensitiveAction {
 				csvTargetDir.mkdirs();
 			}
 
+			pendingState = null;
+
+			if (checkTimestamp) {
+				openRunState(new File(csvTargetDir, TIMESTAMP_FILE));
+			} else {
+				// neither the timestamp nor the fingerprints are persisted
+				runState = null;
+			}
+
 			if (checkTimestamp && !checkTimestamp()) {
 				Logger.getDefault()
 						.log(new LogMessage(
@@ -115,152 +185,457 @@ public class ExtractODSToCSVAction extends AbstractPreferenceSensitiveAction {
 				return EStatus.OK;
 			}
 
-			ExtractODSToCSVRule rules = (ExtractODSToCSVRule) getPreferenceRules();
-
-			List<Table<String>> subTables = ODSExtractor.extractSubtables(spreadSheetPath);
+			final ExtractODSToCSVRule rules = (ExtractODSToCSVRule) getPreferenceRules();
 
-			int tableCounter = 0;
+			syncBatch = rules.syncWrites() ? new SyncBatch() : null;
 
-			Logger.getDefault().log(new LogMessage("Detected " + subTables.size() + " sub-tables in " + spreadSheetPath, this,
-					LogMessage.SEVERITY_INFO));
+			// write every sub-table as soon as it has been passed on
+			ISubTableHandler<String> writer = new ISubTableHandler<String>() {
 
-			for (Table<String> currentTable : subTables) {
-				String name = extractNameAndFormat(currentTable);
+				@Override
+				public void handle(Table<String> subTable) throws IOException, IllegalAccessException {
+					writeSubTable(subTable, subTableCount, rules);
 
-				if (name == null) {
-					name = "Table" + tableCounter;
+					subTableCount++;
 				}
+			};
 
-				// append file extension
-				name = name + ".csv";
-
-				for (int i = 0; i < (addTransposed ? 2 : 1); i++) {
-					if (i == 1) {
-						// its the transposed table's turn
-						name = name.replace(".csv", "_t.csv");
-						currentTable.transpose();
-					}
-					// write the table to file
-					File targetFile = new File(csvTargetDir, name);
-
-					targetFile.createNewFile();
+			subTableCount = 0;
+			pendingWrites = new LinkedList<>();
+			lastWrites = new HashMap<>();
 
-					FileOutputStream out = new FileOutputStream(targetFile);
-					
-					String content = currentTable
-							.toCSV(rules.getColumnDelimiter(), rules.getDelimiterReplacement(), emptyCellReplacement);
-						
-					// escape all percent signs that have not been escaped already
-					content = content.replaceAll("(^|[^\\\\]|(?:^|[^\\\\])(?:\\\\\\\\)+)(%)", "$1\\\\$2");
+			if (threads > 1) {
+				// divide the sheets and write the CSVs concurrently
+				executor = Executors.newFixedThreadPool(threads);
 
-					out.write(content.getBytes());
+				try {
+					extractSubTables(writer, rules);
 
-					out.close();
-
-					Logger.getDefault()
-							.log(new LogMessage("Wrote content of" + (i == 1 ? " transposed" : "") + " sub-table "
-									+ tableCounter + " to " + targetFile.getAbsolutePath(),this, LogMessage.SEVERITY_INFO));
+					reportWrites(true);
+				} finally {
+					executor.shutdownNow();
+					executor = null;
 				}
+			} else {
+				extractSubTables(writer, rules);
+			}
+
+			Logger.getDefault().log(new LogMessage("Extracted " + subTableCount + " sub-tables from " + spreadSheetPath,
+					this, LogMessage.SEVERITY_INFO));
 
-				tableCounter++;
+			if (syncBatch != null) {
+				syncBatch.flush();
 			}
 
+			recordRun();
+
 		} catch (IOException | IllegalAccessException e) {
 			e.printStackTrace();
 
 			Logger.getDefault().log(e, this);
 
 			return EStatus.ERROR;
+		} finally {
+			if (syncBatch != null) {
+				// drop the CSVs of a failed run
+				syncBatch.discard();
+				syncBatch = null;
+			}
 		}
 
 		return EStatus.OK;
 	}
 
 	/**
-	 * Checks whether this action even has to run (by checking the timestamp)
+	 * Extracts the sub-tables of the spreadsheet and passes them to the given
+	 * handler. By default every sheet is divided as a whole and the sub-tables
+	 * are passed on in the order a {@link TableDivider} finds them, so that the
+	 * unnamed sub-tables keep their numbers across versions. If the rules request
+	 * streaming, every sub-table is passed on as soon as it is complete in the
+	 * order described by {@link StreamingTableDivider} instead. If there is an
+	 * {@link #executor} the sheets are divided concurrently.
 	 * 
-	 * @return Whether this action should run
+	 * @param handler
+	 *            The handler to pass the sub-tables to
+	 * @param rules
+	 *            The rules to use
+	 * @throws IOException
+	 * @throws IllegalAccessException
 	 */
-	protected boolean checkTimestamp() {
-		File timeStamp = new File(csvTargetDir, TIMESTAMP_FILE);
-		File spreadSheet = new File(spreadSheetPath);
-		boolean runAction = false;
+	protected void extractSubTables(ISubTableHandler<String> handler, ExtractODSToCSVRule rules)
+			throws IOException, IllegalAccessException {
+		if (rules.streamSubTables()) {
+			if (executor != null) {
+				StreamingODSExtractor.extractSubtables(spreadSheetPath, ETableLayout.ROW_MAJOR, handler, executor);
+			} else {
+				StreamingODSExtractor.extractSubtables(spreadSheetPath, handler);
+			}
 
-		try {
-			if (!timeStamp.exists()) {
-				// Create the file
-				timeStamp.createNewFile();
+			return;
+		}
 
-				// write respective info in it
-				FileOutputStream out = new FileOutputStream(timeStamp);
+		List<Table<String>> subTables = (executor != null)
+				? StreamingODSExtractor.extractSubtables(spreadSheetPath, ETableLayout.ROW_MAJOR, executor)
+				: StreamingODSExtractor.extractSubtables(spreadSheetPath);
 
-				out.write(("\"" + spreadSheetPath.replace(System.getProperty("user.home"), HOME) + "\" - "
-						+ System.currentTimeMillis()).getBytes());
+		for (Table<String> currentTable : subTables) {
+			handler.handle(currentTable);
+		}
+	}
 
-				out.close();
+	/**
+	 * Writes the given sub-table (and its transposed version if requested) into
+	 * .csv files. If there is an {@link #executor} the files are written
+	 * asynchronously. If there is a {@link #runState} files whose content
+	 * wouldn't change are skipped.
+	 * 
+	 * @param currentTable
+	 *            The sub-table to write
+	 * @param tableCounter
+	 *            The index of the sub-table
+	 * @param rules
+	 *            The rules to use when writing
+	 * @throws IOException
+	 * @throws IllegalAccessException
+	 */
+	protected void writeSubTable(Table<String> currentTable, int tableCounter, ExtractODSToCSVRule rules)
+			throws IOException, IllegalAccessException {
+		// append file extension
+		String name = getTableName(currentTable, tableCounter) + ".csv";
+		// the content is digested once for the table and its transposed version
+		byte[] contentDigest = (runState != null) ? digestContent(currentTable) : null;
+
+		for (int i = 0; i < (addTransposed ? 2 : 1); i++) {
+			if (i == 1) {
+				// its the transposed table's turn
+				name = name.replace(".csv", "_t.csv");
+			}
+
+			File targetFile = new File(csvTargetDir, name);
+
+			if (runState != null) {
+				// only write the file if its content would change
+				String fingerprint = computeFingerprint(contentDigest, i == 1, rules);
+				FileState previousState = runState.get(name);
 
-				return true;
+				if (targetFile.exists() && previousState != null && fingerprint.equals(previousState.getHash())) {
+					reportSkippedWrite("Content of" + (i == 1 ? " transposed" : "") + " sub-table " + tableCounter
+							+ " is unchanged - keeping " + targetFile.getAbsolutePath());
+
+					continue;
+				}
+
+				runState.put(name, new FileState(-1, -1, fingerprint));
 			}
 
-			// check if there already is any entry and determine whether to run this action
-			StringBuilder builder = new StringBuilder();
+			submitWrite(targetFile, currentTable, i == 1, rules.createCellEncoder(emptyCellReplacement),
+					"Wrote content of" + (i == 1 ? " transposed" : "") + " sub-table " + tableCounter + " to "
+							+ targetFile.getAbsolutePath());
+		}
 
-			BufferedReader reader = new BufferedReader(new FileReader(timeStamp));
-			String currentLine = null;
-			boolean currentSpreadSheetListed = false;
+		// report the writes that are done already
+		reportWrites(false);
+	}
 
-			while ((currentLine = reader.readLine()) != null) {
-				String spreadSheetPath = currentLine.substring(1, currentLine.indexOf("\" - ")).replace(HOME,
-						System.getProperty("user.home"));
+	/**
+	 * Writes the given table into the given file. If there is an {@link #executor}
+	 * the file is written asynchronously after all previously submitted writes to
+	 * the same file.
+	 * 
+	 * @param targetFile
+	 *            The file to write to
+	 * @param table
+	 *            The table to write. It must not be modified afterwards.
+	 * @param transposed
+	 *            Whether the transposed table should be written
+	 * @param encoder
+	 *            The encoder to use (exclusively)
+	 * @param message
+	 *            The message to log once the file has been written
+	 * @throws IOException
+	 * @throws IllegalAccessException
+	 */
+	protected void submitWrite(final File targetFile, final Table<String> table, final boolean transposed,
+			final CSVCellEncoder encoder, String message) throws IOException, IllegalAccessException {
+		if (executor == null) {
+			writeCSV(targetFile, table, transposed, encoder);
 
-				if (this.spreadSheetPath.equals(spreadSheetPath)) {
-					currentSpreadSheetListed = true;
+			Logger.getDefault().log(new LogMessage(message, this, LogMessage.SEVERITY_INFO));
 
-					// It is the same reference -> check the timestamp
-					int index = currentLine.indexOf("\" - ") + 4;
-					long stamp = Long.parseLong(currentLine.substring(index));
+			return;
+		}
 
-					if (stamp < spreadSheet.lastModified()) {
-						runAction = true;
+		final Future<?> previousWrite = lastWrites.get(targetFile);
 
-						// update timestamp
-						currentLine = currentLine.replace(String.valueOf(stamp),
-								String.valueOf(System.currentTimeMillis()));
+		Future<?> write = executor.submit(new Callable<Void>() {
+
+			@Override
+			public Void call() throws Exception {
+				if (previousWrite != null) {
+					// the file has to end up with the content of the last write
+					try {
+						previousWrite.get();
+					} catch (ExecutionException e) {
+						// will be reported on its own
 					}
 				}
 
-				// add line to buffer
-				builder.append(currentLine + "\n");
+				writeCSV(targetFile, table, transposed, encoder);
+
+				return null;
 			}
+		});
 
-			reader.close();
+		lastWrites.put(targetFile, write);
+		pendingWrites.add(new PendingWrite(write, message));
+	}
 
-			if (!runAction && currentSpreadSheetListed) {
-				// No need to re-write the timestamp-file
-				return false;
+	/**
+	 * Logs that a write has been skipped (in order with the submitted writes)
+	 * 
+	 * @param message
+	 *            The message to log
+	 */
+	protected void reportSkippedWrite(String message) {
+		if (executor == null) {
+			Logger.getDefault().log(new LogMessage(message, this, LogMessage.SEVERITY_INFO));
+		} else {
+			pendingWrites.add(new PendingWrite(null, message));
+		}
+	}
+
+	/**
+	 * Computes the digest of the given table's dimensions and content. The cells
+	 * are read in place without copying any rows.
+	 * 
+	 * @param table
+	 *            The table to digest
+	 * @return The digest
+	 * @throws IllegalAccessException
+	 */
+	protected byte[] digestContent(Table<String> table) throws IllegalAccessException {
+		MessageDigest digest = RunStateStore.createDigest();
+		int rows = table.getRowCount();
+		int columns = table.getColumnCount();
+
+		updateDigest(digest, rows + "x" + columns);
+
+		for (int i = 0; i < rows; i++) {
+			for (int j = 0; j < columns; j++) {
+				updateDigest(digest, table.get(i, j));
 			}
+		}
+
+		return digest.digest();
+	}
+
+	/**
+	 * Computes a fingerprint of the CSV a table would be written as. It covers the
+	 * table's content as well as the orientation and the settings used for
+	 * encoding it.
+	 * 
+	 * @param contentDigest
+	 *            The digest of the table's content (see
+	 *            {@link #digestContent(Table)})
+	 * @param transposed
+	 *            Whether the transposed table will be written
+	 * @param rules
+	 *            The rules used for encoding the table
+	 * @return The fingerprint as a hex-String
+	 */
+	protected String computeFingerprint(byte[] contentDigest, boolean transposed, ExtractODSToCSVRule rules) {
+		MessageDigest digest = RunStateStore.createDigest();
+
+		updateDigest(digest, rules.getColumnDelimiter());
+		updateDigest(digest, rules.getDelimiterReplacement());
+		updateDigest(digest, emptyCellReplacement);
+		digest.update((byte) (rules.escapePercentSigns() ? 1 : 0));
+		digest.update((byte) (transposed ? 1 : 0));
+		digest.update(contentDigest);
+
+		return RunStateStore.toHex(digest.digest());
+	}
 
-			if (!currentSpreadSheetListed) {
-				// add entry for the current spreadSheet
-				builder.append("\"" + spreadSheetPath.replace(System.getProperty("user.home"), HOME) + "\" - "
-						+ System.currentTimeMillis());
+	/**
+	 * Adds the given String to the given digest so that different sequences of
+	 * Strings always lead to different input
+	 * 
+	 * @param digest
+	 *            The digest to update
+	 * @param content
+	 *            The String to add (may be <code>null</code>)
+	 */
+	private static void updateDigest(MessageDigest digest, String content) {
+		if (content == null) {
+			digest.update((byte) 0);
+			return;
+		}
+
+		byte[] bytes = content.getBytes(StandardCharsets.UTF_8);
+
+		digest.update((byte) 1);
+		digest.update(ByteBuffer.allocate(4).putInt(bytes.length).array());
+		digest.update(bytes);
+	}
 
-				// action obviously has to run
-				runAction = true;
+	/**
+	 * Logs the pending writes that have been completed in the order they have been
+	 * submitted
+	 * 
+	 * @param wait
+	 *            Whether to wait for all pending writes to complete
+	 * @throws IOException
+	 *             If a write has failed
+	 * @throws IllegalAccessException
+	 *             If a write has failed
+	 */
+	protected void reportWrites(boolean wait) throws IOException, IllegalAccessException {
+		while (!pendingWrites.isEmpty() && (wait || pendingWrites.getFirst().isDone())) {
+			PendingWrite current = pendingWrites.removeFirst();
+
+			if (current.write != null) {
+				FutureUtil.getResult(current.write);
+			}
+
+			Logger.getDefault().log(new LogMessage(current.message, this, LogMessage.SEVERITY_INFO));
+		}
+	}
+
+	/**
+	 * Writes the given table as a CSV into the given file (replacing its previous
+	 * content). The file is replaced atomically once the CSV is complete. If there
+	 * is a {@link #syncBatch} it is only replaced once the batch gets flushed.
+	 * 
+	 * @param targetFile
+	 *            The file to write to
+	 * @param table
+	 *            The table to write
+	 * @param transposed
+	 *            Whether the transposed table should be written
+	 * @param encoder
+	 *            The encoder to use
+	 * @throws IOException
+	 * @throws IllegalAccessException
+	 */
+	protected void writeCSV(File targetFile, Table<String> table, boolean transposed, CSVCellEncoder encoder)
+			throws IOException, IllegalAccessException {
+		CharsetEncoder charsetEncoder = Charset.defaultCharset().newEncoder()
+				.onMalformedInput(CodingErrorAction.REPLACE).onUnmappableCharacter(CodingErrorAction.REPLACE);
+
+		try (AtomicFileWriter fileWriter = (syncBatch != null) ? new AtomicFileWriter(targetFile, syncBatch)
+				: new AtomicFileWriter(targetFile)) {
+			// the writer buffers the encoded bytes before passing them to the channel
+			Writer out = Channels.newWriter(fileWriter.getChannel(), charsetEncoder, -1);
+
+			if (transposed) {
+				table.writeTransposedCSV(out, encoder);
+			} else {
+				table.writeCSV(out, encoder);
 			}
 
-			FileOutputStream out = new FileOutputStream(timeStamp);
+			out.flush();
+
+			fileWriter.commit();
+		}
+	}
+
+	/**
+	 * Checks whether this action even has to run by comparing the spreadsheet with
+	 * the state it had during the last run. The spreadsheet only has to be hashed
+	 * if its size or modification time have changed.
+	 * 
+	 * @return Whether this action should run
+	 */
+	protected boolean checkTimestamp() {
+		try {
+			pendingState = runState.detectChange(getRunStateKey(), new File(spreadSheetPath));
 
-			out.write(builder.toString().trim().getBytes());
+			if (pendingState == null) {
+				if (runState.isModified()) {
+					// remember the new modification time so that the next check is fast again
+					runState.save();
+				}
 
-			out.close();
+				return false;
+			}
 		} catch (IOException e) {
 			e.printStackTrace();
 
 			Logger.getDefault().log(e, this);
 		}
 
-		return runAction;
+		return true;
+	}
+
+	/**
+	 * Opens the {@link #runState} kept in the given file. If this action has
+	 * already been run with the same store, the loaded store is kept and only read
+	 * again if the file has been changed in the meantime.
+	 * 
+	 * @param storeFile
+	 *            The file the store is kept in
+	 * @throws IOException
+	 */
+	protected void openRunState(File storeFile) throws IOException {
+		if (runState != null && runState.getStoreFile().equals(storeFile)) {
+			runState.refresh();
+		} else {
+			runState = new RunStateStore(storeFile);
+			runState.load();
+		}
+	}
+
+	/**
+	 * Records the state of the spreadsheet determined by {@link #checkTimestamp()}
+	 * and the fingerprints of the written CSVs after the extraction has succeeded.
+	 * Does nothing if the timestamp isn't checked.
+	 * 
+	 * @throws IOException
+	 */
+	protected void recordRun() throws IOException {
+		if (runState == null) {
+			// nothing is persisted
+			return;
+		}
+
+		if (pendingState != null) {
+			runState.put(getRunStateKey(), pendingState);
+
+			pendingState = null;
+		}
+
+		if (runState.isModified()) {
+			runState.save();
+		}
+	}
+
+	/**
+	 * Gets the key the state of the spreadsheet is stored with
+	 */
+	protected String getRunStateKey() {
+		return spreadSheetPath.replace(System.getProperty("user.home"), HOME);
+	}
+
+	/**
+	 * Gets the name the CSV of the given sub-table is named after. This is either
+	 * the name found by {@link #extractNameAndFormat(Table)} (which removes it
+	 * from the table) or "Table" followed by the index of the sub-table.
+	 * 
+	 * @param table
+	 *            The sub-table whose name should be obtained
+	 * @param tableCounter
+	 *            The index of the sub-table
+	 * @return The name (without file extension)
+	 * @throws IllegalAccessException
+	 */
+	protected String getTableName(Table<String> table, int tableCounter) throws IllegalAccessException {
+		String name = extractNameAndFormat(table);
+
+		if (name == null) {
+			name = "Table" + tableCounter;
+		}
+
+		return name;
 	}
 
 	/**
@@ -434,6 +809,14 @@ public class ExtractODSToCSVAction extends AbstractPreferenceSensitiveAction {
 							this, LogMessage.SEVERITY_ERROR));
 		}
 
+		if (!(args[5] instanceof Integer) || (Integer) args[5] < 1) {
+			Logger.getDefault()
+					.log(new LogMessage("Expected sixth argument to be a positive Integer (got \"" + args[5] + "\")!",
+							this, LogMessage.SEVERITY_ERROR));
+
+			return false;
+		}
+
 		return true;
 	}
 
@@ -456,23 +839,25 @@ public class ExtractODSToCSVAction extends AbstractPreferenceSensitiveAction {
 		this.emptyCellReplacement = (String) args[3];
 
 		this.addTransposed = (Boolean) args[4];
+
+		this.threads = (Integer) args[5];
 	}
 
 	@Override
 	public Object[] getDefaultParameter() {
-		return new Object[] { null, USE_SAME_DIR, true, "", false };
+		return new Object[] { null, USE_SAME_DIR, true, "", false, 1 };
 	}
 
 	@Override
 	protected String[] getParameterKeys() {
-		return new String[] { "spreadSheet", "targetDir", "checkTimestamp", "replaceEmpty", "addTransposed" };
+		return new String[] { "spreadSheet", "targetDir", "checkTimestamp", "replaceEmpty", "addTransposed", "threads" };
 	}
 
 	@Override
 	protected ITypeConverter<String, Object>[] getParameterConverters() {
 		@SuppressWarnings("unchecked")
 		ITypeConverter<String, Object>[] converter = (ITypeConverter<String, Object>[]) Array
-				.newInstance(ITypeConverter.class, 5);
+				.newInstance(ITypeConverter.class, 6);
 
 		converter[0] = new ITypeConverter<String, Object>() {
 
@@ -496,6 +881,20 @@ public class ExtractODSToCSVAction extends AbstractPreferenceSensitiveAction {
 
 		converter[4] = converter[2];
 
+		converter[5] = new ITypeConverter<String, Object>() {
+
+			@Override
+			public Object convert(String input) {
+				try {
+					return Integer.parseUnsignedInt(input);
+				} catch (NumberFormatException e) {
+					Logger.getDefault().log(e, this);
+
+					return null;
+				}
+			}
+		};
+
 		return converter;
 	}
 
@@ -504,4 +903,33 @@ public class ExtractODSToCSVAction extends AbstractPreferenceSensitiveAction {
 		return true;
 	}
 
+
+	/**
+	 * A write that has been submitted to the {@link ExtractODSToCSVAction#executor}
+	 */
+	protected static class PendingWrite {
+
+		/**
+		 * The result of the write (<code>null</code> if the write has been skipped)
+		 */
+		protected final Future<?> write;
+		/**
+		 * The message to log once the write has been completed
+		 */
+		protected final String message;
+
+
+		public PendingWrite(Future<?> write, String message) {
+			this.write = write;
+			this.message = message;
+		}
+
+		/**
+		 * Checks whether this write has been completed
+		 */
+		public boolean isDone() {
+			return write == null || write.isDone();
+		}
+	}
+
 }
@@ -0,0 +1,524 @@
+package raven.utilityBox.actions;
+
+import java.io.File;
+import java.io.IOException;
+import java.lang.reflect.Array;
+import java.nio.file.ClosedWatchServiceException;
+import java.nio.file.FileSystems;
+import java.nio.file.FileVisitOption;
+import java.nio.file.FileVisitResult;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.SimpleFileVisitor;
+import java.nio.file.StandardWatchEventKinds;
+import java.nio.file.WatchEvent;
+import java.nio.file.WatchKey;
+import java.nio.file.WatchService;
+import java.nio.file.attribute.BasicFileAttributes;
+import java.util.ArrayList;
+import java.util.EnumSet;
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+import raven.utilityBox.enums.EStatus;
+import raven.utilityBox.interfaces.ITypeConverter;
+import raven.utilityBox.logging.LogMessage;
+import raven.utilityBox.logging.Logger;
+import raven.utilityBox.preferences.AbstractPreference;
+import raven.utilityBox.preferences.rules.ExtractODSToCSVRule;
+
+/**
+ * This action watches a directory (tree) for changed .ods spreadsheets and
+ * extracts them into CSVs via {@link ExtractODSToCSVAction} whenever they have
+ * been saved. Bursts of events for the same spreadsheet are debounced: a
+ * spreadsheet is only extracted once no further events for it have arrived for
+ * the configured quiet period.<br>
+ * The action keeps running until it is {@link #stop() stopped} or interrupted.
+ * The rules and one {@link ExtractODSToCSVAction} (including its loaded
+ * run-state) per spreadsheet are kept between the extractions.
+ * 
+ * @author Raven
+ * 
+ */
+public class WatchODSToCSVAction extends AbstractPreferenceSensitiveAction {
+
+	/**
+	 * The root directory to watch
+	 */
+	protected File rootDir;
+	/**
+	 * The target directory for the CSVs (as passed to every
+	 * {@link ExtractODSToCSVAction})
+	 */
+	protected String csvTarget;
+	/**
+	 * The replacement to use for empty cells
+	 */
+	protected String emptyCellReplacement;
+	/**
+	 * Indicates that the transposed tables should also be generated
+	 */
+	protected boolean addTransposed;
+	/**
+	 * The time (in milliseconds) no further events may arrive for a spreadsheet
+	 * before it gets extracted
+	 */
+	protected long quietPeriod;
+	/**
+	 * Indicates whether sub-directories should be watched as well
+	 */
+	protected boolean recursive;
+	/**
+	 * The service used for watching the directories
+	 */
+	protected volatile WatchService watchService;
+	/**
+	 * The watched directories by their registration key
+	 */
+	protected Map<WatchKey, Path> watchedDirs;
+	/**
+	 * The spreadsheets waiting for their quiet period to end mapped to the time
+	 * (in nanoseconds) it will end
+	 */
+	protected Map<Path, Long> pendingSpreadSheets;
+	/**
+	 * The actions used for extracting the individual spreadsheets
+	 */
+	protected Map<Path, ExtractODSToCSVAction> extractors;
+
+
+	/**
+	 * Creates a new instance of this action. The generated CSVs will be stored
+	 * next to the respective spreadsheet.
+	 * 
+	 * @param root
+	 *            The directory to watch
+	 */
+	public WatchODSToCSVAction(String root) {
+		setParameter(new Object[] { root });
+	}
+
+	public WatchODSToCSVAction() {
+		// empty constructor
+	}
+
+	@Override
+	protected EStatus doRun() {
+		watchedDirs = new HashMap<>();
+		pendingSpreadSheets = new LinkedHashMap<>();
+		extractors = new HashMap<>();
+
+		try (WatchService service = FileSystems.getDefault().newWatchService()) {
+			watchService = service;
+
+			// bring the CSVs up to date before waiting for changes
+			register(rootDir.toPath(), true);
+			extractPending(true);
+
+			Logger.getDefault().log(new LogMessage("Watching " + watchedDirs.size() + " directories in " + rootDir,
+					this, LogMessage.SEVERITY_INFO));
+
+			while (!watchedDirs.isEmpty()) {
+				WatchKey key;
+
+				if (pendingSpreadSheets.isEmpty()) {
+					key = service.take();
+				} else {
+					long delay = nextDeadline() - System.nanoTime();
+					key = (delay > 0) ? service.poll(delay, TimeUnit.NANOSECONDS) : service.poll();
+				}
+
+				while (key != null) {
+					processEvents(key);
+
+					// gather the whole burst before extracting anything
+					key = service.poll();
+				}
+
+				extractPending(false);
+			}
+		} catch (InterruptedException e) {
+			Thread.currentThread().interrupt();
+		} catch (ClosedWatchServiceException e) {
+			// the action has been stopped
+		} catch (IOException e) {
+			e.printStackTrace();
+
+			Logger.getDefault().log(e, this);
+
+			return EStatus.ERROR;
+		} finally {
+			watchService = null;
+		}
+
+		return EStatus.OK;
+	}
+
+	/**
+	 * Stops this action if it is running. Pending spreadsheets are not extracted
+	 * anymore.
+	 * 
+	 * @throws IOException
+	 */
+	public void stop() throws IOException {
+		WatchService service = watchService;
+
+		if (service != null) {
+			service.close();
+		}
+	}
+
+	/**
+	 * Processes the events of the given key
+	 * 
+	 * @param key
+	 *            The key whose events should be processed
+	 * @throws IOException
+	 */
+	protected void processEvents(WatchKey key) throws IOException {
+		Path dir = watchedDirs.get(key);
+
+		for (WatchEvent<?> currentEvent : key.pollEvents()) {
+			if (currentEvent.kind() == StandardWatchEventKinds.OVERFLOW) {
+				// events have been lost -> check all directories again
+				Logger.getDefault().log(new LogMessage("Lost file system events. Checking all spreadsheets...", this,
+						LogMessage.SEVERITY_WARNING));
+
+				for (Path currentDir : new ArrayList<>(watchedDirs.values())) {
+					register(currentDir, false);
+				}
+
+				continue;
+			}
+
+			if (dir == null) {
+				continue;
+			}
+
+			Path child = dir.resolve((Path) currentEvent.context());
+
+			if (Files.isDirectory(child)) {
+				if (recursive && currentEvent.kind() == StandardWatchEventKinds.ENTRY_CREATE) {
+					register(child, true);
+				}
+			} else {
+				if (isSpreadSheet(child)) {
+					schedule(child);
+				}
+			}
+		}
+
+		if (!key.reset()) {
+			// the directory is no longer accessible
+			watchedDirs.remove(key);
+		}
+	}
+
+	/**
+	 * Registers the given directory (and its sub-directories if
+	 * {@link #recursive}) with the {@link #watchService} and schedules all
+	 * contained spreadsheets for extraction.
+	 * 
+	 * @param dir
+	 *            The directory to register
+	 * @param includeSubDirs
+	 *            Whether the sub-directories should be registered as well
+	 *            (ignored if not {@link #recursive})
+	 * @throws IOException
+	 */
+	protected void register(Path dir, boolean includeSubDirs) throws IOException {
+		final int maxDepth = (recursive && includeSubDirs) ? Integer.MAX_VALUE : 1;
+
+		Files.walkFileTree(dir, EnumSet.noneOf(FileVisitOption.class), maxDepth,
+				new SimpleFileVisitor<Path>() {
+
+					@Override
+					public FileVisitResult preVisitDirectory(Path currentDir, BasicFileAttributes attrs) {
+						if (!watchedDirs.containsValue(currentDir)) {
+							try {
+								watchedDirs.put(currentDir.register(watchService, StandardWatchEventKinds.ENTRY_CREATE,
+										StandardWatchEventKinds.ENTRY_MODIFY), currentDir);
+							} catch (IOException e) {
+								// e.g. a temporary directory that has already been deleted again
+								Logger.getDefault()
+										.log(new LogMessage("Can't watch " + currentDir + ": " + e.getMessage(),
+												WatchODSToCSVAction.this, LogMessage.SEVERITY_WARNING));
+
+								return FileVisitResult.SKIP_SUBTREE;
+							}
+						}
+
+						return FileVisitResult.CONTINUE;
+					}
+
+					@Override
+					public FileVisitResult visitFile(Path file, BasicFileAttributes attrs) {
+						if (attrs.isRegularFile() && isSpreadSheet(file)) {
+							schedule(file);
+						}
+
+						return FileVisitResult.CONTINUE;
+					}
+
+					@Override
+					public FileVisitResult visitFileFailed(Path file, IOException exc) {
+						Logger.getDefault().log(new LogMessage("Can't access " + file + ": " + exc.getMessage(),
+								WatchODSToCSVAction.this, LogMessage.SEVERITY_WARNING));
+
+						return FileVisitResult.CONTINUE;
+					}
+				});
+	}
+
+	/**
+	 * (Re-)Starts the quiet period for the given spreadsheet
+	 * 
+	 * @param spreadSheet
+	 *            The changed spreadsheet
+	 */
+	protected void schedule(Path spreadSheet) {
+		// re-insert so that the map stays ordered by deadline
+		pendingSpreadSheets.remove(spreadSheet);
+		pendingSpreadSheets.put(spreadSheet, System.nanoTime() + TimeUnit.MILLISECONDS.toNanos(quietPeriod));
+	}
+
+	/**
+	 * Gets the time (in nanoseconds) the next quiet period ends
+	 */
+	protected long nextDeadline() {
+		return pendingSpreadSheets.values().iterator().next();
+	}
+
+	/**
+	 * Extracts the pending spreadsheets whose quiet period has ended
+	 * 
+	 * @param all
+	 *            Whether all pending spreadsheets should be extracted regardless
+	 *            of their quiet period
+	 */
+	protected void extractPending(boolean all) {
+		long now = System.nanoTime();
+		List<Path> due = new ArrayList<>();
+
+		Iterator<Map.Entry<Path, Long>> iterator = pendingSpreadSheets.entrySet().iterator();
+
+		while (iterator.hasNext()) {
+			Map.Entry<Path, Long> current = iterator.next();
+
+			if (!all && current.getValue() - now > 0) {
+				// the remaining entries have later deadlines
+				break;
+			}
+
+			due.add(current.getKey());
+			iterator.remove();
+		}
+
+		for (Path currentSpreadSheet : due) {
+			extract(currentSpreadSheet);
+		}
+	}
+
+	/**
+	 * Extracts the given spreadsheet
+	 * 
+	 * @param spreadSheet
+	 *            The spreadsheet to extract
+	 */
+	protected void extract(Path spreadSheet) {
+		if (!Files.isRegularFile(spreadSheet)) {
+			// the spreadsheet has been deleted or renamed in the meantime
+			extractors.remove(spreadSheet);
+
+			return;
+		}
+
+		ExtractODSToCSVAction extractor = extractors.get(spreadSheet);
+
+		try {
+			if (extractor == null) {
+				extractor = new ExtractODSToCSVAction();
+				extractor.setPreferenceRules(getPreferenceRules());
+				extractor.setParameter(new Object[] { spreadSheet.toString(), csvTarget, true, emptyCellReplacement,
+						addTransposed, 1 });
+
+				extractors.put(spreadSheet, extractor);
+			}
+
+			if (extractor.run() != EStatus.OK) {
+				Logger.getDefault().log(new LogMessage("Failed to extract " + spreadSheet, this,
+						LogMessage.SEVERITY_ERROR));
+			}
+		} catch (RuntimeException e) {
+			// e.g. an InvalidParameterException if the spreadsheet vanished in the meantime
+			e.printStackTrace();
+
+			Logger.getDefault().log(e, this);
+		}
+	}
+
+	/**
+	 * Checks whether the given file is a .ods spreadsheet
+	 */
+	protected static boolean isSpreadSheet(Path file) {
+		return file.getFileName().toString().toLowerCase().endsWith(".ods");
+	}
+
+	@Override
+	public Class<?> getPreferenceType() {
+		return ExtractODSToCSVRule.class;
+	}
+
+	@Override
+	public AbstractPreference getDefaultPreferences() {
+		AbstractPreference preferences = new ExtractODSToCSVRule();
+		preferences.initializeWithDefaults();
+
+		return preferences;
+	}
+
+	@Override
+	public boolean validateParameter(Object[] args) {
+		if (args == null) {
+			Logger.getDefault()
+					.log(new LogMessage("The parameter array must not be null!", this, LogMessage.SEVERITY_ERROR));
+
+			return false;
+		}
+
+		if (args.length != getDefaultParameter().length) {
+			Logger.getDefault()
+					.log(new LogMessage("Expected the parameter array to contain " + getDefaultParameter().length
+							+ " elements (got " + args.length + ")!", this, LogMessage.SEVERITY_ERROR));
+
+			return false;
+		}
+
+		if (!(args[0] instanceof String)) {
+			Logger.getDefault().log(
+					new LogMessage("Expected first argument to be of type String!", this, LogMessage.SEVERITY_ERROR));
+
+			return false;
+		}
+
+		if (!new File((String) args[0]).isDirectory()) {
+			Logger.getDefault().log(new LogMessage("The specified path is not a directory! (" + args[0] + ")", this,
+					LogMessage.SEVERITY_ERROR));
+
+			return false;
+		}
+
+		if (!(args[1] instanceof String)) {
+			Logger.getDefault().log(
+					new LogMessage("Expected second argument to be of type String!", this, LogMessage.SEVERITY_ERROR));
+
+			return false;
+		}
+
+		if (!(args[3] instanceof Boolean)) {
+			Logger.getDefault()
+					.log(new LogMessage("Expected fourth argument to be of type Boolean (got \"" + args[3] + "\")!",
+							this, LogMessage.SEVERITY_ERROR));
+
+			return false;
+		}
+
+		if (!(args[4] instanceof Long) || (Long) args[4] < 0) {
+			Logger.getDefault()
+					.log(new LogMessage("Expected fifth argument to be a non-negative Long (got \"" + args[4] + "\")!",
+							this, LogMessage.SEVERITY_ERROR));
+
+			return false;
+		}
+
+		if (!(args[5] instanceof Boolean)) {
+			Logger.getDefault()
+					.log(new LogMessage("Expected sixth argument to be of type Boolean (got \"" + args[5] + "\")!",
+							this, LogMessage.SEVERITY_ERROR));
+
+			return false;
+		}
+
+		return true;
+	}
+
+	@Override
+	protected void applyParameter(Object[] args) {
+		rootDir = new File((String) args[0]);
+
+		csvTarget = (String) args[1];
+
+		emptyCellReplacement = (String) args[2];
+
+		addTransposed = (Boolean) args[3];
+
+		quietPeriod = (Long) args[4];
+
+		recursive = (Boolean) args[5];
+	}
+
+	@Override
+	public Object[] getDefaultParameter() {
+		return new Object[] { null, ExtractODSToCSVAction.USE_SAME_DIR, "", false, 1000L, true };
+	}
+
+	@Override
+	protected String[] getParameterKeys() {
+		return new String[] { "root", "targetDir", "replaceEmpty", "addTransposed", "quietPeriod", "recursive" };
+	}
+
+	@Override
+	protected ITypeConverter<String, Object>[] getParameterConverters() {
+		@SuppressWarnings("unchecked")
+		ITypeConverter<String, Object>[] converter = (ITypeConverter<String, Object>[]) Array
+				.newInstance(ITypeConverter.class, 6);
+
+		converter[0] = new ITypeConverter<String, Object>() {
+
+			@Override
+			public Object convert(String input) {
+				return input;
+			}
+		};
+
+		converter[1] = converter[0];
+
+		converter[2] = converter[0];
+
+		converter[3] = new ITypeConverter<String, Object>() {
+
+			@Override
+			public Object convert(String input) {
+				return Boolean.parseBoolean(input);
+			}
+		};
+
+		converter[4] = new ITypeConverter<String, Object>() {
+
+			@Override
+			public Object convert(String input) {
+				try {
+					return Long.parseUnsignedLong(input);
+				} catch (NumberFormatException e) {
+					Logger.getDefault().log(e, this);
+
+					return null;
+				}
+			}
+		};
+
+		converter[5] = converter[3];
+
+		return converter;
+	}
+
+	@Override
+	public boolean requiresParameter() {
+		return true;
+	}
+
+}
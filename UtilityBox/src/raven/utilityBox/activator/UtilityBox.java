@@ -5,9 +5,11 @@ import java.util.ArrayList;
 import java.util.List;
 
 import raven.utilityBox.actions.AbstractAction;
+import raven.utilityBox.actions.BatchExtractODSToCSVAction;
 import raven.utilityBox.actions.ExtractODSToCSVAction;
 import raven.utilityBox.actions.FilenameFormatAction;
 import raven.utilityBox.actions.Mp3FilenameFormatAction;
+import raven.utilityBox.actions.WatchODSToCSVAction;
 import raven.utilityBox.interfaces.IAction;
 import raven.utilityBox.logging.LogMessage;
 import raven.utilityBox.logging.Logger;
@@ -262,5 +264,7 @@ public class UtilityBox {
 		actions.add(FilenameFormatAction.class);
 		actions.add(Mp3FilenameFormatAction.class);
 		actions.add(ExtractODSToCSVAction.class);
+		actions.add(BatchExtractODSToCSVAction.class);
+		actions.add(WatchODSToCSVAction.class);
 	}
 }
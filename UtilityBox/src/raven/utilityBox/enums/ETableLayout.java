@@ -0,0 +1,26 @@
+package raven.utilityBox.enums;
+
+/**
+ * An enum containing the different memory layouts a
+ * {@link raven.utilityBox.table.Table} can store its data in
+ * 
+ * @author Raven
+ *
+ */
+public enum ETableLayout {
+	/**
+	 * Every row is stored in its own array. Row-reads don't need to copy anything
+	 */
+	ROW_MAJOR,
+	/**
+	 * Every column is stored in its own array. Column-reads don't need to copy
+	 * anything
+	 */
+	COLUMN_MAJOR,
+	/**
+	 * Only the non-empty cells are stored (in a hash map per row). The memory
+	 * usage scales with the amount of occupied cells instead of with the size of
+	 * the table.
+	 */
+	SPARSE
+}
@@ -0,0 +1,307 @@
+package raven.utilityBox.files;
+
+import java.io.Closeable;
+import java.io.File;
+import java.io.IOException;
+import java.nio.channels.FileChannel;
+import java.nio.file.AtomicMoveNotSupportedException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.ThreadLocalRandom;
+
+/**
+ * A writer that replaces a file atomically. The content is written into a
+ * temporary file next to the target which is then moved over the target once
+ * the content is complete. Readers of the target therefore either see its old
+ * or its new content but never a partially written file and a crash never
+ * leaves a truncated target behind.<br>
+ * Optionally the content is synced to the disk before it replaces the target.
+ * In order to reduce the costs of syncing, several files can be published
+ * together via a {@link SyncBatch}.
+ */
+public class AtomicFileWriter implements Closeable {
+
+	/**
+	 * The suffix of the temporary files
+	 */
+	public static final String TEMP_SUFFIX = ".tmp";
+
+	/**
+	 * The file that will be replaced
+	 */
+	protected final File target;
+	/**
+	 * The temporary file the content is written into
+	 */
+	protected final File tempFile;
+	/**
+	 * Whether the content should be synced to the disk before publishing it
+	 */
+	protected final boolean sync;
+	/**
+	 * The batch this writer is published with (may be <code>null</code>)
+	 */
+	protected final SyncBatch batch;
+	/**
+	 * The channel of the {@link #tempFile}
+	 */
+	protected FileChannel channel;
+	/**
+	 * Indicates whether this writer has been committed
+	 */
+	protected boolean committed;
+
+
+	/**
+	 * Creates a new writer for the given file. The content is not synced to the
+	 * disk.
+	 * 
+	 * @param target
+	 *            The file to replace
+	 * @throws IOException
+	 */
+	public AtomicFileWriter(File target) throws IOException {
+		this(target, false, null);
+	}
+
+	/**
+	 * Creates a new writer for the given file
+	 * 
+	 * @param target
+	 *            The file to replace
+	 * @param sync
+	 *            Whether the content should be synced to the disk before it
+	 *            replaces the target
+	 * @throws IOException
+	 */
+	public AtomicFileWriter(File target, boolean sync) throws IOException {
+		this(target, sync, null);
+	}
+
+	/**
+	 * Creates a new writer for the given file that will be synced and published
+	 * together with the other files of the given batch
+	 * 
+	 * @param target
+	 *            The file to replace
+	 * @param batch
+	 *            The batch to publish the file with
+	 * @throws IOException
+	 */
+	public AtomicFileWriter(File target, SyncBatch batch) throws IOException {
+		this(target, true, batch);
+	}
+
+	/**
+	 * Creates a new writer
+	 * 
+	 * @param target
+	 *            The file to replace
+	 * @param sync
+	 *            Whether the content should be synced to the disk
+	 * @param batch
+	 *            The batch to publish the file with (may be <code>null</code>)
+	 * @throws IOException
+	 */
+	protected AtomicFileWriter(File target, boolean sync, SyncBatch batch) throws IOException {
+		this.target = target.getAbsoluteFile();
+		this.sync = sync;
+		this.batch = batch;
+
+		File dir = this.target.getParentFile();
+		File candidate;
+
+		do {
+			// the name is hidden and unique so that neither readers nor concurrent writers
+			// pick it up
+			candidate = new File(dir, "." + this.target.getName() + "."
+					+ Long.toHexString(ThreadLocalRandom.current().nextLong()) + TEMP_SUFFIX);
+		} while (!candidate.createNewFile());
+
+		tempFile = candidate;
+		channel = FileChannel.open(tempFile.toPath(), StandardOpenOption.WRITE);
+	}
+
+	/**
+	 * Gets the channel the content has to be written to. It must not be closed by
+	 * the caller.
+	 */
+	public FileChannel getChannel() {
+		return channel;
+	}
+
+	/**
+	 * Gets the file that will be replaced
+	 */
+	public File getTarget() {
+		return target;
+	}
+
+	/**
+	 * Completes the writing and replaces the target with the written content. If
+	 * this writer belongs to a {@link SyncBatch} the target is only replaced once
+	 * the batch gets flushed.
+	 * 
+	 * @throws IOException
+	 */
+	public void commit() throws IOException {
+		if (committed) {
+			throw new IllegalStateException("The writer has already been committed!");
+		}
+
+		if (sync && batch == null) {
+			channel.force(true);
+		}
+
+		channel.close();
+		committed = true;
+
+		if (batch != null) {
+			batch.add(tempFile, target);
+		} else {
+			move(tempFile.toPath(), target.toPath());
+
+			if (sync) {
+				syncDirectory(target.getParentFile());
+			}
+		}
+	}
+
+	/**
+	 * Closes this writer. If it hasn't been committed, the written content is
+	 * discarded and the target stays untouched.
+	 */
+	@Override
+	public void close() throws IOException {
+		if (!committed) {
+			try {
+				channel.close();
+			} finally {
+				committed = true;
+
+				Files.deleteIfExists(tempFile.toPath());
+			}
+		}
+	}
+
+	/**
+	 * Moves the given file over the given target. The move is atomic if the file
+	 * system supports it.
+	 * 
+	 * @param source
+	 *            The file to move
+	 * @param target
+	 *            The file to replace
+	 * @throws IOException
+	 */
+	public static void move(Path source, Path target) throws IOException {
+		try {
+			Files.move(source, target, StandardCopyOption.ATOMIC_MOVE, StandardCopyOption.REPLACE_EXISTING);
+		} catch (AtomicMoveNotSupportedException e) {
+			Files.move(source, target, StandardCopyOption.REPLACE_EXISTING);
+		}
+	}
+
+	/**
+	 * Syncs the given directory (and thereby the renames inside it) to the disk.
+	 * As not every platform supports this, failures are ignored.
+	 * 
+	 * @param dir
+	 *            The directory to sync
+	 */
+	public static void syncDirectory(File dir) {
+		try (FileChannel dirChannel = FileChannel.open(dir.toPath(), StandardOpenOption.READ)) {
+			dirChannel.force(true);
+		} catch (IOException e) {
+			// e.g. directories can't be opened on Windows
+		}
+	}
+
+
+	/**
+	 * A batch of files that are synced and published together. This way the
+	 * written files can be synced back to back and every directory has to be
+	 * synced only once per batch. All methods may be called concurrently.
+	 */
+	public static class SyncBatch {
+
+		/**
+		 * The committed temporary files in the order they have been committed
+		 */
+		protected List<File> tempFiles;
+		/**
+		 * The targets of the {@link #tempFiles} (same order)
+		 */
+		protected List<File> targets;
+
+
+		public SyncBatch() {
+			tempFiles = new ArrayList<>();
+			targets = new ArrayList<>();
+		}
+
+		/**
+		 * Adds a committed file to this batch
+		 * 
+		 * @param tempFile
+		 *            The file containing the content
+		 * @param target
+		 *            The file to replace
+		 */
+		protected synchronized void add(File tempFile, File target) {
+			tempFiles.add(tempFile);
+			targets.add(target);
+		}
+
+		/**
+		 * Syncs all files of this batch and replaces their targets afterwards. If
+		 * the same target has been written several times, the last content wins.
+		 * 
+		 * @throws IOException
+		 */
+		public synchronized void flush() throws IOException {
+			try {
+				for (File currentFile : tempFiles) {
+					try (FileChannel currentChannel = FileChannel.open(currentFile.toPath(),
+							StandardOpenOption.WRITE)) {
+						currentChannel.force(true);
+					}
+				}
+
+				Set<File> dirs = new LinkedHashSet<>();
+
+				for (int i = 0; i < tempFiles.size(); i++) {
+					move(tempFiles.get(i).toPath(), targets.get(i).toPath());
+
+					dirs.add(targets.get(i).getParentFile());
+				}
+
+				for (File currentDir : dirs) {
+					syncDirectory(currentDir);
+				}
+			} finally {
+				// the files that have been published don't exist anymore
+				discard();
+			}
+		}
+
+		/**
+		 * Discards all files of this batch that haven't been published yet. Their
+		 * targets stay untouched.
+		 */
+		public synchronized void discard() {
+			for (File currentFile : tempFiles) {
+				currentFile.delete();
+			}
+
+			tempFiles.clear();
+			targets.clear();
+		}
+	}
+}
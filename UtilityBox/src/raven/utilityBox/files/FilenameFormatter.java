@@ -1,6 +1,7 @@
 package raven.utilityBox.files;
 
 import java.io.File;
+import java.util.Arrays;
 import java.util.regex.Matcher;
 import java.util.regex.Pattern;
 
@@ -10,8 +11,10 @@ import raven.utilityBox.exceptions.FileDoesNotExistsException;
 import raven.utilityBox.interfaces.IValidator;
 import raven.utilityBox.logging.LogMessage;
 import raven.utilityBox.logging.Logger;
+import raven.utilityBox.preferences.rules.CompiledFilenameRules;
 import raven.utilityBox.preferences.rules.FilenameFormatterRule;
 import raven.utilityBox.ui.UserInteraction;
+import raven.utilityBox.util.StringBuilderUtil;
 
 public class FilenameFormatter {
 	
@@ -21,6 +24,17 @@ public class FilenameFormatter {
 	 */
 	public static final char[][] BRACKETS = { { '(', ')' }, { '[', ']' },
 			{ '{', '}' } };
+	/**
+	 * The buffer every thread formats the file names in (reused for every
+	 * file)
+	 */
+	private static final ThreadLocal<WorkBuffer> WORK_BUFFER =
+			new ThreadLocal<WorkBuffer>() {
+		@Override
+		protected WorkBuffer initialValue() {
+			return new WorkBuffer();
+		}
+	};
 	
 	/**
 	 * The music file whose name should be formatted
@@ -30,6 +44,11 @@ public class FilenameFormatter {
 	 * The rules for formatting the file name
 	 */
 	protected FilenameFormatterRule rules;
+	/**
+	 * The compiled form of the {@link #rules} (shared with all other formatters
+	 * using the same rules)
+	 */
+	protected CompiledFilenameRules compiledRules;
 	/**
 	 * The original filename (without file extension) before any formatting was
 	 * applied
@@ -54,6 +73,7 @@ public class FilenameFormatter {
 		
 		this.file = file;
 		this.rules = rules;
+		this.compiledRules = rules.getCompiledRules();
 		
 		String fileName = file.getName();
 		if (fileName.contains(".")) {
@@ -104,41 +124,50 @@ public class FilenameFormatter {
 	 * Starts formatting the filename of this file
 	 */
 	public void format() {
+		WorkBuffer buffer = WORK_BUFFER.get();
+		StringBuilder name = buffer.content;
+		
+		// all stages work in place on the buffer
+		name.setLength(0);
+		
 		if (formattedFileName == null) {
+			name.append(originalFilename);
+			
 			if (rules.transformLettersToLowercaseBeforeFormatting()) {
-				if (rules.trimFilename()) {
-					formattedFileName = new StringBuilder(
-							originalFilename.toLowerCase().trim());
-				} else {
-					formattedFileName = new StringBuilder(
-							originalFilename.toLowerCase());
-				}
-			} else {
-				if (rules.trimFilename()) {
-					formattedFileName = new StringBuilder(
-							originalFilename.trim());
-				} else {
-					formattedFileName = new StringBuilder(originalFilename);
-				}
+				StringBuilderUtil.toLowerCase(name);
+			}
+			
+			if (rules.trimFilename()) {
+				StringBuilderUtil.trim(name);
 			}
+		} else {
+			name.append(formattedFileName);
 		}
 		
 		if (rules.checkBracketContent()) {
-			checkBracketContent(formattedFileName);
+			checkBracketContent(name);
 		}
 		
 		if (rules.specifiesPrefixRegex()) {
-			removePrefix();
+			removePrefix(name, buffer.getPrefixMatchers(compiledRules));
 		}
 		
 		if (rules.transformFirstLettersToUpperCase()) {
-			transformFirstLettersToUpperCase(formattedFileName);
+			transformFirstLettersToUpperCase(name);
 		}
 		
 		if (rules.trimFilename()) {
 			// remove leading, trailing WS and double blanks
-			formattedFileName = new StringBuilder(formattedFileName.toString()
-					.trim().replaceAll("\\s\\s+", " "));
+			StringBuilderUtil.trim(name);
+			StringBuilderUtil.collapseWhitespaces(name);
+		}
+		
+		// the buffer is reused so the result has to be copied
+		if (formattedFileName == null) {
+			formattedFileName = new StringBuilder(name);
+		} else {
+			formattedFileName.setLength(0);
+			formattedFileName.append(name);
 		}
 	}
 	
@@ -148,9 +177,9 @@ public class FilenameFormatter {
 	 */
 	protected void replaceFileSystemSeperator() {
 		// prevent accidental creations of folders
-		String notSeperator = (File.separator.equals("\\")) ? "/" : "\\";
-		formattedFileName = new StringBuilder(formattedFileName.toString()
-				.replaceAll(File.separator, notSeperator));
+		char notSeperator = (File.separatorChar == '\\') ? '/' : '\\';
+		StringBuilderUtil.replace(formattedFileName, File.separatorChar,
+				notSeperator);
 	}
 	
 	/**
@@ -308,7 +337,9 @@ public class FilenameFormatter {
 	}
 	
 	/**
-	 * Transforms the first letter in every word into an uppercase letter
+	 * Transforms the first letter in every word into an uppercase letter. The
+	 * builder is processed by code point so that letters outside of the Basic
+	 * Multilingual Plane are handled as well.
 	 * 
 	 * @param builder
 	 *            The <code>StrinBuilder</code> to use as a source string
@@ -316,51 +347,105 @@ public class FilenameFormatter {
 	protected void transformFirstLettersToUpperCase(StringBuilder builder) {
 		boolean newWord = true;
 		
-		for (int i = 0; i < builder.length(); i++) {
-			char currentChar = builder.charAt(i);
+		for (int i = 0; i < builder.length();) {
+			int currentCodePoint = builder.codePointAt(i);
+			int charCount = Character.charCount(currentCodePoint);
 			
-			if (newWord && Character.isAlphabetic(currentChar)) {
+			if (newWord && Character.isAlphabetic(currentCodePoint)) {
 				// transform character too uppercase as it is at a word's start
-				builder.setCharAt(i, Character.toUpperCase(currentChar));
+				int upperCase = Character.toUpperCase(currentCodePoint);
+				
+				if (charCount == 1 && upperCase <= Character.MAX_VALUE) {
+					builder.setCharAt(i, (char) upperCase);
+				} else {
+					builder.replace(i, i + charCount,
+							new String(Character.toChars(upperCase)));
+					charCount = Character.charCount(upperCase);
+				}
 			}
 			
 			// check whether the current character is the last one in a word
-			if (rules.isWordDelimiter(currentChar)) {
-				newWord = true;
-			} else {
-				newWord = false;
-			}
+			newWord = compiledRules.isWordDelimiter(currentCodePoint);
+			
+			i += charCount;
 		}
 	}
 	
 	/**
-	 * Checks the different brackets for their content
+	 * Checks the different brackets for their content and removes the ones
+	 * that should not be preserved. The name is scanned only once for all
+	 * bracket types: a bracket starts at the first opener of its type and ends
+	 * at the next closer of that type (brackets of the same type don't nest).
+	 * Every bracket is checked as soon as it gets closed - after the brackets
+	 * it contains have already been checked (and possibly removed).<br>
+	 * Therefore brackets of different types that are nested or overlap are
+	 * checked from the inside out instead of one bracket type after another.
 	 * 
 	 * @param builder
 	 *            The <code>StringBuilder</code> to use as a source string
 	 */
 	protected void checkBracketContent(StringBuilder builder) {
-		for (char[] currentBracket : (rules.useSpecifiedBracketsOnly())
-				? rules.getBracketsToFormat() : BRACKETS) {
-			Pattern pattern = Pattern.compile(Pattern
-					.quote(String.valueOf(currentBracket[0])) + ".*?"
-					+ (Pattern.quote(String.valueOf(currentBracket[1]))));
+		char[][] brackets = compiledRules.getBrackets();
+		// the position of the currently open bracket of every type (-1 if none)
+		int[] openedAt = new int[brackets.length];
+		Arrays.fill(openedAt, -1);
+		
+		boolean caseSensitive = rules.bracketContentIsCaseSensitive();
+		int length = builder.length();
+		// the builder is compacted in place while it is scanned
+		int writeIndex = 0;
+		
+		for (int readIndex = 0; readIndex < length; readIndex++) {
+			char currentChar = builder.charAt(readIndex);
+			builder.setCharAt(writeIndex, currentChar);
+			writeIndex++;
 			
-			Matcher matcher = pattern.matcher(builder);
+			if (isLineTerminator(currentChar)) {
+				// brackets can't span multiple lines
+				Arrays.fill(openedAt, -1);
+				continue;
+			}
 			
-			while (matcher.find()) {
-				String bracketContent = builder.substring(matcher.start(),
-						matcher.end());
-				
-				if (!preserveBracket(bracketContent,
-						rules.bracketContentIsCaseSensitive())) {
-					// The bracket has to be deleted
-					builder.delete(matcher.start(), matcher.end());
+			for (int i = 0; i < brackets.length; i++) {
+				if (openedAt[i] >= 0 && currentChar == brackets[i][1]) {
+					int start = openedAt[i];
+					openedAt[i] = -1;
 					
-					matcher = pattern.matcher(builder);
+					if (!preserveBracket(builder.substring(start, writeIndex),
+							caseSensitive)) {
+						// The bracket has to be deleted
+						writeIndex = start;
+						
+						for (int j = 0; j < openedAt.length; j++) {
+							if (openedAt[j] >= start) {
+								// the opener has been deleted as well
+								openedAt[j] = -1;
+							}
+						}
+						
+						break;
+					}
+				} else {
+					if (openedAt[i] < 0 && currentChar == brackets[i][0]) {
+						openedAt[i] = writeIndex - 1;
+					}
 				}
 			}
 		}
+		
+		builder.setLength(writeIndex);
+	}
+	
+	/**
+	 * Checks whether the given character terminates a line (and can therefore
+	 * not be part of a bracket)
+	 * 
+	 * @param c
+	 *            The character to check
+	 */
+	protected static boolean isLineTerminator(char c) {
+		return c == '\n' || c == '\r' || c == '\u0085' || c == '\u2028'
+				|| c == '\u2029';
 	}
 	
 	/**
@@ -374,58 +459,41 @@ public class FilenameFormatter {
 	 */
 	protected boolean preserveBracket(String bracketContent,
 			boolean caseSensitive) {
-		if (!caseSensitive) {
-			bracketContent = bracketContent.toLowerCase();
-		}
-		
-		boolean wholeWord = rules.searchBracketContentForWholeWords();
-		
-		for (String currentBracketContent : rules.getAllowedBracketContent()) {
-			if (!caseSensitive) {
-				currentBracketContent = currentBracketContent.toLowerCase();
-			}
-			
-			if (wholeWord) {
-				// only search for whole words
-				if (bracketContent.matches(".*\\b"
-						+ Pattern.quote(currentBracketContent) + "\\b.*")) {
-					// skip this bracket as it has to be preserved
-					// because of it's content
-					return true;
-				}
-			} else {
-				// also search for word parts
-				if (bracketContent.contains(currentBracketContent)) {
-					// skip this bracket as it has to be preserved
-					// because of it's content
-					return true;
-				}
-			}
-		}
-		
-		return false;
+		// search all allowed content at once (either as whole words or as word
+		// parts)
+		return compiledRules.getAllowedContentMatcher(caseSensitive).containsAny(
+				bracketContent, rules.searchBracketContentForWholeWords());
 	}
 	
 	/**
-	 * Removes all prefixes from the file name that match one of the given
+	 * Removes all prefixes from the given name that match one of the given
 	 * prefix regex from the preferences
+	 * 
+	 * @param builder
+	 *            The builder containing the name
+	 * @param prefixMatchers
+	 *            The matchers for the prefix patterns of the
+	 *            {@link #compiledRules} (in the same order)
 	 */
-	protected void removePrefix() {
-		for (String currentRegex : rules.getPrefixRegexToRemove()) {
-			Matcher matcher = Pattern.compile(currentRegex)
-					.matcher(formattedFileName);
+	protected void removePrefix(StringBuilder builder,
+			Matcher[] prefixMatchers) {
+		for (Matcher matcher : prefixMatchers) {
+			matcher.reset(builder);
 			
 			if (matcher.find() && matcher.start() == 0) {
 				// remove prefix
-				String name = formattedFileName.substring(matcher.end());
+				builder.delete(0, matcher.end());
 				
 				if (rules.trimFilename()) {
-					name = name.trim();
+					StringBuilderUtil.trim(builder);
 				}
-				
-				formattedFileName = new StringBuilder(name);
 			}
 		}
+		
+		// don't keep a reference to the content
+		for (Matcher matcher : prefixMatchers) {
+			matcher.reset("");
+		}
 	}
 	
 	
@@ -436,4 +504,43 @@ public class FilenameFormatter {
 		return rules;
 	}
 	
+	
+	/**
+	 * The objects a thread reuses for formatting one file name after another
+	 */
+	private static class WorkBuffer {
+		
+		/**
+		 * The name that is being formatted
+		 */
+		private final StringBuilder content = new StringBuilder();
+		/**
+		 * The rules the {@link #prefixMatchers} have been created for
+		 */
+		private CompiledFilenameRules prefixRules;
+		/**
+		 * The matchers for the prefix patterns of the {@link #prefixRules}
+		 */
+		private Matcher[] prefixMatchers;
+		
+		
+		/**
+		 * Gets the matchers for the prefix patterns of the given rules
+		 */
+		private Matcher[] getPrefixMatchers(CompiledFilenameRules rules) {
+			if (rules != prefixRules) {
+				Pattern[] patterns = rules.getPrefixPatterns();
+				
+				prefixMatchers = new Matcher[patterns.length];
+				for (int i = 0; i < patterns.length; i++) {
+					prefixMatchers[i] = patterns[i].matcher("");
+				}
+				
+				prefixRules = rules;
+			}
+			
+			return prefixMatchers;
+		}
+	}
+	
 }
@@ -2,8 +2,8 @@ package raven.utilityBox.files;
 
 import java.io.File;
 import java.io.IOException;
+import java.util.BitSet;
 import java.util.regex.Matcher;
-import java.util.regex.Pattern;
 
 import org.eclipse.swt.SWT;
 
@@ -18,6 +18,7 @@ import com.mpatric.mp3agic.UnsupportedTagException;
 import raven.utilityBox.exceptions.FileDoesNotExistsException;
 import raven.utilityBox.logging.LogMessage;
 import raven.utilityBox.logging.Logger;
+import raven.utilityBox.preferences.rules.CompiledMp3FilenameRules;
 import raven.utilityBox.preferences.rules.Mp3FilenameFormatterRule;
 import raven.utilityBox.ui.UserInteraction;
 
@@ -458,28 +459,29 @@ public class Mp3Filenameformatter extends FilenameFormatter {
 		return (Mp3FilenameFormatterRule) rules;
 	}
 
+	/**
+	 * Gets the compiled form of the rules
+	 */
+	protected CompiledMp3FilenameRules getCompiledRules() {
+		return (CompiledMp3FilenameRules) compiledRules;
+	}
+
 	@Override
 	protected boolean preserveBracket(String bracketContent, boolean caseSensitive) {
 		// Check if any featuring information have to be stripped out of this
 		// bracket
 		if (getPreferences().checkFeaturing()) {
-			for (String currentFeat : getPreferences().getFeaturingIndicators()) {
-				String contentCopy;
-				if (!caseSensitive) {
-					currentFeat = currentFeat.toLowerCase();
-					contentCopy = bracketContent.toLowerCase();
-				} else {
-					contentCopy = bracketContent;
-				}
+			String[] indicators = getCompiledRules().getFeaturingIndicators();
+			// try to match the featuring patterns
+			BitSet foundIndicators = getCompiledRules().findFeaturingIndicators(bracketContent, caseSensitive);
 
-				// try to match a featuring pattern
-				if (Pattern.compile("\\b" + currentFeat + "\\b").matcher(contentCopy).find()) {
-					// strip the featuring out of the content (without brackets)
-					processFeaturing(bracketContent.substring(1, bracketContent.length() - 1), currentFeat,
-							caseSensitive);
+			// process them in the order they have been specified in
+			for (int i = foundIndicators.nextSetBit(0); i >= 0; i = foundIndicators.nextSetBit(i + 1)) {
+				String currentFeat = (caseSensitive) ? indicators[i] : indicators[i].toLowerCase();
 
-					continue;
-				}
+				// strip the featuring out of the content (without brackets)
+				processFeaturing(bracketContent.substring(1, bracketContent.length() - 1), currentFeat,
+						caseSensitive);
 			}
 		}
 
@@ -498,7 +500,8 @@ public class Mp3Filenameformatter extends FilenameFormatter {
 	 *            Indicates whether the processing should be done case-sensitively
 	 */
 	protected void processFeaturing(String content, String indicator, boolean caseSensitive) {
-		Matcher matcher = Pattern.compile("\\b" + ((caseSensitive) ? indicator : indicator.toLowerCase()) + "\\b")
+		Matcher matcher = getCompiledRules()
+				.getFeaturingPattern((caseSensitive) ? indicator : indicator.toLowerCase(), caseSensitive)
 				.matcher((caseSensitive) ? content : content.toLowerCase());
 
 		if (matcher.find()) {
@@ -530,17 +533,7 @@ public class Mp3Filenameformatter extends FilenameFormatter {
 	 * @return The indicator in the proper case
 	 */
 	protected String getFeaturingIndicatorCase(String indicator) {
-		indicator = indicator.toLowerCase();
-
-		if (getPreferences().checkFeaturing()) {
-			for (String currentIndicator : getPreferences().getFeaturingIndicators()) {
-				if (currentIndicator.toLowerCase().equals(indicator)) {
-					return currentIndicator;
-				}
-			}
-		}
-
-		return null;
+		return getCompiledRules().getFeaturingIndicatorCase(indicator);
 	}
 
 	/**
@@ -559,9 +552,11 @@ public class Mp3Filenameformatter extends FilenameFormatter {
 			featuring = featureBuilder.toString();
 		}
 
-		for (String currentIndicator : getPreferences().getFeaturingIndicators()) {
-			Matcher matcher = Pattern.compile("\\b" + Pattern.quote(currentIndicator) + "\\b")
-					.matcher(featuring.toLowerCase());
+		String[] indicators = getCompiledRules().getFeaturingIndicators();
+
+		for (int i = 0; i < indicators.length; i++) {
+			String currentIndicator = indicators[i];
+			Matcher matcher = getCompiledRules().getQuotedFeaturingPatterns()[i].matcher(featuring.toLowerCase());
 
 			while (matcher.find()) {
 				// write the indicator in proper case
@@ -571,10 +566,11 @@ public class Mp3Filenameformatter extends FilenameFormatter {
 
 			// follow the dot rule
 			if (getPreferences().endFeaturingWithDot()) {
-				featuring = featuring.replaceAll("\\b" + Pattern.quote(currentIndicator) + "\\s",
-						currentIndicator + ". ");
+				featuring = getCompiledRules().getUndottedFeaturingPatterns()[i].matcher(featuring)
+						.replaceAll(currentIndicator + ". ");
 			} else {
-				featuring = featuring.replaceAll("\\b" + Pattern.quote(currentIndicator) + "\\.", currentIndicator);
+				featuring = getCompiledRules().getDottedFeaturingPatterns()[i].matcher(featuring)
+						.replaceAll(currentIndicator);
 			}
 		}
 
@@ -0,0 +1,581 @@
+package raven.utilityBox.files;
+
+import java.io.BufferedReader;
+import java.io.BufferedWriter;
+import java.io.Closeable;
+import java.io.File;
+import java.io.FileInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.Writer;
+import java.nio.channels.Channels;
+import java.nio.channels.FileChannel;
+import java.nio.channels.FileLock;
+import java.nio.charset.Charset;
+import java.nio.file.Files;
+import java.nio.file.StandardOpenOption;
+import java.security.DigestInputStream;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.locks.ReentrantLock;
+
+/**
+ * A store remembering the state (size, modification time and content hash) of
+ * files at the time they have last been processed. It is used to detect
+ * whether a file has to be processed again.<br>
+ * The store's file is an append-only log: every change is appended as a line of
+ * the form
+ * <code>"&lt;key&gt;" - &lt;size&gt; - &lt;modification time&gt; - &lt;hash&gt;</code>
+ * and later lines override earlier ones. Lines in the older form
+ * <code>"&lt;key&gt;" - &lt;timestamp&gt;</code> are read as entries of unknown
+ * state. When loading, the log is read once into a hash map so that every
+ * lookup is O(1). Once the log contains a lot of outdated lines it is compacted
+ * by writing the current entries into a temporary file which then atomically
+ * replaces the log.<br>
+ * All accesses to the file are guarded by a lock on a sibling lock-file (and by
+ * a lock within this JVM) so that concurrent runs using the same store don't
+ * corrupt it. Changes of concurrent runs are merged on a per-key basis.
+ */
+public class RunStateStore {
+
+	/**
+	 * The separator between the fields of an entry
+	 */
+	protected static final String FIELD_SEPARATOR = " - ";
+	/**
+	 * The algorithm used to hash the content of files
+	 */
+	public static final String HASH_ALGORITHM = "SHA-256";
+	/**
+	 * The suffix of the file used for locking the store
+	 */
+	public static final String LOCK_SUFFIX = ".lock";
+	/**
+	 * The size of the buffer used for hashing files
+	 */
+	private static final int HASH_BUFFER_SIZE = 1 << 16;
+	/**
+	 * The amount of lines the log may contain per entry before it gets compacted
+	 */
+	private static final int COMPACTION_FACTOR = 2;
+	/**
+	 * The amount of outdated lines that are always tolerated in the log
+	 */
+	private static final int COMPACTION_SLACK = 64;
+	/**
+	 * The locks used to synchronize the access to the stores within this JVM (by
+	 * canonical path of the store's file)
+	 */
+	private static final ConcurrentMap<String, ReentrantLock> LOCKS = new ConcurrentHashMap<>();
+
+	/**
+	 * The file this store is kept in
+	 */
+	protected File storeFile;
+	/**
+	 * The stored states
+	 */
+	protected Map<String, FileState> entries;
+	/**
+	 * The states that have been changed since the store has been loaded or saved
+	 */
+	protected Map<String, FileState> changes;
+	/**
+	 * The amount of lines in the store's file
+	 */
+	protected int lineCount;
+	/**
+	 * The size of the store's file when it has last been read or written by this
+	 * store
+	 */
+	protected long knownSize;
+	/**
+	 * The modification time of the store's file when it has last been read or
+	 * written by this store
+	 */
+	protected long knownLastModified;
+
+
+	/**
+	 * Creates a new store backed by the given file. The content of the file (if
+	 * any) is not loaded until {@link #load()} is called.
+	 * 
+	 * @param storeFile
+	 *            The file to keep the store in
+	 */
+	public RunStateStore(File storeFile) {
+		this.storeFile = storeFile;
+
+		entries = new HashMap<>();
+		changes = new LinkedHashMap<>();
+	}
+
+	/**
+	 * Loads the entries from the store's file. Unsaved changes are discarded.
+	 * 
+	 * @throws IOException
+	 */
+	public void load() throws IOException {
+		StoreLock lock = new StoreLock();
+
+		try {
+			reload();
+		} finally {
+			lock.close();
+		}
+	}
+
+	/**
+	 * Makes sure this store reflects the content of its file. Unsaved changes are
+	 * discarded and the file is only loaded again if it has been changed by
+	 * someone else since this store has last read or written it. This allows to
+	 * keep a store across several runs without having to load it every time.
+	 * 
+	 * @return Whether the store has been loaded again
+	 * @throws IOException
+	 */
+	public boolean refresh() throws IOException {
+		StoreLock lock = new StoreLock();
+
+		try {
+			if (changes.isEmpty() && !isChangedByOthers()) {
+				return false;
+			}
+
+			reload();
+
+			return true;
+		} finally {
+			lock.close();
+		}
+	}
+
+	/**
+	 * Reads the store's file discarding all entries and changes. Has to be called
+	 * while holding the lock.
+	 * 
+	 * @throws IOException
+	 */
+	private void reload() throws IOException {
+		entries = new HashMap<>();
+		changes.clear();
+		lineCount = read(entries);
+
+		rememberFileState();
+	}
+
+	/**
+	 * Remembers the current size and modification time of the store's file. Has
+	 * to be called while holding the lock.
+	 */
+	private void rememberFileState() {
+		knownSize = storeFile.length();
+		knownLastModified = storeFile.lastModified();
+	}
+
+	/**
+	 * Checks whether the store's file has been changed by someone else since this
+	 * store has last read or written it. Has to be called while holding the lock.
+	 */
+	private boolean isChangedByOthers() {
+		return storeFile.length() != knownSize || storeFile.lastModified() != knownLastModified;
+	}
+
+	/**
+	 * Gets the file this store is kept in
+	 */
+	public File getStoreFile() {
+		return storeFile;
+	}
+
+	/**
+	 * Appends all changes to the store's file and compacts it if necessary. Entries
+	 * that have been added to the file by someone else in the meantime are read
+	 * first.
+	 * 
+	 * @throws IOException
+	 */
+	public void save() throws IOException {
+		if (changes.isEmpty()) {
+			return;
+		}
+
+		StoreLock lock = new StoreLock();
+
+		try {
+			if (isChangedByOthers()) {
+				// take over the entries of concurrent runs so that they aren't missed later on
+				Map<String, FileState> current = new HashMap<>();
+				lineCount = read(current);
+				current.putAll(changes);
+
+				entries = current;
+			}
+
+			try (Writer out = Files.newBufferedWriter(storeFile.toPath(), Charset.defaultCharset(),
+					StandardOpenOption.CREATE, StandardOpenOption.WRITE, StandardOpenOption.APPEND)) {
+				for (Map.Entry<String, FileState> current : changes.entrySet()) {
+					writeEntry(out, current.getKey(), current.getValue());
+				}
+			}
+
+			lineCount += changes.size();
+			changes.clear();
+
+			if (lineCount > COMPACTION_FACTOR * entries.size() + COMPACTION_SLACK) {
+				compact();
+			}
+
+			rememberFileState();
+		} finally {
+			lock.close();
+		}
+	}
+
+	/**
+	 * Checks whether there are changes that haven't been saved yet
+	 */
+	public boolean isModified() {
+		return !changes.isEmpty();
+	}
+
+	/**
+	 * Rewrites the store's file so that it only contains the current entries. Has
+	 * to be called while holding the lock.
+	 * 
+	 * @throws IOException
+	 */
+	protected void compact() throws IOException {
+		// re-read the log so that the changes of concurrent runs are kept
+		Map<String, FileState> current = new HashMap<>();
+		read(current);
+
+		try (AtomicFileWriter fileWriter = new AtomicFileWriter(storeFile, true)) {
+			Writer out = new BufferedWriter(
+					Channels.newWriter(fileWriter.getChannel(), Charset.defaultCharset().newEncoder(), -1));
+
+			for (Map.Entry<String, FileState> currentEntry : current.entrySet()) {
+				writeEntry(out, currentEntry.getKey(), currentEntry.getValue());
+			}
+
+			out.flush();
+
+			// the content is synced before it replaces the log
+			fileWriter.commit();
+		}
+
+		entries = current;
+		lineCount = current.size();
+	}
+
+	/**
+	 * Reads the store's file into the given map
+	 * 
+	 * @param target
+	 *            The map to put the entries into
+	 * @return The amount of lines in the file
+	 * @throws IOException
+	 */
+	protected int read(Map<String, FileState> target) throws IOException {
+		if (!storeFile.exists()) {
+			return 0;
+		}
+
+		int lines = 0;
+
+		try (BufferedReader reader = Files.newBufferedReader(storeFile.toPath(), Charset.defaultCharset())) {
+			String currentLine;
+
+			while ((currentLine = reader.readLine()) != null) {
+				lines++;
+
+				int keyEnd = currentLine.indexOf("\"" + FIELD_SEPARATOR);
+
+				if (!currentLine.startsWith("\"") || keyEnd < 1) {
+					// not a valid entry
+					continue;
+				}
+
+				String key = currentLine.substring(1, keyEnd);
+				String[] fields = currentLine.substring(keyEnd + 1 + FIELD_SEPARATOR.length()).split(FIELD_SEPARATOR);
+
+				target.put(key, FileState.parse(fields));
+			}
+		}
+
+		return lines;
+	}
+
+	/**
+	 * Writes a single entry
+	 * 
+	 * @throws IOException
+	 */
+	private static void writeEntry(Writer out, String key, FileState state) throws IOException {
+		out.write("\"" + key + "\"" + FIELD_SEPARATOR + state + "\n");
+	}
+
+	/**
+	 * Gets the stored state for the given key
+	 * 
+	 * @param key
+	 *            The key to look up
+	 * @return The stored state or <code>null</code> if there is none
+	 */
+	public FileState get(String key) {
+		return entries.get(key);
+	}
+
+	/**
+	 * Stores the given state for the given key
+	 * 
+	 * @param key
+	 *            The key to store the state for
+	 * @param state
+	 *            The state to store
+	 */
+	public void put(String key, FileState state) {
+		entries.put(key, state);
+		changes.put(key, state);
+	}
+
+	/**
+	 * Checks whether the given file has changed compared to the state stored for
+	 * the given key. The content is only hashed if size or modification time
+	 * differ from the stored ones.
+	 * 
+	 * @param key
+	 *            The key the file's state is stored with
+	 * @param file
+	 *            The file to check
+	 * @return The current state of the file if it has changed or <code>null</code>
+	 *         if its content is the same as before. In the latter case the stored
+	 *         size and modification time are updated (the store isn't saved
+	 *         though).
+	 * @throws IOException
+	 */
+	public FileState detectChange(String key, File file) throws IOException {
+		FileState stored = entries.get(key);
+
+		if (stored != null && stored.hash != null && stored.size == file.length()
+				&& stored.lastModified == file.lastModified()) {
+			// the file hasn't been touched
+			return null;
+		}
+
+		FileState current = FileState.of(file);
+
+		if (stored != null && current.hash.equals(stored.hash)) {
+			// only the metadata has changed
+			put(key, current);
+
+			return null;
+		}
+
+		return current;
+	}
+
+	/**
+	 * Computes the hash of the given file's content
+	 * 
+	 * @param file
+	 *            The file to hash
+	 * @return The hash as a hex-String
+	 * @throws IOException
+	 */
+	public static String hash(File file) throws IOException {
+		MessageDigest digest = createDigest();
+
+		try (InputStream in = new DigestInputStream(new FileInputStream(file), digest)) {
+			byte[] buffer = new byte[HASH_BUFFER_SIZE];
+
+			while (in.read(buffer) >= 0) {
+				// the digest is updated while reading
+			}
+		}
+
+		return toHex(digest.digest());
+	}
+
+	/**
+	 * Creates a new digest for the {@link #HASH_ALGORITHM}
+	 */
+	public static MessageDigest createDigest() {
+		try {
+			return MessageDigest.getInstance(HASH_ALGORITHM);
+		} catch (NoSuchAlgorithmException e) {
+			// every Java platform has to support SHA-256
+			throw new IllegalStateException(e);
+		}
+	}
+
+	/**
+	 * Converts the given bytes into a hex-String
+	 */
+	public static String toHex(byte[] bytes) {
+		StringBuilder builder = new StringBuilder(bytes.length * 2);
+
+		for (byte current : bytes) {
+			builder.append(Character.forDigit((current >> 4) & 0xF, 16)).append(Character.forDigit(current & 0xF, 16));
+		}
+
+		return builder.toString();
+	}
+
+
+	/**
+	 * The lock guarding the access to the store's file
+	 */
+	private class StoreLock implements Closeable {
+
+		/**
+		 * The lock within this JVM
+		 */
+		private ReentrantLock localLock;
+		/**
+		 * The channel of the lock-file
+		 */
+		private FileChannel channel;
+		/**
+		 * The lock on the lock-file
+		 */
+		private FileLock fileLock;
+
+
+		/**
+		 * Acquires the lock (blocking)
+		 * 
+		 * @throws IOException
+		 */
+		public StoreLock() throws IOException {
+			String path = storeFile.getCanonicalPath();
+
+			ReentrantLock newLock = new ReentrantLock();
+			localLock = LOCKS.putIfAbsent(path, newLock);
+
+			if (localLock == null) {
+				localLock = newLock;
+			}
+
+			// file locks are held by the whole JVM so threads have to be serialized first
+			localLock.lock();
+
+			try {
+				channel = FileChannel.open(new File(path + LOCK_SUFFIX).toPath(), StandardOpenOption.CREATE,
+						StandardOpenOption.WRITE);
+				fileLock = channel.lock();
+			} catch (IOException | RuntimeException e) {
+				close();
+
+				throw e;
+			}
+		}
+
+		@Override
+		public void close() throws IOException {
+			try {
+				if (fileLock != null) {
+					fileLock.release();
+				}
+				if (channel != null) {
+					channel.close();
+				}
+			} finally {
+				localLock.unlock();
+			}
+		}
+	}
+
+	/**
+	 * The state of a file at a certain point in time
+	 */
+	public static class FileState {
+
+		/**
+		 * The file's size in bytes (<code>-1</code> if unknown)
+		 */
+		protected final long size;
+		/**
+		 * The file's modification time (<code>-1</code> if unknown)
+		 */
+		protected final long lastModified;
+		/**
+		 * The hash of the file's content (<code>null</code> if unknown)
+		 */
+		protected final String hash;
+
+
+		public FileState(long size, long lastModified, String hash) {
+			this.size = size;
+			this.lastModified = lastModified;
+			this.hash = hash;
+		}
+
+		/**
+		 * Determines the current state of the given file
+		 * 
+		 * @param file
+		 *            The file to examine
+		 * @throws IOException
+		 */
+		public static FileState of(File file) throws IOException {
+			// read the metadata first so that a concurrent modification leads to another
+			// run next time
+			long size = file.length();
+			long lastModified = file.lastModified();
+
+			return new FileState(size, lastModified, hash(file));
+		}
+
+		/**
+		 * Parses the fields of a stored entry
+		 * 
+		 * @param fields
+		 *            The entry's fields
+		 * @return The parsed state. Entries in an unknown format have an unknown
+		 *         state.
+		 */
+		protected static FileState parse(String[] fields) {
+			if (fields.length != 3) {
+				return new FileState(-1, -1, null);
+			}
+
+			try {
+				return new FileState(Long.parseLong(fields[0]), Long.parseLong(fields[1]), fields[2]);
+			} catch (NumberFormatException e) {
+				return new FileState(-1, -1, null);
+			}
+		}
+
+		/**
+		 * Gets the file's size in bytes (<code>-1</code> if unknown)
+		 */
+		public long getSize() {
+			return size;
+		}
+
+		/**
+		 * Gets the file's modification time (<code>-1</code> if unknown)
+		 */
+		public long getLastModified() {
+			return lastModified;
+		}
+
+		/**
+		 * Gets the hash of the file's content (<code>null</code> if unknown)
+		 */
+		public String getHash() {
+			return hash;
+		}
+
+		@Override
+		public String toString() {
+			return size + FIELD_SEPARATOR + lastModified + FIELD_SEPARATOR + hash;
+		}
+	}
+}
@@ -0,0 +1,27 @@
+package raven.utilityBox.interfaces;
+
+import java.io.IOException;
+
+import raven.utilityBox.table.Table;
+
+/**
+ * An interface describing an object that processes sub-tables as soon as they
+ * have been found
+ * 
+ * @author Raven
+ *
+ * @param <T>
+ *            The datatype of the sub-tables' cells
+ */
+public interface ISubTableHandler<T> {
+
+	/**
+	 * Processes the given sub-table
+	 * 
+	 * @param subTable
+	 *            The sub-table to process
+	 * @throws IOException
+	 * @throws IllegalAccessException
+	 */
+	public void handle(Table<T> subTable) throws IOException, IllegalAccessException;
+}
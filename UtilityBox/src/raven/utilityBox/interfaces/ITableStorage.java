@@ -0,0 +1,117 @@
+package raven.utilityBox.interfaces;
+
+import raven.utilityBox.enums.ETableLayout;
+
+/**
+ * An interface describing the storage backing a
+ * {@link raven.utilityBox.table.Table}. All coordinates are given in the
+ * untransposed orientation of the table.
+ * 
+ * @param <T>
+ *            The datatype of the stored cells
+ */
+public interface ITableStorage<T> {
+
+	/**
+	 * Gets the amount of rows in this storage
+	 */
+	public int getRowCount();
+
+	/**
+	 * Gets the amount of columns in this storage
+	 */
+	public int getColumnCount();
+
+	/**
+	 * Gets the cell at the given position. The indices have to be within the
+	 * bounds of this storage
+	 * 
+	 * @param row
+	 *            The cell's row
+	 * @param column
+	 *            The cell's column
+	 * @return The cell's content (may be <code>null</code>)
+	 */
+	public T get(int row, int column);
+
+	/**
+	 * Sets the cell at the given position. The indices have to be within the
+	 * bounds of this storage
+	 * 
+	 * @param row
+	 *            The cell's row
+	 * @param column
+	 *            The cell's column
+	 * @param value
+	 *            The new content of the cell
+	 */
+	public void set(int row, int column, T value);
+
+	/**
+	 * Gets the row with the given index. The returned array may be the one backing
+	 * this storage and must therefore not be modified.
+	 * 
+	 * @param index
+	 *            The row's index
+	 */
+	public T[] getRow(int index);
+
+	/**
+	 * Gets the column with the given index. The returned array may be the one
+	 * backing this storage and must therefore not be modified.
+	 * 
+	 * @param index
+	 *            The column's index
+	 */
+	public T[] getColumn(int index);
+
+	/**
+	 * Removes the row with the given index from this storage
+	 * 
+	 * @param index
+	 *            The row's index
+	 */
+	public void deleteRow(int index);
+
+	/**
+	 * Removes the column with the given index from this storage
+	 * 
+	 * @param index
+	 *            The column's index
+	 */
+	public void deleteColumn(int index);
+
+	/**
+	 * Copies the specified range into a new storage of the same layout. Indices
+	 * outside the bounds of this storage are treated as references to empty cells.
+	 * 
+	 * @param rowStart
+	 *            The index of the first row to copy
+	 * @param rowEnd
+	 *            The index of the last row to copy
+	 * @param columnStart
+	 *            The index of the first column to copy
+	 * @param columnEnd
+	 *            The index of the last column to copy
+	 * @param transpose
+	 *            Whether the copy should contain the transposed range
+	 * @return The new storage
+	 */
+	public ITableStorage<T> copy(int rowStart, int rowEnd, int columnStart, int columnEnd, boolean transpose);
+
+	/**
+	 * Creates a new storage of the same kind as this one that doesn't contain any
+	 * data yet
+	 * 
+	 * @param rows
+	 *            The amount of rows of the new storage
+	 * @param columns
+	 *            The amount of columns of the new storage
+	 */
+	public ITableStorage<T> createEmpty(int rows, int columns);
+
+	/**
+	 * Gets the layout this storage keeps its data in
+	 */
+	public ETableLayout getLayout();
+}
@@ -114,7 +114,7 @@ public class Logger {
 	/**
 	 * Gets the default instance of this logger
 	 */
-	public static Logger getDefault() {
+	public static synchronized Logger getDefault() {
 		if (logger == null) {
 			logger = new Logger();
 		}
@@ -173,12 +173,13 @@ public class Logger {
 	}
 
 	/**
-	 * Logs the given {@link LogMessage}
+	 * Logs the given {@link LogMessage}. Messages that are logged from multiple
+	 * threads are written one after another.
 	 * 
 	 * @param message
 	 *            The message to log
 	 */
-	public void log(LogMessage message) {
+	public synchronized void log(LogMessage message) {
 		if (!initialized) {
 			initialize();
 		}
@@ -2,15 +2,25 @@ package raven.utilityBox.openDocument;
 
 import java.io.File;
 import java.io.IOException;
+import java.math.BigDecimal;
 import java.util.ArrayList;
 import java.util.List;
 
+import org.jopendocument.dom.ODValueType;
+import org.jopendocument.dom.spreadsheet.Cell;
 import org.jopendocument.dom.spreadsheet.Sheet;
 import org.jopendocument.dom.spreadsheet.SpreadSheet;
 
+import raven.utilityBox.enums.ETableLayout;
+import raven.utilityBox.interfaces.ISubTableHandler;
+import raven.utilityBox.table.DoubleTable;
+import raven.utilityBox.table.LongTable;
+import raven.utilityBox.table.RegionTableNullDivider;
+import raven.utilityBox.table.SparseTable;
+import raven.utilityBox.table.StreamingTableDivider;
+import raven.utilityBox.table.StreamingTableNullDivider;
 import raven.utilityBox.table.Table;
 import raven.utilityBox.table.TableDivider;
-import raven.utilityBox.table.TableNullDivider;
 
 public class ODSExtractor {
 
@@ -25,6 +35,23 @@ public class ODSExtractor {
 	 * @throws IOException
 	 */
 	public static List<Table<String>> extract(String path) throws IOException {
+		return extract(path, ETableLayout.ROW_MAJOR);
+	}
+
+	/**
+	 * Extracts the data from the spreadsheet at the specified path in form of a
+	 * {@link Table}. Every sheet inside the spreadsheet will be represented by its
+	 * own Table. With {@link ETableLayout#SPARSE} every sheet is read straight into
+	 * a {@link SparseTable} that only receives the non-empty cells.
+	 * 
+	 * @param path
+	 *            The path to the spreadsheet
+	 * @param layout
+	 *            The layout the created tables should store their data in
+	 * @return A List of tables with the data corresponding to the spreadsheet
+	 * @throws IOException
+	 */
+	public static List<Table<String>> extract(String path, ETableLayout layout) throws IOException {
 		List<Table<String>> tables = new ArrayList<>();
 
 		File spreadsheetFile = new File(path);
@@ -37,6 +64,11 @@ public class ODSExtractor {
 			int columns = sheet.getColumnCount();
 			int rows = sheet.getRowCount();
 
+			if (layout == ETableLayout.SPARSE) {
+				tables.add(extractSparse(sheet, rows, columns));
+				continue;
+			}
+
 			// gather the content of the respective cells
 			List<List<String>> data = new ArrayList<List<String>>();
 
@@ -57,12 +89,185 @@ public class ODSExtractor {
 			}
 
 			// create a table out of the gathered data
-			tables.add(new Table<>(String.class, arrayData));
+			tables.add(new Table<>(String.class, arrayData, layout));
+		}
+
+		return tables;
+	}
+
+	/**
+	 * Extracts the given sheet into a {@link SparseTable}. Only the non-empty
+	 * cells are put into the table so that no row of the sheet is ever held in
+	 * full.
+	 * 
+	 * @param sheet
+	 *            The sheet to extract
+	 * @param rows
+	 *            The amount of rows of the sheet
+	 * @param columns
+	 *            The amount of columns of the sheet
+	 * @return The table with the sheet's content
+	 */
+	private static SparseTable<String> extractSparse(Sheet sheet, int rows, int columns) {
+		SparseTable<String> table = new SparseTable<>(String.class, rows, columns);
+
+		try {
+			for (int i = 0; i < rows; i++) {
+				for (int j = 0; j < columns; j++) {
+					String content = sheet.getCellAt(j, i).getTextValue();
+
+					if (!content.isEmpty()) {
+						table.set(i, j, content);
+					}
+				}
+			}
+		} catch (IllegalAccessException e) {
+			// can't happen as a table containing a cell is never empty
+			throw new IllegalStateException(e);
+		}
+
+		return table;
+	}
+
+	/**
+	 * Extracts the numeric data from the spreadsheet at the specified path. Every
+	 * sheet inside the spreadsheet will be represented by its own
+	 * {@link DoubleTable}. The values are taken from the cells' numeric values
+	 * instead of their text representation. Cells that don't contain a number
+	 * (float, percentage or currency) are treated as empty cells.
+	 * 
+	 * @param path
+	 *            The path to the spreadsheet
+	 * @return A List of tables with the numbers contained in the spreadsheet
+	 * @throws IOException
+	 * @throws IllegalAccessException
+	 */
+	public static List<DoubleTable> extractNumbers(String path) throws IOException, IllegalAccessException {
+		List<DoubleTable> tables = new ArrayList<>();
+
+		File spreadsheetFile = new File(path);
+		final SpreadSheet spreadsheet = SpreadSheet.createFromFile(spreadsheetFile);
+
+		for (int k = 0; k < spreadsheet.getSheetCount(); k++) {
+
+			Sheet sheet = spreadsheet.getSheet(k);
+
+			int columns = sheet.getColumnCount();
+			int rows = sheet.getRowCount();
+
+			if (rows == 0 || columns == 0) {
+				tables.add(new DoubleTable());
+				continue;
+			}
+
+			DoubleTable table = new DoubleTable(rows, columns);
+
+			for (int i = 0; i < rows; i++) {
+				for (int j = 0; j < columns; j++) {
+					Cell<SpreadSheet> cell = sheet.getCellAt(j, i);
+
+					if (isNumeric(cell.getValueType())) {
+						table.setDouble(i, j, ((Number) cell.getValue()).doubleValue());
+					}
+				}
+			}
+
+			tables.add(table);
+		}
+
+		return tables;
+	}
+
+	/**
+	 * Extracts the integral data from the spreadsheet at the specified path. Every
+	 * sheet inside the spreadsheet will be represented by its own
+	 * {@link LongTable}. As a spreadsheet stores every number as a floating point
+	 * value, each value is checked to be integral (and to fit into a
+	 * <code>long</code>) before it is put into the table. Cells that don't contain
+	 * such a number are treated as empty cells, just like cells that don't contain
+	 * a number at all. Note that percentages are stored as fractions (50 % is 0.5).
+	 * 
+	 * @param path
+	 *            The path to the spreadsheet
+	 * @return A List of tables with the integers contained in the spreadsheet
+	 * @throws IOException
+	 * @throws IllegalAccessException
+	 */
+	public static List<LongTable> extractIntegers(String path) throws IOException, IllegalAccessException {
+		List<LongTable> tables = new ArrayList<>();
+
+		File spreadsheetFile = new File(path);
+		final SpreadSheet spreadsheet = SpreadSheet.createFromFile(spreadsheetFile);
+
+		for (int k = 0; k < spreadsheet.getSheetCount(); k++) {
+
+			Sheet sheet = spreadsheet.getSheet(k);
+
+			int columns = sheet.getColumnCount();
+			int rows = sheet.getRowCount();
+
+			if (rows == 0 || columns == 0) {
+				tables.add(new LongTable());
+				continue;
+			}
+
+			LongTable table = new LongTable(rows, columns);
+
+			for (int i = 0; i < rows; i++) {
+				for (int j = 0; j < columns; j++) {
+					Cell<SpreadSheet> cell = sheet.getCellAt(j, i);
+
+					if (isNumeric(cell.getValueType()) && isIntegral((Number) cell.getValue())) {
+						table.setLong(i, j, ((Number) cell.getValue()).longValue());
+					}
+				}
+			}
+
+			tables.add(table);
 		}
 
 		return tables;
 	}
 
+	/**
+	 * Checks whether the given number is integral and can be represented by a
+	 * <code>long</code> without loss
+	 * 
+	 * @param number
+	 *            The number to check
+	 */
+	private static boolean isIntegral(Number number) {
+		if (number instanceof BigDecimal) {
+			try {
+				((BigDecimal) number).longValueExact();
+
+				return true;
+			} catch (ArithmeticException e) {
+				return false;
+			}
+		}
+
+		if (number instanceof Long || number instanceof Integer || number instanceof Short
+				|| number instanceof Byte) {
+			return true;
+		}
+
+		double value = number.doubleValue();
+
+		// 2^63 is the first double that is out of the range of a long
+		return value == Math.rint(value) && value >= Long.MIN_VALUE && value < 0x1p63;
+	}
+
+	/**
+	 * Checks whether the given value type represents a number
+	 * 
+	 * @param type
+	 *            The type to check (may be <code>null</code>)
+	 */
+	private static boolean isNumeric(ODValueType type) {
+		return type == ODValueType.FLOAT || type == ODValueType.PERCENTAGE || type == ODValueType.CURRENCY;
+	}
+
 	/**
 	 * Extracts the data from the spreadsheet at the specified path in form of a
 	 * {@link Table}. The extracted table will then be split into its sub-tables
@@ -74,19 +279,106 @@ public class ODSExtractor {
 	 * @throws IllegalAccessException 
 	 */
 	public static List<Table<String>> extractSubtables(String path) throws IOException, IllegalAccessException {
+		return extractSubtables(path, ETableLayout.ROW_MAJOR);
+	}
+
+	/**
+	 * Extracts the data from the spreadsheet at the specified path in form of a
+	 * {@link Table}. The extracted table will then be split into its sub-tables
+	 * 
+	 * @param path
+	 *            The path to the spreadsheet
+	 * @param layout
+	 *            The layout the extracted tables should store their data in
+	 * @return All sub-tables corresponding to the spreadsheet
+	 * @throws IOException
+	 * @throws IllegalAccessException
+	 */
+	public static List<Table<String>> extractSubtables(String path, ETableLayout layout)
+			throws IOException, IllegalAccessException {
 		List<Table<String>> subTables = new ArrayList<>();
 
-		List<Table<String>> tables = extract(path);
+		List<Table<String>> tables = extract(path, layout);
 
 		for (Table<String> currentTable : tables) {
+			if (currentTable.isValid()) {
+				// empty sheet
+				continue;
+			}
+
 			// divide table into all possible sub-tables
-			TableDivider<String> divider = new TableNullDivider<String>(currentTable);
+			TableDivider<String> divider = new RegionTableNullDivider<String>(currentTable);
 			subTables.addAll(divider.divide());
 		}
 
 		return subTables;
 	}
 
+	/**
+	 * Extracts the data from the spreadsheet at the specified path and passes its
+	 * sub-tables to the given handler. The sheets are read row by row and every
+	 * sub-table is handed over as soon as it is complete so that the whole sheet
+	 * never has to be kept in a table at once. The sub-tables are passed on in the
+	 * order described by {@link StreamingTableDivider}.
+	 * 
+	 * @param path
+	 *            The path to the spreadsheet
+	 * @param handler
+	 *            The handler to pass the sub-tables to
+	 * @throws IOException
+	 * @throws IllegalAccessException
+	 */
+	public static void extractSubtables(String path, ISubTableHandler<String> handler)
+			throws IOException, IllegalAccessException {
+		extractSubtables(path, ETableLayout.ROW_MAJOR, handler);
+	}
+
+	/**
+	 * Extracts the data from the spreadsheet at the specified path and passes its
+	 * sub-tables to the given handler. The sheets are read row by row and every
+	 * sub-table is handed over as soon as it is complete so that the whole sheet
+	 * never has to be kept in a table at once. The sub-tables are passed on in the
+	 * order described by {@link StreamingTableDivider}.
+	 * 
+	 * @param path
+	 *            The path to the spreadsheet
+	 * @param layout
+	 *            The layout the sub-tables should store their data in
+	 * @param handler
+	 *            The handler to pass the sub-tables to
+	 * @throws IOException
+	 * @throws IllegalAccessException
+	 */
+	public static void extractSubtables(String path, ETableLayout layout, ISubTableHandler<String> handler)
+			throws IOException, IllegalAccessException {
+		File spreadsheetFile = new File(path);
+		final SpreadSheet spreadsheet = SpreadSheet.createFromFile(spreadsheetFile);
+
+		StreamingTableDivider<String> divider = new StreamingTableNullDivider<>(String.class, handler, layout);
+
+		for (int k = 0; k < spreadsheet.getSheetCount(); k++) {
+
+			Sheet sheet = spreadsheet.getSheet(k);
+
+			int columns = sheet.getColumnCount();
+			int rows = sheet.getRowCount();
+
+			for (int i = 0; i < rows; i++) {
+				String[] currentRow = new String[columns];
+
+				for (int j = 0; j < columns; j++) {
+					String content = sheet.getCellAt(j, i).getTextValue();
+					currentRow[j] = content.isEmpty() ? null : content;
+				}
+
+				divider.addRow(currentRow);
+			}
+
+			// sub-tables never span multiple sheets
+			divider.finish();
+		}
+	}
+
 	public static void main(String[] args) {
 		try {
 			List<Table<String>> subtables = extractSubtables(
@@ -0,0 +1,973 @@
+package raven.utilityBox.openDocument;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.LinkedList;
+import java.util.List;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Future;
+import java.util.zip.ZipEntry;
+import java.util.zip.ZipFile;
+
+import javax.xml.stream.XMLInputFactory;
+import javax.xml.stream.XMLStreamConstants;
+import javax.xml.stream.XMLStreamException;
+import javax.xml.stream.XMLStreamReader;
+
+import raven.utilityBox.enums.ETableLayout;
+import raven.utilityBox.interfaces.ISubTableHandler;
+import raven.utilityBox.table.RegionTableDivider;
+import raven.utilityBox.table.RegionTableNullDivider;
+import raven.utilityBox.table.SparseTable;
+import raven.utilityBox.table.StreamingTableDivider;
+import raven.utilityBox.table.StreamingTableNullDivider;
+import raven.utilityBox.table.Table;
+import raven.utilityBox.table.TableDivider;
+import raven.utilityBox.util.FutureUtil;
+
+/**
+ * An extractor that reads the content of a .ods spreadsheet directly from the
+ * <code>content.xml</code> inside the spreadsheet's archive. In contrast to the
+ * {@link ODSExtractor} the document is streamed with a pull parser instead of
+ * being loaded into a DOM which makes it a lot faster and less memory-hungry on
+ * big spreadsheets. Only the cells' text is extracted.<br>
+ * Repeated empty rows and cells (<code>number-rows-repeated</code> /
+ * <code>number-columns-repeated</code>) are never expanded while reading: every
+ * row only keeps its non-empty cells together with their column indices, runs
+ * of empty rows are kept as a single count and empty rows and cells at the end
+ * of a sheet or row are dropped. This carries on into the division into
+ * sub-tables: runs of empty rows and columns are collapsed into a single one
+ * before a sheet is put into a {@link Table} for dividing it (see
+ * {@link RegionTableDivider}) and the {@link StreamingTableDivider} receives the
+ * runs as counts and column indices.<br>
+ * The tables returned by {@link #extract(String, ETableLayout)} keep the sheet's
+ * actual dimensions though. With {@link ETableLayout#SPARSE} only the non-empty
+ * cells are stored, the dense layouts inherently allocate every cell of a row up
+ * to its last non-empty cell (empty rows share a single empty array).
+ */
+public class StreamingODSExtractor {
+
+	/**
+	 * The name of the archive entry containing the spreadsheet's content
+	 */
+	public static final String CONTENT_ENTRY = "content.xml";
+	/**
+	 * The namespace of the table-elements
+	 */
+	public static final String TABLE_NS = "urn:oasis:names:tc:opendocument:xmlns:table:1.0";
+	/**
+	 * The namespace of the text-elements
+	 */
+	public static final String TEXT_NS = "urn:oasis:names:tc:opendocument:xmlns:text:1.0";
+	/**
+	 * The namespace of the office-elements
+	 */
+	public static final String OFFICE_NS = "urn:oasis:names:tc:opendocument:xmlns:office:1.0";
+
+
+	/**
+	 * Extracts the data from the spreadsheet at the specified path in form of a
+	 * {@link Table}. Every sheet inside the spreadsheet will be represented by its
+	 * own Table.
+	 * 
+	 * @param path
+	 *            The path to the spreadsheet
+	 * @return A List of tables with the data corresponding to the spreadsheet
+	 * @throws IOException
+	 */
+	public static List<Table<String>> extract(String path) throws IOException {
+		return extract(path, ETableLayout.ROW_MAJOR);
+	}
+
+	/**
+	 * Extracts the data from the spreadsheet at the specified path in form of a
+	 * {@link Table}. Every sheet inside the spreadsheet will be represented by its
+	 * own Table.
+	 * 
+	 * @param path
+	 *            The path to the spreadsheet
+	 * @param layout
+	 *            The layout the created tables should store their data in
+	 * @return A List of tables with the data corresponding to the spreadsheet
+	 * @throws IOException
+	 */
+	public static List<Table<String>> extract(String path, final ETableLayout layout) throws IOException {
+		final List<Table<String>> tables = new ArrayList<>();
+
+		SheetCollector collector = new SheetCollector() {
+
+			@Override
+			protected void sheetRead(CollectedSheet sheet) {
+				tables.add(sheet.toTable(layout));
+			}
+		};
+
+		try {
+			read(path, collector);
+		} catch (IllegalAccessException e) {
+			// can't happen as the collector doesn't access any tables
+			throw new IllegalStateException(e);
+		}
+
+		return tables;
+	}
+
+	/**
+	 * Extracts the data from the spreadsheet at the specified path in form of a
+	 * {@link Table}. The extracted table will then be split into its sub-tables
+	 * 
+	 * @param path
+	 *            The path to the spreadsheet
+	 * @return All sub-tables corresponding to the spreadsheet
+	 * @throws IOException
+	 * @throws IllegalAccessException
+	 */
+	public static List<Table<String>> extractSubtables(String path) throws IOException, IllegalAccessException {
+		return extractSubtables(path, ETableLayout.ROW_MAJOR);
+	}
+
+	/**
+	 * Extracts the data from the spreadsheet at the specified path in form of a
+	 * {@link Table}. The extracted table will then be split into its sub-tables.
+	 * Runs of empty rows and columns are collapsed before the table is created.
+	 * 
+	 * @param path
+	 *            The path to the spreadsheet
+	 * @param layout
+	 *            The layout the extracted tables should store their data in
+	 * @return All sub-tables corresponding to the spreadsheet
+	 * @throws IOException
+	 * @throws IllegalAccessException
+	 */
+	public static List<Table<String>> extractSubtables(String path, final ETableLayout layout)
+			throws IOException, IllegalAccessException {
+		final List<Table<String>> subTables = new ArrayList<>();
+
+		read(path, new SheetCollector() {
+
+			@Override
+			protected void sheetRead(CollectedSheet sheet) throws IllegalAccessException {
+				Table<String> table = sheet.toCollapsedTable(layout);
+
+				if (table.isValid()) {
+					// empty sheet
+					return;
+				}
+
+				// divide table into all possible sub-tables
+				TableDivider<String> divider = new RegionTableNullDivider<String>(table);
+				subTables.addAll(divider.divide());
+			}
+		});
+
+		return subTables;
+	}
+
+	/**
+	 * Extracts the data from the spreadsheet at the specified path and passes its
+	 * sub-tables to the given handler as soon as they are complete. The sub-tables
+	 * are passed on in the order described by {@link StreamingTableDivider}.
+	 * 
+	 * @param path
+	 *            The path to the spreadsheet
+	 * @param handler
+	 *            The handler to pass the sub-tables to
+	 * @throws IOException
+	 * @throws IllegalAccessException
+	 */
+	public static void extractSubtables(String path, ISubTableHandler<String> handler)
+			throws IOException, IllegalAccessException {
+		extractSubtables(path, ETableLayout.ROW_MAJOR, handler);
+	}
+
+	/**
+	 * Extracts the data from the spreadsheet at the specified path and passes its
+	 * sub-tables to the given handler as soon as they are complete. The sub-tables
+	 * are passed on in the order described by {@link StreamingTableDivider}.
+	 * 
+	 * @param path
+	 *            The path to the spreadsheet
+	 * @param layout
+	 *            The layout the sub-tables should store their data in
+	 * @param handler
+	 *            The handler to pass the sub-tables to
+	 * @throws IOException
+	 * @throws IllegalAccessException
+	 */
+	public static void extractSubtables(String path, ETableLayout layout, ISubTableHandler<String> handler)
+			throws IOException, IllegalAccessException {
+		final StreamingTableDivider<String> divider = new StreamingTableNullDivider<>(String.class, handler, layout);
+
+		read(path, new SheetHandler() {
+
+			@Override
+			public void addRow(SheetRow row) throws IOException, IllegalAccessException {
+				divider.addRow(row.getColumns(), row.getCells());
+			}
+
+			@Override
+			public void addEmptyRows(int count) throws IOException, IllegalAccessException {
+				divider.addEmptyRows(count);
+			}
+
+			@Override
+			public void endSheet() throws IOException, IllegalAccessException {
+				// sub-tables never span multiple sheets
+				divider.finish();
+			}
+		});
+	}
+
+	/**
+	 * Extracts the data from the spreadsheet at the specified path and splits it
+	 * into its sub-tables. The spreadsheet is read on the calling thread while the
+	 * sheets are divided concurrently by the given executor. The sub-tables are
+	 * returned in the same order as {@link #extractSubtables(String, ETableLayout)}
+	 * returns them.
+	 * 
+	 * @param path
+	 *            The path to the spreadsheet
+	 * @param layout
+	 *            The layout the extracted tables should store their data in
+	 * @param executor
+	 *            The executor to divide the sheets with
+	 * @return All sub-tables corresponding to the spreadsheet
+	 * @throws IOException
+	 * @throws IllegalAccessException
+	 */
+	public static List<Table<String>> extractSubtables(String path, final ETableLayout layout,
+			final ExecutorService executor) throws IOException, IllegalAccessException {
+		final List<Future<List<Table<String>>>> results = new ArrayList<>();
+
+		read(path, new SheetCollector() {
+
+			@Override
+			protected void sheetRead(final CollectedSheet sheet) {
+				results.add(executor.submit(new Callable<List<Table<String>>>() {
+
+					@Override
+					public List<Table<String>> call() throws IllegalAccessException {
+						Table<String> table = sheet.toCollapsedTable(layout);
+
+						if (table.isValid()) {
+							// empty sheet
+							return new ArrayList<>();
+						}
+
+						return new RegionTableNullDivider<String>(table).divide();
+					}
+				}));
+			}
+		});
+
+		List<Table<String>> subTables = new ArrayList<>();
+
+		for (Future<List<Table<String>>> currentResult : results) {
+			subTables.addAll(FutureUtil.getResult(currentResult));
+		}
+
+		return subTables;
+	}
+
+	/**
+	 * Extracts the data from the spreadsheet at the specified path and passes its
+	 * sub-tables to the given handler. The spreadsheet is read on the calling
+	 * thread while the sheets are divided concurrently by the given executor. The
+	 * handler is always called from the calling thread and receives the sub-tables
+	 * in the same order as with {@link #extractSubtables(String, ISubTableHandler)}
+	 * .<br>
+	 * Note that every sheet has to be kept in memory until it has been divided.
+	 * 
+	 * @param path
+	 *            The path to the spreadsheet
+	 * @param layout
+	 *            The layout the sub-tables should store their data in
+	 * @param handler
+	 *            The handler to pass the sub-tables to
+	 * @param executor
+	 *            The executor to divide the sheets with
+	 * @throws IOException
+	 * @throws IllegalAccessException
+	 */
+	public static void extractSubtables(String path, final ETableLayout layout,
+			final ISubTableHandler<String> handler, final ExecutorService executor)
+			throws IOException, IllegalAccessException {
+		final LinkedList<Future<List<Table<String>>>> results = new LinkedList<>();
+
+		read(path, new SheetCollector() {
+
+			@Override
+			protected void sheetRead(final CollectedSheet sheet) throws IOException, IllegalAccessException {
+				results.add(executor.submit(new Callable<List<Table<String>>>() {
+
+					@Override
+					public List<Table<String>> call() throws IOException, IllegalAccessException {
+						final List<Table<String>> subTables = new ArrayList<>();
+
+						// divide the same way the sequential extraction does
+						StreamingTableDivider<String> divider = new StreamingTableNullDivider<>(String.class,
+								new ISubTableHandler<String>() {
+
+									@Override
+									public void handle(Table<String> subTable) {
+										subTables.add(subTable);
+									}
+								}, layout);
+
+						sheet.passTo(divider);
+
+						return subTables;
+					}
+				}));
+
+				// pass on the sheets that are done already
+				while (!results.isEmpty() && results.getFirst().isDone()) {
+					for (Table<String> currentTable : FutureUtil.getResult(results.removeFirst())) {
+						handler.handle(currentTable);
+					}
+				}
+			}
+		});
+
+		while (!results.isEmpty()) {
+			for (Table<String> currentTable : FutureUtil.getResult(results.removeFirst())) {
+				handler.handle(currentTable);
+			}
+		}
+	}
+
+	/**
+	 * Streams the content of the spreadsheet at the given path into the given
+	 * handler
+	 * 
+	 * @param path
+	 *            The path to the spreadsheet
+	 * @param handler
+	 *            The handler to pass the sheets' rows to
+	 * @throws IOException
+	 * @throws IllegalAccessException
+	 */
+	protected static void read(String path, SheetHandler handler) throws IOException, IllegalAccessException {
+		try (ZipFile archive = new ZipFile(path)) {
+			ZipEntry content = archive.getEntry(CONTENT_ENTRY);
+
+			if (content == null) {
+				throw new IOException("\"" + path + "\" is not a valid spreadsheet (no " + CONTENT_ENTRY + ")");
+			}
+
+			try (InputStream in = archive.getInputStream(content)) {
+				XMLInputFactory factory = XMLInputFactory.newInstance();
+				// content.xml doesn't need a DTD - don't resolve any external entities
+				factory.setProperty(XMLInputFactory.SUPPORT_DTD, false);
+				factory.setProperty(XMLInputFactory.IS_SUPPORTING_EXTERNAL_ENTITIES, false);
+
+				XMLStreamReader reader = factory.createXMLStreamReader(in);
+
+				try {
+					new ContentReader(reader, handler).read();
+				} finally {
+					reader.close();
+				}
+			} catch (XMLStreamException e) {
+				throw new IOException("Failed to parse the content of \"" + path + "\"", e);
+			}
+		}
+	}
+
+	/**
+	 * Gets the value of an integer attribute of the current element
+	 * 
+	 * @param reader
+	 *            The reader positioned at the element
+	 * @param namespace
+	 *            The namespace of the attribute
+	 * @param name
+	 *            The name of the attribute
+	 * @param defaultValue
+	 *            The value to use if the attribute isn't present
+	 */
+	private static int getIntAttribute(XMLStreamReader reader, String namespace, String name, int defaultValue) {
+		String value = reader.getAttributeValue(namespace, name);
+
+		if (value == null) {
+			return defaultValue;
+		}
+
+		try {
+			return Integer.parseInt(value.trim());
+		} catch (NumberFormatException e) {
+			return defaultValue;
+		}
+	}
+
+
+	/**
+	 * A receiver of the rows of the sheets in a spreadsheet
+	 */
+	protected static abstract class SheetHandler {
+
+		/**
+		 * Receives the next non-empty row of the current sheet
+		 * 
+		 * @param row
+		 *            The row's non-empty cells. The row must not be modified.
+		 * @throws IOException
+		 * @throws IllegalAccessException
+		 */
+		public abstract void addRow(SheetRow row) throws IOException, IllegalAccessException;
+
+		/**
+		 * Receives a run of empty rows of the current sheet. Empty rows at the end of
+		 * a sheet are never passed on.
+		 * 
+		 * @param count
+		 *            The amount of empty rows
+		 * @throws IOException
+		 * @throws IllegalAccessException
+		 */
+		public abstract void addEmptyRows(int count) throws IOException, IllegalAccessException;
+
+		/**
+		 * Gets called after the last row of the current sheet
+		 * 
+		 * @throws IOException
+		 * @throws IllegalAccessException
+		 */
+		public abstract void endSheet() throws IOException, IllegalAccessException;
+	}
+
+	/**
+	 * A {@link SheetHandler} that gathers all rows of a sheet before passing them
+	 * on. Only the non-empty rows are kept.
+	 */
+	protected static abstract class SheetCollector extends SheetHandler {
+
+		/**
+		 * The non-empty rows of the current sheet
+		 */
+		private List<SheetRow> rows = new ArrayList<>();
+		/**
+		 * The index of every non-empty row inside the current sheet
+		 */
+		private int[] rowIndices = new int[16];
+		/**
+		 * The amount of rows of the current sheet that have been read so far
+		 */
+		private int rowCount;
+
+
+		/**
+		 * Receives all rows of a sheet
+		 * 
+		 * @param sheet
+		 *            The sheet's rows
+		 * @throws IOException
+		 * @throws IllegalAccessException
+		 */
+		protected abstract void sheetRead(CollectedSheet sheet) throws IOException, IllegalAccessException;
+
+		@Override
+		public void addRow(SheetRow row) {
+			if (rowIndices.length == rows.size()) {
+				rowIndices = Arrays.copyOf(rowIndices, rowIndices.length * 2);
+			}
+
+			rowIndices[rows.size()] = rowCount++;
+			rows.add(row);
+		}
+
+		@Override
+		public void addEmptyRows(int count) {
+			rowCount += count;
+		}
+
+		@Override
+		public void endSheet() throws IOException, IllegalAccessException {
+			CollectedSheet sheet = new CollectedSheet(rows.toArray(new SheetRow[rows.size()]),
+					Arrays.copyOf(rowIndices, rows.size()), rowCount);
+
+			rows = new ArrayList<>();
+			rowCount = 0;
+
+			sheetRead(sheet);
+		}
+	}
+
+	/**
+	 * A non-empty row of a sheet consisting of its non-empty cells and their
+	 * column indices
+	 */
+	protected static class SheetRow {
+
+		/**
+		 * The column indices of the non-empty cells in ascending order
+		 */
+		private int[] columns;
+		/**
+		 * The non-empty cells
+		 */
+		private String[] cells;
+
+
+		public SheetRow(int[] columns, String[] cells) {
+			this.columns = columns;
+			this.cells = cells;
+		}
+
+		/**
+		 * Gets the column indices of the non-empty cells in ascending order. The
+		 * array must not be modified.
+		 */
+		public int[] getColumns() {
+			return columns;
+		}
+
+		/**
+		 * Gets the non-empty cells. The array must not be modified.
+		 */
+		public String[] getCells() {
+			return cells;
+		}
+
+		/**
+		 * Gets the amount of columns up to the last non-empty cell
+		 */
+		public int getWidth() {
+			return (columns.length == 0) ? 0 : columns[columns.length - 1] + 1;
+		}
+	}
+
+	/**
+	 * All rows of a sheet in which only the non-empty rows are stored
+	 */
+	protected static class CollectedSheet {
+
+		/**
+		 * A row without any cells that represents all empty rows
+		 */
+		private static final String[] EMPTY_ROW = new String[0];
+
+		/**
+		 * The non-empty rows
+		 */
+		private SheetRow[] rows;
+		/**
+		 * The index of every non-empty row inside the sheet
+		 */
+		private int[] rowIndices;
+		/**
+		 * The amount of rows of the sheet
+		 */
+		private int rowCount;
+
+
+		public CollectedSheet(SheetRow[] rows, int[] rowIndices, int rowCount) {
+			this.rows = rows;
+			this.rowIndices = rowIndices;
+			this.rowCount = rowCount;
+		}
+
+		/**
+		 * Creates a table with the sheet's actual dimensions
+		 * 
+		 * @param layout
+		 *            The layout the table should store its data in
+		 */
+		public Table<String> toTable(ETableLayout layout) {
+			int columnCount = 0;
+
+			for (SheetRow currentRow : rows) {
+				columnCount = Math.max(columnCount, currentRow.getWidth());
+			}
+
+			return createTable(layout, rowIndices, rowCount, null, null, columnCount);
+		}
+
+		/**
+		 * Creates a table in which every run of empty rows and every run of empty
+		 * columns is collapsed into a single row or column the same way
+		 * {@link RegionTableDivider} does it. Such a table contains the same
+		 * sub-tables as the sheet.
+		 * 
+		 * @param layout
+		 *            The layout the table should store its data in
+		 */
+		public Table<String> toCollapsedTable(ETableLayout layout) {
+			int cellCount = 0;
+
+			for (SheetRow currentRow : rows) {
+				cellCount += currentRow.getColumns().length;
+			}
+
+			// the sorted distinct columns containing at least one cell
+			int[] occupiedColumns = new int[cellCount];
+			int position = 0;
+
+			for (SheetRow currentRow : rows) {
+				int[] columns = currentRow.getColumns();
+
+				System.arraycopy(columns, 0, occupiedColumns, position, columns.length);
+				position += columns.length;
+			}
+
+			Arrays.sort(occupiedColumns);
+
+			int distinct = 0;
+
+			for (int i = 0; i < occupiedColumns.length; i++) {
+				if (i == 0 || occupiedColumns[i] != occupiedColumns[i - 1]) {
+					occupiedColumns[distinct++] = occupiedColumns[i];
+				}
+			}
+
+			occupiedColumns = Arrays.copyOf(occupiedColumns, distinct);
+
+			int[] collapsedRows = collapse(rowIndices);
+			int[] collapsedColumns = collapse(occupiedColumns);
+
+			return createTable(layout, collapsedRows, (rows.length == 0) ? 0 : collapsedRows[rows.length - 1] + 1,
+					occupiedColumns, collapsedColumns, (distinct == 0) ? 0 : collapsedColumns[distinct - 1] + 1);
+		}
+
+		/**
+		 * Passes the sheet's rows to the given divider and finishes it afterwards
+		 * 
+		 * @param divider
+		 *            The divider to pass the rows to
+		 * @throws IOException
+		 * @throws IllegalAccessException
+		 */
+		public void passTo(StreamingTableDivider<String> divider) throws IOException, IllegalAccessException {
+			int previous = -1;
+
+			for (int i = 0; i < rows.length; i++) {
+				divider.addEmptyRows(rowIndices[i] - previous - 1);
+				divider.addRow(rows[i].getColumns(), rows[i].getCells());
+
+				previous = rowIndices[i];
+			}
+
+			divider.finish();
+		}
+
+		/**
+		 * Collapses every run of unoccupied indices into a single index. The first
+		 * index is kept even if it isn't occupied.
+		 * 
+		 * @param occupied
+		 *            The occupied indices in ascending order
+		 * @return The collapsed index of every occupied index
+		 */
+		private static int[] collapse(int[] occupied) {
+			int[] collapsed = new int[occupied.length];
+			int previous = -1;
+
+			for (int i = 0; i < occupied.length; i++) {
+				int gap = occupied[i] - previous - 1;
+
+				collapsed[i] = ((i == 0) ? -1 : collapsed[i - 1]) + ((gap > 0) ? 2 : 1);
+				previous = occupied[i];
+			}
+
+			return collapsed;
+		}
+
+		/**
+		 * Creates a table out of the sheet's rows
+		 * 
+		 * @param layout
+		 *            The layout the table should store its data in
+		 * @param targetRows
+		 *            The index inside the table of every non-empty row
+		 * @param targetRowCount
+		 *            The amount of rows of the table
+		 * @param occupiedColumns
+		 *            The sorted occupied columns of the sheet or <code>null</code> if
+		 *            the columns should be kept as they are
+		 * @param targetColumns
+		 *            The index inside the table of every occupied column
+		 * @param targetColumnCount
+		 *            The amount of columns of the table
+		 */
+		private Table<String> createTable(ETableLayout layout, int[] targetRows, int targetRowCount,
+				int[] occupiedColumns, int[] targetColumns, int targetColumnCount) {
+			if (layout == ETableLayout.SPARSE) {
+				SparseTable<String> table = new SparseTable<>(String.class, targetRowCount, targetColumnCount);
+
+				try {
+					for (int i = 0; i < rows.length; i++) {
+						int[] columns = rows[i].getColumns();
+						String[] cells = rows[i].getCells();
+
+						for (int k = 0; k < columns.length; k++) {
+							table.set(targetRows[i], getTargetColumn(columns[k], occupiedColumns, targetColumns),
+									cells[k]);
+						}
+					}
+				} catch (IllegalAccessException e) {
+					// can't happen as the table has just been created
+					throw new IllegalStateException(e);
+				}
+
+				return table;
+			}
+
+			String[][] data = new String[targetRowCount][];
+			Arrays.fill(data, EMPTY_ROW);
+
+			for (int i = 0; i < rows.length; i++) {
+				int[] columns = rows[i].getColumns();
+				String[] cells = rows[i].getCells();
+				String[] row = new String[getTargetColumn(columns[columns.length - 1], occupiedColumns, targetColumns)
+						+ 1];
+
+				for (int k = 0; k < columns.length; k++) {
+					row[getTargetColumn(columns[k], occupiedColumns, targetColumns)] = cells[k];
+				}
+
+				data[targetRows[i]] = row;
+			}
+
+			return new Table<>(String.class, data, layout);
+		}
+
+		/**
+		 * Gets the index of the given column inside the created table
+		 */
+		private static int getTargetColumn(int column, int[] occupiedColumns, int[] targetColumns) {
+			if (occupiedColumns == null) {
+				return column;
+			}
+
+			return targetColumns[Arrays.binarySearch(occupiedColumns, column)];
+		}
+	}
+
+	/**
+	 * The state of a single pass over a <code>content.xml</code>
+	 */
+	private static class ContentReader {
+
+		/**
+		 * The reader delivering the XML events
+		 */
+		private XMLStreamReader reader;
+		/**
+		 * The handler the rows are passed to
+		 */
+		private SheetHandler handler;
+		/**
+		 * The nesting depth of table-elements (tables inside cells are ignored)
+		 */
+		private int tableDepth;
+		/**
+		 * The non-empty cells of the current row
+		 */
+		private List<String> row;
+		/**
+		 * The column indices of the non-empty cells of the current row
+		 */
+		private int[] rowColumns = new int[16];
+		/**
+		 * The column index of the next cell in the current row
+		 */
+		private int column;
+		/**
+		 * The amount of empty rows that have not been passed to the handler yet
+		 */
+		private int pendingEmptyRows;
+		/**
+		 * How often the current row is repeated
+		 */
+		private int rowRepetition;
+		/**
+		 * The text of the current cell or <code>null</code> if not inside a cell
+		 */
+		private StringBuilder cellText;
+		/**
+		 * How often the current cell is repeated
+		 */
+		private int cellRepetition;
+		/**
+		 * The amount of paragraphs in the current cell
+		 */
+		private int paragraphs;
+		/**
+		 * The nesting depth of paragraphs in the current cell
+		 */
+		private int paragraphDepth;
+		/**
+		 * The nesting depth of elements whose content is skipped (e.g. annotations)
+		 */
+		private int skipDepth;
+
+
+		public ContentReader(XMLStreamReader reader, SheetHandler handler) {
+			this.reader = reader;
+			this.handler = handler;
+		}
+
+		/**
+		 * Reads the whole document
+		 * 
+		 * @throws XMLStreamException
+		 * @throws IOException
+		 * @throws IllegalAccessException
+		 */
+		public void read() throws XMLStreamException, IOException, IllegalAccessException {
+			while (reader.hasNext()) {
+				switch (reader.next()) {
+				case XMLStreamConstants.START_ELEMENT:
+					startElement();
+					break;
+
+				case XMLStreamConstants.END_ELEMENT:
+					endElement();
+					break;
+
+				case XMLStreamConstants.CHARACTERS:
+				case XMLStreamConstants.CDATA:
+				case XMLStreamConstants.SPACE:
+					if (cellText != null && paragraphDepth > 0 && skipDepth == 0) {
+						cellText.append(reader.getTextCharacters(), reader.getTextStart(), reader.getTextLength());
+					}
+					break;
+				}
+			}
+		}
+
+		/**
+		 * Processes the start of an element
+		 */
+		private void startElement() {
+			if (skipDepth > 0) {
+				skipDepth++;
+				return;
+			}
+
+			String namespace = reader.getNamespaceURI();
+			String name = reader.getLocalName();
+
+			if (TABLE_NS.equals(namespace)) {
+				if (name.equals("table")) {
+					tableDepth++;
+				} else if (tableDepth == 1) {
+					if (name.equals("table-row")) {
+						row = new ArrayList<>();
+						column = 0;
+						rowRepetition = getIntAttribute(reader, TABLE_NS, "number-rows-repeated", 1);
+					} else if (row != null && (name.equals("table-cell") || name.equals("covered-table-cell"))) {
+						cellText = new StringBuilder();
+						cellRepetition = getIntAttribute(reader, TABLE_NS, "number-columns-repeated", 1);
+						paragraphs = 0;
+						paragraphDepth = 0;
+					}
+				}
+
+				return;
+			}
+
+			if (cellText == null) {
+				return;
+			}
+
+			if (OFFICE_NS.equals(namespace) && name.equals("annotation")) {
+				// comments are not part of the cell's text
+				skipDepth = 1;
+			} else if (TEXT_NS.equals(namespace)) {
+				if (name.equals("p") || name.equals("h")) {
+					if (paragraphDepth == 0) {
+						if (paragraphs > 0) {
+							cellText.append("\n");
+						}
+						paragraphs++;
+					}
+					paragraphDepth++;
+				} else if (paragraphDepth > 0) {
+					if (name.equals("s")) {
+						for (int i = getIntAttribute(reader, TEXT_NS, "c", 1); i > 0; i--) {
+							cellText.append(' ');
+						}
+					} else if (name.equals("tab")) {
+						cellText.append('\t');
+					} else if (name.equals("line-break")) {
+						cellText.append('\n');
+					}
+				}
+			}
+		}
+
+		/**
+		 * Processes the end of an element
+		 * 
+		 * @throws IOException
+		 * @throws IllegalAccessException
+		 */
+		private void endElement() throws IOException, IllegalAccessException {
+			if (skipDepth > 0) {
+				skipDepth--;
+				return;
+			}
+
+			String namespace = reader.getNamespaceURI();
+			String name = reader.getLocalName();
+
+			if (TABLE_NS.equals(namespace)) {
+				if (name.equals("table")) {
+					tableDepth--;
+
+					if (tableDepth == 0) {
+						// drop trailing empty rows
+						pendingEmptyRows = 0;
+
+						handler.endSheet();
+					}
+				} else if (tableDepth == 1) {
+					if (name.equals("table-row") && row != null) {
+						if (row.isEmpty()) {
+							// only pass on empty rows if there is content below them
+							pendingEmptyRows += rowRepetition;
+						} else {
+							if (pendingEmptyRows > 0) {
+								handler.addEmptyRows(pendingEmptyRows);
+								pendingEmptyRows = 0;
+							}
+
+							SheetRow cells = new SheetRow(Arrays.copyOf(rowColumns, row.size()),
+									row.toArray(new String[row.size()]));
+
+							for (int i = 0; i < rowRepetition; i++) {
+								handler.addRow(cells);
+							}
+						}
+
+						row = null;
+					} else if (cellText != null && (name.equals("table-cell") || name.equals("covered-table-cell"))) {
+						if (cellText.length() > 0) {
+							String content = cellText.toString();
+
+							if (rowColumns.length < row.size() + cellRepetition) {
+								rowColumns = Arrays.copyOf(rowColumns,
+										Math.max(rowColumns.length * 2, row.size() + cellRepetition));
+							}
+							for (int i = 0; i < cellRepetition; i++) {
+								rowColumns[row.size()] = column + i;
+								row.add(content);
+							}
+						}
+
+						// empty cells only advance the column index
+						column += cellRepetition;
+
+						cellText = null;
+					}
+				}
+			} else if (TEXT_NS.equals(namespace) && cellText != null && (name.equals("p") || name.equals("h"))) {
+				paragraphDepth--;
+			}
+		}
+	}
+}
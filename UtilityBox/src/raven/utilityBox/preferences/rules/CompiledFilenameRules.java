@@ -0,0 +1,119 @@
+package raven.utilityBox.preferences.rules;
+
+import java.util.BitSet;
+import java.util.regex.Pattern;
+
+import raven.utilityBox.files.FilenameFormatter;
+import raven.utilityBox.util.AhoCorasickMatcher;
+
+/**
+ * The compiled form of a {@link FilenameFormatterRule}. It holds the rule's
+ * settings in the form the formatters work with (precompiled patterns and
+ * keyword matchers) so that this preparation only has to be done once per
+ * rule instead of once per file. Instances are immutable and can be shared by
+ * all formatters using the same rule.<br>
+ * Use {@link FilenameFormatterRule#getCompiledRules()} in order to obtain the
+ * (cached) instance for a rule.
+ */
+public class CompiledFilenameRules {
+
+	/**
+	 * The bracket pairs whose content has to be checked (0=opener ; 1=closer)
+	 */
+	protected final char[][] brackets;
+	/**
+	 * The patterns of the prefixes to remove
+	 */
+	protected final Pattern[] prefixPatterns;
+	/**
+	 * The matcher searching for the allowed bracket content (case-sensitive)
+	 */
+	protected final AhoCorasickMatcher allowedContentMatcher;
+	/**
+	 * The matcher searching for the allowed bracket content (case-insensitive)
+	 */
+	protected final AhoCorasickMatcher caseInsensitiveAllowedContentMatcher;
+	/**
+	 * The characters of the Basic Multilingual Plane that are word delimiters
+	 */
+	protected final BitSet wordDelimiters;
+	/**
+	 * The rule this has been compiled from (used for classifying supplementary
+	 * code points)
+	 */
+	private final FilenameFormatterRule rule;
+
+
+	/**
+	 * Compiles the given rule
+	 * 
+	 * @param rule
+	 *            The rule to compile
+	 */
+	public CompiledFilenameRules(FilenameFormatterRule rule) {
+		this.rule = rule;
+
+		brackets = rule.useSpecifiedBracketsOnly() ? rule.getBracketsToFormat() : FilenameFormatter.BRACKETS;
+
+		String[] prefixes = rule.specifiesPrefixRegex() ? rule.getPrefixRegexToRemove() : new String[0];
+
+		prefixPatterns = new Pattern[prefixes.length];
+		for (int i = 0; i < prefixes.length; i++) {
+			prefixPatterns[i] = Pattern.compile(prefixes[i]);
+		}
+
+		String[] allowedContent = rule.checkBracketContent() ? rule.getAllowedBracketContent() : new String[0];
+
+		allowedContentMatcher = new AhoCorasickMatcher(allowedContent, false);
+		caseInsensitiveAllowedContentMatcher = new AhoCorasickMatcher(allowedContent, true);
+
+		wordDelimiters = new BitSet(Character.MAX_VALUE + 1);
+		for (int c = Character.MIN_VALUE; c <= Character.MAX_VALUE; c++) {
+			if (rule.classifyWordDelimiter(c)) {
+				wordDelimiters.set(c);
+			}
+		}
+	}
+
+	/**
+	 * Checks whether the given code point is a word delimiter. Characters of the
+	 * Basic Multilingual Plane are looked up in a precomputed table.
+	 * 
+	 * @param codePoint
+	 *            The code point to check
+	 */
+	public boolean isWordDelimiter(int codePoint) {
+		if (codePoint <= Character.MAX_VALUE) {
+			return wordDelimiters.get(codePoint);
+		}
+
+		// supplementary code points can't be specified as (non-)delimiters
+		return rule.classifyWordDelimiter(codePoint);
+	}
+
+	/**
+	 * Gets the bracket pairs whose content has to be checked.<br>
+	 * Every sub-array has the following format: <b>< OpeningBracket,
+	 * ClosingBracket ></b>
+	 */
+	public char[][] getBrackets() {
+		return brackets;
+	}
+
+	/**
+	 * Gets the patterns of the prefixes that should be removed
+	 */
+	public Pattern[] getPrefixPatterns() {
+		return prefixPatterns;
+	}
+
+	/**
+	 * Gets the matcher searching for the content fragments a bracket may contain
+	 * 
+	 * @param caseSensitive
+	 *            Whether the fragments should be searched case-sensitively
+	 */
+	public AhoCorasickMatcher getAllowedContentMatcher(boolean caseSensitive) {
+		return caseSensitive ? allowedContentMatcher : caseInsensitiveAllowedContentMatcher;
+	}
+}
@@ -0,0 +1,232 @@
+package raven.utilityBox.preferences.rules;
+
+import java.util.BitSet;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.regex.Pattern;
+
+import raven.utilityBox.util.AhoCorasickMatcher;
+
+/**
+ * The compiled form of a {@link Mp3FilenameFormatterRule}. In addition to the
+ * {@link CompiledFilenameRules} it holds the patterns needed for processing
+ * featurings.
+ */
+public class CompiledMp3FilenameRules extends CompiledFilenameRules {
+
+	/**
+	 * The featuring indicators as specified
+	 */
+	protected final String[] featuringIndicators;
+	/**
+	 * The patterns finding the respective (case-sensitive) featuring indicator in
+	 * a text by its key
+	 */
+	protected final Map<String, Pattern> featuringPatterns;
+	/**
+	 * The patterns finding the respective (lowercase) featuring indicator in a
+	 * text by its key
+	 */
+	protected final Map<String, Pattern> lowerCaseFeaturingPatterns;
+	/**
+	 * The patterns finding the respective {@link #featuringIndicators} (quoted)
+	 * as a whole word
+	 */
+	protected final Pattern[] quotedFeaturingPatterns;
+	/**
+	 * The patterns finding the respective {@link #featuringIndicators} followed
+	 * by a whitespace
+	 */
+	protected final Pattern[] undottedFeaturingPatterns;
+	/**
+	 * The patterns finding the respective {@link #featuringIndicators} followed
+	 * by a dot
+	 */
+	protected final Pattern[] dottedFeaturingPatterns;
+	/**
+	 * The first of the {@link #featuringIndicators} for every lowercase
+	 * indicator
+	 */
+	protected final Map<String, String> indicatorCases;
+	/**
+	 * Indicates whether the respective {@link #featuringIndicators} is a plain
+	 * word (and not a regex)
+	 */
+	protected final boolean[] literalIndicators;
+	/**
+	 * The matcher searching for the literal featuring indicators as whole words
+	 * (case-sensitive)
+	 */
+	protected final AhoCorasickMatcher featuringMatcher;
+	/**
+	 * The matcher searching for the literal featuring indicators as whole words
+	 * (case-insensitive)
+	 */
+	protected final AhoCorasickMatcher caseInsensitiveFeaturingMatcher;
+
+
+	/**
+	 * Compiles the given rule
+	 * 
+	 * @param rule
+	 *            The rule to compile
+	 */
+	public CompiledMp3FilenameRules(Mp3FilenameFormatterRule rule) {
+		super(rule);
+
+		featuringIndicators = rule.checkFeaturing() ? rule.getFeaturingIndicators() : new String[0];
+
+		featuringPatterns = new HashMap<>();
+		lowerCaseFeaturingPatterns = new HashMap<>();
+		indicatorCases = new HashMap<>();
+
+		quotedFeaturingPatterns = new Pattern[featuringIndicators.length];
+		undottedFeaturingPatterns = new Pattern[featuringIndicators.length];
+		dottedFeaturingPatterns = new Pattern[featuringIndicators.length];
+		literalIndicators = new boolean[featuringIndicators.length];
+
+		for (int i = 0; i < featuringIndicators.length; i++) {
+			String currentIndicator = featuringIndicators[i];
+			String lowerCaseIndicator = currentIndicator.toLowerCase();
+
+			// the indicators are used as regex here
+			if (!featuringPatterns.containsKey(currentIndicator)) {
+				featuringPatterns.put(currentIndicator, compileFeaturingPattern(currentIndicator));
+			}
+			if (!lowerCaseFeaturingPatterns.containsKey(lowerCaseIndicator)) {
+				lowerCaseFeaturingPatterns.put(lowerCaseIndicator, compileFeaturingPattern(lowerCaseIndicator));
+			}
+			if (!indicatorCases.containsKey(lowerCaseIndicator)) {
+				indicatorCases.put(lowerCaseIndicator, currentIndicator);
+			}
+
+			String quotedIndicator = Pattern.quote(currentIndicator);
+
+			quotedFeaturingPatterns[i] = Pattern.compile("\\b" + quotedIndicator + "\\b");
+			undottedFeaturingPatterns[i] = Pattern.compile("\\b" + quotedIndicator + "\\s");
+			dottedFeaturingPatterns[i] = Pattern.compile("\\b" + quotedIndicator + "\\.");
+
+			literalIndicators[i] = isLiteral(currentIndicator);
+		}
+
+		featuringMatcher = new AhoCorasickMatcher(featuringIndicators, false);
+		caseInsensitiveFeaturingMatcher = new AhoCorasickMatcher(featuringIndicators, true);
+	}
+
+	/**
+	 * Checks whether the given regex doesn't contain any characters with a special
+	 * meaning and thus only matches itself
+	 */
+	protected static boolean isLiteral(String regex) {
+		for (int i = 0; i < regex.length(); i++) {
+			if ("\\^$.|?*+()[]{}".indexOf(regex.charAt(i)) >= 0) {
+				return false;
+			}
+		}
+
+		return true;
+	}
+
+	/**
+	 * Finds the featuring indicators contained in the given text as a whole word.
+	 * Plain indicators are searched all at once, indicators that are regular
+	 * expressions are searched one after another.
+	 * 
+	 * @param text
+	 *            The text to search
+	 * @param caseSensitive
+	 *            Whether the search should be case-sensitive
+	 * @return The indices of the indicators that have been found
+	 */
+	public BitSet findFeaturingIndicators(String text, boolean caseSensitive) {
+		BitSet found = (caseSensitive ? featuringMatcher : caseInsensitiveFeaturingMatcher).findAll(text, true);
+		String searchText = null;
+
+		for (int i = 0; i < featuringIndicators.length; i++) {
+			if (literalIndicators[i]) {
+				continue;
+			}
+
+			if (searchText == null) {
+				searchText = caseSensitive ? text : text.toLowerCase();
+			}
+
+			String indicator = caseSensitive ? featuringIndicators[i] : featuringIndicators[i].toLowerCase();
+
+			found.set(i, getFeaturingPattern(indicator, caseSensitive).matcher(searchText).find());
+		}
+
+		return found;
+	}
+
+	/**
+	 * Compiles the pattern finding the given featuring indicator (interpreted as
+	 * a regex) as a whole word
+	 * 
+	 * @param indicator
+	 *            The indicator to compile the pattern for
+	 */
+	public static Pattern compileFeaturingPattern(String indicator) {
+		return Pattern.compile("\\b" + indicator + "\\b");
+	}
+
+	/**
+	 * Gets the featuring indicators
+	 */
+	public String[] getFeaturingIndicators() {
+		return featuringIndicators;
+	}
+
+	/**
+	 * Gets the pattern finding the given featuring indicator (interpreted as a
+	 * regex) as a whole word
+	 * 
+	 * @param indicator
+	 *            The indicator to get the pattern for (in lowercase if not
+	 *            case-sensitive)
+	 * @param caseSensitive
+	 *            Whether the pattern will be used case-sensitively
+	 */
+	public Pattern getFeaturingPattern(String indicator, boolean caseSensitive) {
+		Pattern pattern = (caseSensitive ? featuringPatterns : lowerCaseFeaturingPatterns).get(indicator);
+
+		// only indicators of the rule are precompiled
+		return (pattern == null) ? compileFeaturingPattern(indicator) : pattern;
+	}
+
+	/**
+	 * Gets the patterns finding the respective {@link #getFeaturingIndicators()}
+	 * as a whole word
+	 */
+	public Pattern[] getQuotedFeaturingPatterns() {
+		return quotedFeaturingPatterns;
+	}
+
+	/**
+	 * Gets the patterns finding the respective {@link #getFeaturingIndicators()}
+	 * followed by a whitespace
+	 */
+	public Pattern[] getUndottedFeaturingPatterns() {
+		return undottedFeaturingPatterns;
+	}
+
+	/**
+	 * Gets the patterns finding the respective {@link #getFeaturingIndicators()}
+	 * followed by a dot
+	 */
+	public Pattern[] getDottedFeaturingPatterns() {
+		return dottedFeaturingPatterns;
+	}
+
+	/**
+	 * Gets the given featuring indicator in the case it has been specified in
+	 * 
+	 * @param indicator
+	 *            The indicator to search for
+	 * @return The indicator in the proper case or <code>null</code> if there is
+	 *         no such indicator
+	 */
+	public String getFeaturingIndicatorCase(String indicator) {
+		return indicatorCases.get(indicator.toLowerCase());
+	}
+}
@@ -1,6 +1,7 @@
 package raven.utilityBox.preferences.rules;
 
 import raven.utilityBox.preferences.AbstractPreference;
+import raven.utilityBox.table.CSVCellEncoder;
 
 public class ExtractODSToCSVRule extends AbstractPreference {
 
@@ -13,6 +14,21 @@ public class ExtractODSToCSVRule extends AbstractPreference {
 	 * CSV will be replaced with
 	 */
 	private String delimiterReplacement;
+	/**
+	 * Whether percent signs in the CSV that are not escaped yet should be escaped
+	 * with a backslash
+	 */
+	private boolean escapePercentSigns;
+	/**
+	 * Whether the generated CSVs should be synced to the disk before they replace
+	 * the previous ones
+	 */
+	private boolean syncWrites;
+	/**
+	 * Whether every sub-table should be written as soon as it has been found
+	 * instead of dividing each sheet as a whole first
+	 */
+	private boolean streamSubTables;
 
 	@Override
 	public void initialize() {
@@ -24,6 +40,9 @@ public class ExtractODSToCSVRule extends AbstractPreference {
 	public void initializeWithDefaults() {
 		columnDelimiter = "\t";
 		delimiterReplacement = "    ";
+		escapePercentSigns = true;
+		syncWrites = false;
+		streamSubTables = false;
 	}
 
 	/**
@@ -41,4 +60,40 @@ public class ExtractODSToCSVRule extends AbstractPreference {
 		return delimiterReplacement;
 	}
 
+	/**
+	 * Checks whether percent signs in the generated CSV that are not escaped yet
+	 * should be escaped with a backslash
+	 */
+	public boolean escapePercentSigns() {
+		return escapePercentSigns;
+	}
+
+	/**
+	 * Checks whether the generated CSVs should be synced to the disk before they
+	 * replace the previous ones
+	 */
+	public boolean syncWrites() {
+		return syncWrites;
+	}
+
+	/**
+	 * Checks whether every sub-table should be written as soon as it has been
+	 * found instead of dividing each sheet as a whole first. This keeps less of a
+	 * sheet in memory but numbers the unnamed sub-tables in a different order (see
+	 * {@link raven.utilityBox.table.StreamingTableDivider}).
+	 */
+	public boolean streamSubTables() {
+		return streamSubTables;
+	}
+
+	/**
+	 * Creates an encoder that writes CSVs as specified by these rules
+	 * 
+	 * @param emptyReplacement
+	 *            The replacement to use for empty cells
+	 */
+	public CSVCellEncoder createCellEncoder(String emptyReplacement) {
+		return new CSVCellEncoder(columnDelimiter, delimiterReplacement, emptyReplacement, escapePercentSigns);
+	}
+
 }
@@ -64,6 +64,10 @@ public class FilenameFormatterRule extends AbstractPreference {
 	 * A list of prefixes to remove specified as regular expressions
 	 */
 	protected String[] prefixesToRemove;
+	/**
+	 * The compiled form of this rule (created lazily)
+	 */
+	private CompiledFilenameRules compiledRules;
 	
 	
 	public FilenameFormatterRule() {
@@ -72,11 +76,14 @@ public class FilenameFormatterRule extends AbstractPreference {
 	
 	@Override
 	public void initialize() {
+		invalidateCompiledRules();
 		// TODO
 	}
 	
 	@Override
 	public void initializeWithDefaults() {
+		invalidateCompiledRules();
+		
 		capitalizeEveryFirstLetter = true;
 		lowercaseLettersBeforeFormatting = true;
 		bracketContentWholeWord = false;
@@ -220,9 +227,31 @@ public class FilenameFormatterRule extends AbstractPreference {
 	 *            The character to check
 	 */
 	public boolean isWordDelimiter(char c) {
+		return getCompiledRules().isWordDelimiter(c);
+	}
+	
+	/**
+	 * Checks whether the given code point is a word delimiter
+	 * 
+	 * @param codePoint
+	 *            The code point to check
+	 */
+	public boolean isWordDelimiter(int codePoint) {
+		return getCompiledRules().isWordDelimiter(codePoint);
+	}
+	
+	/**
+	 * Determines whether the given code point is a word delimiter according to
+	 * the settings of this rule. This is used in order to build the lookup
+	 * table of the {@link CompiledFilenameRules}.
+	 * 
+	 * @param codePoint
+	 *            The code point to check
+	 */
+	protected boolean classifyWordDelimiter(int codePoint) {
 		if (specifiesNonWordDelimiters()) {
 			for (char current : getNonWordDelimiters()) {
-				if (c == current) {
+				if (codePoint == current) {
 					return false;
 				}
 			}
@@ -230,18 +259,18 @@ public class FilenameFormatterRule extends AbstractPreference {
 		
 		if (definesAdditionalWordDelimiter()) {
 			for (char current : getAdditionalWordDelimiter()) {
-				if (c == current) {
+				if (codePoint == current) {
 					return true;
 				}
 			}
 		}
 		
 		if (considerNonAlphabeticCharactersWordDelimiter()
-				&& !Character.isAlphabetic(c)) {
+				&& !Character.isAlphabetic(codePoint)) {
 			return true;
 		}
 		
-		return Character.isWhitespace(c);
+		return Character.isWhitespace(codePoint);
 	}
 	
 	/**
@@ -259,4 +288,31 @@ public class FilenameFormatterRule extends AbstractPreference {
 	public boolean specifiesPrefixRegex() {
 		return getPrefixRegexToRemove() != null;
 	}
+	
+	/**
+	 * Gets the compiled form of this rule. It is created on first access and
+	 * shared by everyone using this rule until the rule gets initialized again.
+	 */
+	public synchronized CompiledFilenameRules getCompiledRules() {
+		if (compiledRules == null) {
+			compiledRules = compile();
+		}
+		
+		return compiledRules;
+	}
+	
+	/**
+	 * Creates the compiled form of this rule
+	 */
+	protected CompiledFilenameRules compile() {
+		return new CompiledFilenameRules(this);
+	}
+	
+	/**
+	 * Discards the compiled form of this rule. Has to be called whenever the
+	 * settings of this rule change.
+	 */
+	protected synchronized void invalidateCompiledRules() {
+		compiledRules = null;
+	}
 }
@@ -36,6 +36,7 @@ public class Mp3FilenameFormatterRule extends FilenameFormatterRule {
 	
 	@Override
 	public void initialize() {
+		invalidateCompiledRules();
 		// TODO
 	}
 	
@@ -103,4 +104,14 @@ public class Mp3FilenameFormatterRule extends FilenameFormatterRule {
 	public boolean clearAlbumCoverArt() {
 		return clearAlbumCoverArt;
 	}
+	
+	@Override
+	public CompiledMp3FilenameRules getCompiledRules() {
+		return (CompiledMp3FilenameRules) super.getCompiledRules();
+	}
+	
+	@Override
+	protected CompiledFilenameRules compile() {
+		return new CompiledMp3FilenameRules(this);
+	}
 }
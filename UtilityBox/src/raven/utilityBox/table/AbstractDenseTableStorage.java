@@ -0,0 +1,202 @@
+package raven.utilityBox.table;
+
+import java.lang.reflect.Array;
+import java.util.Arrays;
+
+import raven.utilityBox.interfaces.ITableStorage;
+
+/**
+ * A table storage keeping its data in a dense two-dimensional array. The first
+ * dimension of that array is referred to as the "major" dimension and every
+ * entry of it is a "lane" that can be handed out without copying. Subclasses
+ * decide whether the lanes are rows or columns.
+ * 
+ * @param <T>
+ *            The datatype of the stored cells
+ */
+public abstract class AbstractDenseTableStorage<T> implements ITableStorage<T> {
+
+	/**
+	 * The datatype of the stored cells
+	 */
+	protected final Class<T> dataType;
+	/**
+	 * The lanes holding the actual data. Every lane has the length
+	 * {@link #minorCount}
+	 */
+	protected T[][] lanes;
+	/**
+	 * The length of every lane
+	 */
+	protected int minorCount;
+
+
+	@SuppressWarnings("unchecked")
+	protected AbstractDenseTableStorage(Class<T> dataType, int majorCount, int minorCount) {
+		this.dataType = dataType;
+		this.minorCount = minorCount;
+
+		lanes = (T[][]) Array.newInstance(dataType, majorCount, minorCount);
+	}
+
+	/**
+	 * Maps the given cell coordinates to the index of the lane containing the cell
+	 */
+	protected abstract int major(int row, int column);
+
+	/**
+	 * Maps the given cell coordinates to the cell's index within its lane
+	 */
+	protected abstract int minor(int row, int column);
+
+	/**
+	 * Indicates whether the lanes of this storage are rows
+	 */
+	protected abstract boolean lanesAreRows();
+
+	@Override
+	public int getRowCount() {
+		return lanesAreRows() ? lanes.length : minorCount;
+	}
+
+	@Override
+	public int getColumnCount() {
+		return lanesAreRows() ? minorCount : lanes.length;
+	}
+
+	@Override
+	public abstract AbstractDenseTableStorage<T> createEmpty(int rows, int columns);
+
+	@Override
+	public T get(int row, int column) {
+		return lanes[major(row, column)][minor(row, column)];
+	}
+
+	@Override
+	public void set(int row, int column, T value) {
+		lanes[major(row, column)][minor(row, column)] = value;
+	}
+
+	@Override
+	public T[] getRow(int index) {
+		return lanesAreRows() ? lanes[index] : crossLane(index);
+	}
+
+	@Override
+	public T[] getColumn(int index) {
+		return lanesAreRows() ? crossLane(index) : lanes[index];
+	}
+
+	/**
+	 * Gathers the cells with the given minor index of every lane into a new array
+	 * 
+	 * @param minorIndex
+	 *            The index within the lanes
+	 */
+	@SuppressWarnings("unchecked")
+	protected T[] crossLane(int minorIndex) {
+		T[] content = (T[]) Array.newInstance(dataType, lanes.length);
+
+		for (int i = 0; i < lanes.length; i++) {
+			content[i] = lanes[i][minorIndex];
+		}
+
+		return content;
+	}
+
+	@Override
+	public void deleteRow(int index) {
+		if (lanesAreRows()) {
+			deleteLane(index);
+		} else {
+			deleteCrossLane(index);
+		}
+	}
+
+	@Override
+	public void deleteColumn(int index) {
+		if (lanesAreRows()) {
+			deleteCrossLane(index);
+		} else {
+			deleteLane(index);
+		}
+	}
+
+	/**
+	 * Removes the lane with the given index
+	 */
+	protected void deleteLane(int index) {
+		T[][] newLanes = Arrays.copyOf(lanes, lanes.length - 1);
+		System.arraycopy(lanes, index + 1, newLanes, index, lanes.length - index - 1);
+
+		lanes = newLanes;
+	}
+
+	/**
+	 * Removes the cell with the given index from every lane
+	 */
+	@SuppressWarnings("unchecked")
+	protected void deleteCrossLane(int index) {
+		for (int i = 0; i < lanes.length; i++) {
+			T[] newLane = (T[]) Array.newInstance(dataType, minorCount - 1);
+			System.arraycopy(lanes[i], 0, newLane, 0, index);
+			System.arraycopy(lanes[i], index + 1, newLane, index, minorCount - index - 1);
+
+			lanes[i] = newLane;
+		}
+
+		minorCount--;
+	}
+
+	@Override
+	public AbstractDenseTableStorage<T> copy(int rowStart, int rowEnd, int columnStart, int columnEnd,
+			boolean transpose) {
+		int rows = rowEnd - rowStart + 1;
+		int columns = columnEnd - columnStart + 1;
+
+		if (transpose) {
+			AbstractDenseTableStorage<T> copy = createEmpty(columns, rows);
+
+			for (int i = 0; i < rows && rowStart + i < getRowCount(); i++) {
+				for (int j = 0; j < columns && columnStart + j < getColumnCount(); j++) {
+					copy.set(j, i, get(rowStart + i, columnStart + j));
+				}
+			}
+
+			return copy;
+		}
+
+		AbstractDenseTableStorage<T> copy = createEmpty(rows, columns);
+
+		int majorStart = lanesAreRows() ? rowStart : columnStart;
+		int minorStart = lanesAreRows() ? columnStart : rowStart;
+		int minorEnd = minorStart + copy.minorCount;
+
+		for (int i = 0; i < copy.lanes.length && majorStart + i < lanes.length; i++) {
+			if (minorStart < minorCount) {
+				copy.lanes[i] = Arrays.copyOfRange(lanes[majorStart + i], minorStart, minorEnd);
+			}
+		}
+
+		return copy;
+	}
+
+	/**
+	 * Fills this storage with the given row-based data. Rows that are shorter than
+	 * this storage is wide are padded with empty cells.
+	 * 
+	 * @param data
+	 *            The data to use
+	 */
+	protected void fill(T[][] data) {
+		for (int i = 0; i < data.length; i++) {
+			if (lanesAreRows()) {
+				System.arraycopy(data[i], 0, lanes[i], 0, data[i].length);
+			} else {
+				for (int j = 0; j < data[i].length; j++) {
+					lanes[j][i] = data[i][j];
+				}
+			}
+		}
+	}
+}
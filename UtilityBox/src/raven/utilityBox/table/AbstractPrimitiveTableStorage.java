@@ -0,0 +1,218 @@
+package raven.utilityBox.table;
+
+import java.lang.reflect.Array;
+import java.util.Arrays;
+
+import raven.utilityBox.enums.ETableLayout;
+import raven.utilityBox.interfaces.ITableStorage;
+
+/**
+ * A column-major table storage for numeric cells that keeps its values in
+ * primitive arrays. As primitives can't be <code>null</code> every column is
+ * accompanied by a bitmap in which a set bit marks a non-empty cell.
+ * Subclasses provide the actual value arrays.
+ * 
+ * @param <T>
+ *            The boxed type of the stored values
+ */
+public abstract class AbstractPrimitiveTableStorage<T> implements ITableStorage<T> {
+
+	/**
+	 * The boxed type of the stored values
+	 */
+	protected final Class<T> dataType;
+	/**
+	 * The amount of rows of this storage
+	 */
+	protected int rows;
+	/**
+	 * A bitmap for every column in which a set bit marks a non-empty cell
+	 */
+	protected long[][] presence;
+
+
+	protected AbstractPrimitiveTableStorage(Class<T> dataType, int rows, int columns) {
+		this.dataType = dataType;
+		this.rows = rows;
+
+		presence = new long[columns][(rows + 63) >>> 6];
+	}
+
+	/**
+	 * Boxes the value of the given (non-empty) cell
+	 */
+	protected abstract T box(int row, int column);
+
+	/**
+	 * Stores the given value in the given cell. Marking the cell as non-empty is
+	 * done by the caller.
+	 */
+	protected abstract void store(int row, int column, T value);
+
+	/**
+	 * Removes the value of the given row from every value column
+	 */
+	protected abstract void removeValueRow(int index);
+
+	/**
+	 * Removes the value column with the given index
+	 */
+	protected abstract void removeValueColumn(int index);
+
+	/**
+	 * Checks whether the given cell is empty
+	 * 
+	 * @param row
+	 *            The cell's row
+	 * @param column
+	 *            The cell's column
+	 */
+	public boolean isNull(int row, int column) {
+		if (row < 0 || row >= rows) {
+			throw new ArrayIndexOutOfBoundsException(row);
+		}
+
+		return (presence[column][row >>> 6] & (1L << row)) == 0;
+	}
+
+	/**
+	 * Marks the given cell as (non-)empty
+	 * 
+	 * @param row
+	 *            The cell's row
+	 * @param column
+	 *            The cell's column
+	 * @param present
+	 *            Whether the cell contains a value
+	 */
+	protected void setPresent(int row, int column, boolean present) {
+		if (row < 0 || row >= rows) {
+			throw new ArrayIndexOutOfBoundsException(row);
+		}
+
+		if (present) {
+			presence[column][row >>> 6] |= 1L << row;
+		} else {
+			presence[column][row >>> 6] &= ~(1L << row);
+		}
+	}
+
+	@Override
+	public int getRowCount() {
+		return rows;
+	}
+
+	@Override
+	public int getColumnCount() {
+		return presence.length;
+	}
+
+	@Override
+	public T get(int row, int column) {
+		return isNull(row, column) ? null : box(row, column);
+	}
+
+	@Override
+	public void set(int row, int column, T value) {
+		if (value != null) {
+			store(row, column, value);
+		}
+
+		setPresent(row, column, value != null);
+	}
+
+	@SuppressWarnings("unchecked")
+	@Override
+	public T[] getRow(int index) {
+		T[] row = (T[]) Array.newInstance(dataType, getColumnCount());
+
+		for (int i = 0; i < row.length; i++) {
+			row[i] = get(index, i);
+		}
+
+		return row;
+	}
+
+	@SuppressWarnings("unchecked")
+	@Override
+	public T[] getColumn(int index) {
+		T[] column = (T[]) Array.newInstance(dataType, rows);
+
+		for (int i = 0; i < rows; i++) {
+			column[i] = get(i, index);
+		}
+
+		return column;
+	}
+
+	@Override
+	public void deleteRow(int index) {
+		for (long[] bitmap : presence) {
+			removeBit(bitmap, index);
+		}
+
+		removeValueRow(index);
+
+		rows--;
+	}
+
+	/**
+	 * Removes the given bit from the bitmap by shifting all following bits down by
+	 * one
+	 * 
+	 * @param bitmap
+	 *            The bitmap to modify
+	 * @param index
+	 *            The index of the bit to remove
+	 */
+	private static void removeBit(long[] bitmap, int index) {
+		int word = index >>> 6;
+		long lowerBits = (1L << index) - 1;
+
+		bitmap[word] = (bitmap[word] & lowerBits) | ((bitmap[word] >>> 1) & ~lowerBits);
+
+		for (int i = word + 1; i < bitmap.length; i++) {
+			bitmap[i - 1] |= (bitmap[i] & 1L) << 63;
+			bitmap[i] >>>= 1;
+		}
+	}
+
+	@Override
+	public void deleteColumn(int index) {
+		long[][] newPresence = Arrays.copyOf(presence, presence.length - 1);
+		System.arraycopy(presence, index + 1, newPresence, index, presence.length - index - 1);
+
+		presence = newPresence;
+
+		removeValueColumn(index);
+	}
+
+	@Override
+	public ITableStorage<T> copy(int rowStart, int rowEnd, int columnStart, int columnEnd, boolean transpose) {
+		int copyRows = rowEnd - rowStart + 1;
+		int copyColumns = columnEnd - columnStart + 1;
+
+		ITableStorage<T> copy = createEmpty(transpose ? copyColumns : copyRows, transpose ? copyRows : copyColumns);
+
+		for (int j = columnStart; j <= columnEnd && j < getColumnCount(); j++) {
+			for (int i = rowStart; i <= rowEnd && i < rows; i++) {
+				if (isNull(i, j)) {
+					continue;
+				}
+
+				if (transpose) {
+					copy.set(j - columnStart, i - rowStart, box(i, j));
+				} else {
+					copy.set(i - rowStart, j - columnStart, box(i, j));
+				}
+			}
+		}
+
+		return copy;
+	}
+
+	@Override
+	public ETableLayout getLayout() {
+		return ETableLayout.COLUMN_MAJOR;
+	}
+}
@@ -0,0 +1,216 @@
+package raven.utilityBox.table;
+
+import java.io.IOException;
+import java.io.Writer;
+
+/**
+ * An encoder that writes the cells of a table in CSV format. Every character
+ * is processed exactly once: occurrences of the separator inside a cell are
+ * replaced, newlines inside a cell are folded into blanks and - if requested -
+ * percent signs that are not escaped already get escaped by a backslash. The
+ * result is collected in an internal buffer that is passed to the writer in
+ * chunks, so no intermediate Strings are created.<br>
+ * A percent sign counts as escaped if it is preceded by an odd amount of
+ * backslashes. A percent sign that directly follows a percent sign escaped by
+ * this encoder (apart from pairs of backslashes) is left untouched as well.
+ * This equals the result of replacing
+ * <code>(^|[^\\]|(?:^|[^\\])(?:\\\\)+)(%)</code> by <code>$1\\$2</code> in
+ * the complete CSV.<br>
+ * An encoder can be reused for any amount of tables but must not be used by
+ * multiple threads at once.
+ */
+public class CSVCellEncoder {
+
+	/**
+	 * The size of the internal buffer
+	 */
+	private static final int BUFFER_SIZE = 8192;
+
+	/**
+	 * The sequence delimiting the cells of a row
+	 */
+	protected final String separator;
+	/**
+	 * The replacement for the separator inside a cell (with newlines already
+	 * folded)
+	 */
+	protected final String replacement;
+	/**
+	 * The replacement for empty cells
+	 */
+	protected final String emptyReplacement;
+	/**
+	 * Whether percent signs should be escaped
+	 */
+	protected final boolean escapePercentSigns;
+	/**
+	 * The buffer collecting the encoded characters
+	 */
+	private char[] buffer;
+	/**
+	 * The amount of characters in the buffer
+	 */
+	private int length;
+	/**
+	 * The writer the encoded characters are passed to
+	 */
+	private Writer out;
+	/**
+	 * The amount of backslashes directly preceding the current position
+	 */
+	private int backslashes;
+	/**
+	 * Whether the character before the current run of backslashes is a percent
+	 * sign that has been escaped by this encoder
+	 */
+	private boolean followsEscape;
+
+
+	/**
+	 * Creates a new encoder
+	 * 
+	 * @param separator
+	 *            The sequence delimiting the cells of a row
+	 * @param replacement
+	 *            The replacement for the separator inside a cell
+	 * @param emptyReplacement
+	 *            The replacement for empty cells
+	 * @param escapePercentSigns
+	 *            Whether unescaped percent signs should be escaped
+	 */
+	public CSVCellEncoder(String separator, String replacement, String emptyReplacement,
+			boolean escapePercentSigns) {
+		this.separator = separator;
+		// newlines inside the replacement get replaced as well
+		this.replacement = replacement.replace('\n', ' ');
+		this.emptyReplacement = emptyReplacement;
+		this.escapePercentSigns = escapePercentSigns;
+
+		buffer = new char[BUFFER_SIZE];
+	}
+
+	/**
+	 * Creates a new encoder with the same configuration as this one
+	 */
+	public CSVCellEncoder copy() {
+		return new CSVCellEncoder(separator, replacement, emptyReplacement, escapePercentSigns);
+	}
+
+	/**
+	 * Starts a new CSV that is written into the given writer
+	 * 
+	 * @param out
+	 *            The writer to write to
+	 */
+	public void begin(Writer out) {
+		this.out = out;
+		length = 0;
+		backslashes = 0;
+		followsEscape = false;
+	}
+
+	/**
+	 * Writes the given cell
+	 * 
+	 * @param content
+	 *            The cell's content (may be <code>null</code>)
+	 * @throws IOException
+	 */
+	public void writeCell(Object content) throws IOException {
+		if (content == null) {
+			writeRaw(emptyReplacement);
+			return;
+		}
+
+		String text = content.toString();
+		int i = 0;
+
+		while (i < text.length()) {
+			if (!separator.isEmpty() && text.startsWith(separator, i)) {
+				writeRaw(replacement);
+				i += separator.length();
+			} else {
+				char c = text.charAt(i++);
+				put(c == '\n' ? ' ' : c);
+			}
+		}
+	}
+
+	/**
+	 * Writes the separator between two cells
+	 * 
+	 * @throws IOException
+	 */
+	public void writeSeparator() throws IOException {
+		writeRaw(separator);
+	}
+
+	/**
+	 * Terminates the current row
+	 * 
+	 * @throws IOException
+	 */
+	public void endRow() throws IOException {
+		put('\n');
+	}
+
+	/**
+	 * Finishes the current CSV by passing all remaining characters to the writer.
+	 * The writer itself is neither flushed nor closed.
+	 * 
+	 * @throws IOException
+	 */
+	public void end() throws IOException {
+		out.write(buffer, 0, length);
+
+		length = 0;
+		out = null;
+	}
+
+	/**
+	 * Writes the given sequence without replacing anything but percent signs
+	 * 
+	 * @throws IOException
+	 */
+	private void writeRaw(String sequence) throws IOException {
+		for (int i = 0; i < sequence.length(); i++) {
+			put(sequence.charAt(i));
+		}
+	}
+
+	/**
+	 * Writes a single character and escapes it if necessary
+	 * 
+	 * @throws IOException
+	 */
+	private void put(char c) throws IOException {
+		if (length + 2 > buffer.length) {
+			out.write(buffer, 0, length);
+			length = 0;
+		}
+
+		if (escapePercentSigns) {
+			switch (c) {
+			case '\\':
+				backslashes++;
+				break;
+
+			case '%':
+				if (backslashes % 2 == 0 && !followsEscape) {
+					buffer[length++] = '\\';
+					followsEscape = true;
+				} else {
+					followsEscape = false;
+				}
+				backslashes = 0;
+				break;
+
+			default:
+				followsEscape = false;
+				backslashes = 0;
+			}
+		}
+
+		buffer[length++] = c;
+	}
+}
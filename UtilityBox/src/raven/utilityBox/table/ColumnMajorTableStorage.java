@@ -0,0 +1,48 @@
+package raven.utilityBox.table;
+
+import raven.utilityBox.enums.ETableLayout;
+
+/**
+ * A dense table storage that keeps every column in its own array. Reading a
+ * column from this storage doesn't require any copying.
+ * 
+ * @param <T>
+ *            The datatype of the stored cells
+ */
+public class ColumnMajorTableStorage<T> extends AbstractDenseTableStorage<T> {
+
+	public ColumnMajorTableStorage(Class<T> dataType, int rows, int columns) {
+		super(dataType, columns, rows);
+	}
+
+	public ColumnMajorTableStorage(Class<T> dataType, T[][] data) {
+		this(dataType, data.length, Math.max(0, Table.getColumnCount(data)));
+
+		fill(data);
+	}
+
+	@Override
+	public AbstractDenseTableStorage<T> createEmpty(int rows, int columns) {
+		return new ColumnMajorTableStorage<>(dataType, rows, columns);
+	}
+
+	@Override
+	protected int major(int row, int column) {
+		return column;
+	}
+
+	@Override
+	protected int minor(int row, int column) {
+		return row;
+	}
+
+	@Override
+	protected boolean lanesAreRows() {
+		return false;
+	}
+
+	@Override
+	public ETableLayout getLayout() {
+		return ETableLayout.COLUMN_MAJOR;
+	}
+}
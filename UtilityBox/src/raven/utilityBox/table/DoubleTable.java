@@ -0,0 +1,150 @@
+package raven.utilityBox.table;
+
+import raven.utilityBox.interfaces.ITableStorage;
+
+/**
+ * A table of numbers that stores its cells as <code>double</code> values instead of
+ * boxing every single one of them. Empty cells are tracked in a separate
+ * bitmap.
+ */
+public class DoubleTable extends Table<Double> {
+
+	public DoubleTable() {
+		super(Double.class, new DoubleTableStorage(0, 0));
+	}
+
+	public DoubleTable(Double[][] data) {
+		this();
+
+		setData(data);
+	}
+
+	/**
+	 * Creates a new table of the given size without any content. The cells can be
+	 * filled via {@link #setDouble(int, int, double)}.
+	 * 
+	 * @param rows
+	 *            The amount of rows of the table
+	 * @param columns
+	 *            The amount of columns of the table
+	 */
+	public DoubleTable(int rows, int columns) {
+		super(Double.class, new DoubleTableStorage(rows, columns));
+	}
+
+	/**
+	 * Creates a new table that is backed by the given storage
+	 * 
+	 * @param storage
+	 *            The storage holding the table's data. It has to either be a
+	 *            {@link DoubleTableStorage} or a view onto one.
+	 */
+	protected DoubleTable(ITableStorage<Double> storage) {
+		super(Double.class, storage);
+	}
+
+	@Override
+	protected DoubleTable createTable(ITableStorage<Double> storage) {
+		if (storage == null) {
+			return new DoubleTable();
+		}
+
+		return new DoubleTable(storage);
+	}
+
+	@Override
+	public DoubleTable copy(int rowStart, int rowEnd, int columnStart, int columnEnd) throws IllegalAccessException {
+		return (DoubleTable) super.copy(rowStart, rowEnd, columnStart, columnEnd);
+	}
+
+	@Override
+	public DoubleTable copy() throws IllegalAccessException {
+		return (DoubleTable) super.copy();
+	}
+
+	@Override
+	public DoubleTable getTransposed() throws IllegalAccessException {
+		return (DoubleTable) super.getTransposed();
+	}
+
+	@Override
+	protected ITableStorage<Double> createStorage(Double[][] data) {
+		DoubleTableStorage storage = new DoubleTableStorage(data.length, Math.max(0, getColumnCount(data)));
+
+		for (int i = 0; i < data.length; i++) {
+			for (int j = 0; j < data[i].length; j++) {
+				if (data[i][j] != null) {
+					storage.setDouble(i, j, data[i][j]);
+				}
+			}
+		}
+
+		return storage;
+	}
+
+	/**
+	 * Gets the value of the given cell without boxing it
+	 * 
+	 * @param row
+	 *            The cell's row
+	 * @param column
+	 *            The cell's column
+	 * @return The cell's value or <code>NaN</code> if the cell is empty
+	 * @throws IllegalAccessException
+	 */
+	public double getDouble(int row, int column) throws IllegalAccessException {
+		validateTableAccess();
+
+		ITableStorage<Double> storage = getStorage();
+		int storageRow = isTransposed() ? column : row;
+		int storageColumn = isTransposed() ? row : column;
+
+		if (storage instanceof TableView) {
+			// read through the view so that the value doesn't have to be boxed
+			TableView<Double> view = (TableView<Double>) storage;
+
+			int sourceRow = view.sourceRow(storageRow, storageColumn);
+			int sourceColumn = view.sourceColumn(storageRow, storageColumn);
+
+			if (!view.isSourceVisible(sourceRow, sourceColumn)) {
+				return Double.NaN;
+			}
+
+			storage = view.getSource();
+			storageRow = sourceRow;
+			storageColumn = sourceColumn;
+		}
+
+		DoubleTableStorage values = (DoubleTableStorage) storage;
+
+		return values.isNull(storageRow, storageColumn) ? Double.NaN : values.getDouble(storageRow, storageColumn);
+	}
+
+	/**
+	 * Sets the value of the given cell without boxing it
+	 * 
+	 * @param row
+	 *            The cell's row index
+	 * @param column
+	 *            The cell's column index
+	 * @param value
+	 *            The value to write into this particular cell
+	 * @throws IllegalAccessException
+	 */
+	public void setDouble(int row, int column, double value) throws IllegalAccessException {
+		validateTableAccess();
+
+		if (row < getRowCount() && column < getColumnCount()) {
+			prepareModification();
+
+			int storageRow = isTransposed() ? column : row;
+			int storageColumn = isTransposed() ? row : column;
+			// the storage is no view anymore after prepareModification()
+			DoubleTableStorage storage = (DoubleTableStorage) getStorage();
+
+			updateOccupancy(storageRow, storageColumn, !storage.isNull(storageRow, storageColumn), true);
+
+			storage.setDouble(storageRow, storageColumn, value);
+		}
+	}
+}
@@ -0,0 +1,150 @@
+package raven.utilityBox.table;
+
+import raven.utilityBox.interfaces.ITableStorage;
+
+/**
+ * A table of numbers that stores its cells as <code>long</code> values instead of
+ * boxing every single one of them. Empty cells are tracked in a separate
+ * bitmap.
+ */
+public class LongTable extends Table<Long> {
+
+	public LongTable() {
+		super(Long.class, new LongTableStorage(0, 0));
+	}
+
+	public LongTable(Long[][] data) {
+		this();
+
+		setData(data);
+	}
+
+	/**
+	 * Creates a new table of the given size without any content. The cells can be
+	 * filled via {@link #setLong(int, int, long)}.
+	 * 
+	 * @param rows
+	 *            The amount of rows of the table
+	 * @param columns
+	 *            The amount of columns of the table
+	 */
+	public LongTable(int rows, int columns) {
+		super(Long.class, new LongTableStorage(rows, columns));
+	}
+
+	/**
+	 * Creates a new table that is backed by the given storage
+	 * 
+	 * @param storage
+	 *            The storage holding the table's data. It has to either be a
+	 *            {@link LongTableStorage} or a view onto one.
+	 */
+	protected LongTable(ITableStorage<Long> storage) {
+		super(Long.class, storage);
+	}
+
+	@Override
+	protected LongTable createTable(ITableStorage<Long> storage) {
+		if (storage == null) {
+			return new LongTable();
+		}
+
+		return new LongTable(storage);
+	}
+
+	@Override
+	public LongTable copy(int rowStart, int rowEnd, int columnStart, int columnEnd) throws IllegalAccessException {
+		return (LongTable) super.copy(rowStart, rowEnd, columnStart, columnEnd);
+	}
+
+	@Override
+	public LongTable copy() throws IllegalAccessException {
+		return (LongTable) super.copy();
+	}
+
+	@Override
+	public LongTable getTransposed() throws IllegalAccessException {
+		return (LongTable) super.getTransposed();
+	}
+
+	@Override
+	protected ITableStorage<Long> createStorage(Long[][] data) {
+		LongTableStorage storage = new LongTableStorage(data.length, Math.max(0, getColumnCount(data)));
+
+		for (int i = 0; i < data.length; i++) {
+			for (int j = 0; j < data[i].length; j++) {
+				if (data[i][j] != null) {
+					storage.setLong(i, j, data[i][j]);
+				}
+			}
+		}
+
+		return storage;
+	}
+
+	/**
+	 * Gets the value of the given cell without boxing it
+	 * 
+	 * @param row
+	 *            The cell's row
+	 * @param column
+	 *            The cell's column
+	 * @return The cell's value or <code>0</code> if the cell is empty
+	 * @throws IllegalAccessException
+	 */
+	public long getLong(int row, int column) throws IllegalAccessException {
+		validateTableAccess();
+
+		ITableStorage<Long> storage = getStorage();
+		int storageRow = isTransposed() ? column : row;
+		int storageColumn = isTransposed() ? row : column;
+
+		if (storage instanceof TableView) {
+			// read through the view so that the value doesn't have to be boxed
+			TableView<Long> view = (TableView<Long>) storage;
+
+			int sourceRow = view.sourceRow(storageRow, storageColumn);
+			int sourceColumn = view.sourceColumn(storageRow, storageColumn);
+
+			if (!view.isSourceVisible(sourceRow, sourceColumn)) {
+				return 0;
+			}
+
+			storage = view.getSource();
+			storageRow = sourceRow;
+			storageColumn = sourceColumn;
+		}
+
+		LongTableStorage values = (LongTableStorage) storage;
+
+		return values.isNull(storageRow, storageColumn) ? 0 : values.getLong(storageRow, storageColumn);
+	}
+
+	/**
+	 * Sets the value of the given cell without boxing it
+	 * 
+	 * @param row
+	 *            The cell's row index
+	 * @param column
+	 *            The cell's column index
+	 * @param value
+	 *            The value to write into this particular cell
+	 * @throws IllegalAccessException
+	 */
+	public void setLong(int row, int column, long value) throws IllegalAccessException {
+		validateTableAccess();
+
+		if (row < getRowCount() && column < getColumnCount()) {
+			prepareModification();
+
+			int storageRow = isTransposed() ? column : row;
+			int storageColumn = isTransposed() ? row : column;
+			// the storage is no view anymore after prepareModification()
+			LongTableStorage storage = (LongTableStorage) getStorage();
+
+			updateOccupancy(storageRow, storageColumn, !storage.isNull(storageRow, storageColumn), true);
+
+			storage.setLong(storageRow, storageColumn, value);
+		}
+	}
+}
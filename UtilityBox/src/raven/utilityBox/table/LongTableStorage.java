@@ -0,0 +1,94 @@
+package raven.utilityBox.table;
+
+import java.util.Arrays;
+
+/**
+ * A column-major table storage keeping its values in <code>long</code> arrays
+ */
+public class LongTableStorage extends AbstractPrimitiveTableStorage<Long> {
+
+	/**
+	 * The values of every column. The content of empty cells is undefined.
+	 */
+	protected long[][] values;
+
+
+	public LongTableStorage(int rows, int columns) {
+		super(Long.class, rows, columns);
+
+		values = new long[columns][rows];
+	}
+
+	/**
+	 * Gets the value of the given cell. The result is undefined for empty cells
+	 * (see {@link #isNull(int, int)})
+	 * 
+	 * @param row
+	 *            The cell's row
+	 * @param column
+	 *            The cell's column
+	 */
+	public long getLong(int row, int column) {
+		return values[column][row];
+	}
+
+	/**
+	 * Sets the value of the given cell
+	 * 
+	 * @param row
+	 *            The cell's row
+	 * @param column
+	 *            The cell's column
+	 * @param value
+	 *            The new value
+	 */
+	public void setLong(int row, int column, long value) {
+		values[column][row] = value;
+		setPresent(row, column, true);
+	}
+
+	/**
+	 * Gets the array holding the values of the given column. The array must not be
+	 * modified and its entries for empty cells are undefined.
+	 * 
+	 * @param index
+	 *            The column's index
+	 */
+	public long[] getLongColumn(int index) {
+		return values[index];
+	}
+
+	@Override
+	protected Long box(int row, int column) {
+		return values[column][row];
+	}
+
+	@Override
+	protected void store(int row, int column, Long value) {
+		values[column][row] = value;
+	}
+
+	@Override
+	protected void removeValueRow(int index) {
+		for (int i = 0; i < values.length; i++) {
+			long[] newColumn = new long[rows - 1];
+			System.arraycopy(values[i], 0, newColumn, 0, index);
+			System.arraycopy(values[i], index + 1, newColumn, index, rows - index - 1);
+
+			values[i] = newColumn;
+		}
+	}
+
+	@Override
+	protected void removeValueColumn(int index) {
+		long[][] newValues = Arrays.copyOf(values, values.length - 1);
+		System.arraycopy(values, index + 1, newValues, index, values.length - index - 1);
+
+		values = newValues;
+	}
+
+	@Override
+	public LongTableStorage createEmpty(int rows, int columns) {
+		return new LongTableStorage(rows, columns);
+	}
+}
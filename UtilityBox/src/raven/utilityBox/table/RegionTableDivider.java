@@ -0,0 +1,313 @@
+package raven.utilityBox.table;
+
+import java.util.AbstractList;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+/**
+ * A {@link TableDivider} that doesn't copy any (sub-)tables while dividing.
+ * Instead it reads the table once into an occupancy bitmap (one bit per cell,
+ * stored row- and column-wise) and performs the complete division on the
+ * bounding boxes of the sub-tables. Whether a row or column of a box is empty
+ * can then be answered by a word-level scan of the bitmap.<br>
+ * Runs of empty rows and columns are collapsed into a single row or column
+ * before dividing, as they would be cut away anyway, so that large blank areas
+ * neither cost memory nor scanning time.<br>
+ * The division follows exactly the same rules as {@link TableDivider} does
+ * (splitting at empty columns first, then at empty rows and repeating that
+ * within every piece) and therefore produces the same sub-tables in the same
+ * order. The sub-tables are only materialized when they are accessed.
+ * 
+ * @param <T>
+ *            The datatype of the table's cells
+ */
+public abstract class RegionTableDivider<T> extends TableDivider<T> {
+
+	/**
+	 * The occupancy bitmap of every row (a set bit marks a non-empty cell)
+	 */
+	private long[][] rowBits;
+	/**
+	 * The occupancy bitmap of every column (a set bit marks a non-empty cell)
+	 */
+	private long[][] columnBits;
+	/**
+	 * The index of the first original row each (collapsed) row corresponds to
+	 */
+	private int[] rowOrigins;
+	/**
+	 * The index of the first original column each (collapsed) column corresponds
+	 * to
+	 */
+	private int[] columnOrigins;
+
+
+	public RegionTableDivider(Table<T> table) {
+		super(table);
+	}
+
+	@Override
+	public List<Table<T>> divide() throws IllegalAccessException {
+		final List<TableRegion> regions = divideRegions();
+
+		return new AbstractList<Table<T>>() {
+			/**
+			 * The already materialized sub-tables
+			 */
+			private List<Table<T>> subTables = new ArrayList<>(regions.size());
+
+			@Override
+			public Table<T> get(int index) {
+				while (subTables.size() < regions.size()) {
+					subTables.add(null);
+				}
+
+				if (subTables.get(index) == null) {
+					try {
+						subTables.set(index, regions.get(index).copyFrom(getTable()));
+					} catch (IllegalAccessException e) {
+						// can't happen as the table has been accessed successfully before
+						throw new IllegalStateException(e);
+					}
+				}
+
+				return subTables.get(index);
+			}
+
+			@Override
+			public int size() {
+				return regions.size();
+			}
+		};
+	}
+
+	/**
+	 * Divides the table into its sub-tables (delimited by empty columns and rows)
+	 * without copying anything
+	 * 
+	 * @return The bounding boxes of all sub-tables
+	 * @throws IllegalAccessException
+	 */
+	public List<TableRegion> divideRegions() throws IllegalAccessException {
+		Table<T> table = getTable();
+
+		buildOccupancy(table);
+
+		List<TableRegion> regions = new ArrayList<>();
+
+		doDivide(new TableRegion(0, rowOrigins.length - 1, 0, columnOrigins.length - 1), regions);
+
+		// map the regions back onto the original table. The border rows and columns
+		// of a region are never empty and thus never collapsed.
+		for (int i = 0; i < regions.size(); i++) {
+			TableRegion current = regions.get(i);
+
+			regions.set(i, new TableRegion(rowOrigins[current.getRowStart()], rowOrigins[current.getRowEnd()],
+					columnOrigins[current.getColumnStart()], columnOrigins[current.getColumnEnd()]));
+		}
+
+		return regions;
+	}
+
+	/**
+	 * Reads the given table into the occupancy bitmaps
+	 * 
+	 * @param table
+	 *            The table to read
+	 * @throws IllegalAccessException
+	 */
+	private void buildOccupancy(Table<T> table) throws IllegalAccessException {
+		int rows = table.getRowCount();
+		int columns = table.getColumnCount();
+
+		// find the non-empty cells first
+		int[][] occupiedCells = new int[rows][];
+		boolean[] occupiedRows = new boolean[rows];
+		boolean[] occupiedColumns = new boolean[columns];
+		int[] buffer = new int[columns];
+
+		for (int i = 0; i < rows; i++) {
+			T[] row = table.getBackingRow(i);
+			int count = 0;
+
+			for (int j = 0; j < columns; j++) {
+				if (!isEmpty(row[j])) {
+					buffer[count++] = j;
+					occupiedColumns[j] = true;
+				}
+			}
+
+			occupiedRows[i] = count > 0;
+			occupiedCells[i] = Arrays.copyOf(buffer, count);
+		}
+
+		// collapse the runs of empty rows and columns
+		int[] rowIndices = new int[rows];
+		int[] columnIndices = new int[columns];
+		rowOrigins = collapse(occupiedRows, rowIndices);
+		columnOrigins = collapse(occupiedColumns, columnIndices);
+
+		rowBits = new long[rowOrigins.length][(columnOrigins.length + 63) >>> 6];
+		columnBits = new long[columnOrigins.length][(rowOrigins.length + 63) >>> 6];
+
+		for (int i = 0; i < rows; i++) {
+			int row = rowIndices[i];
+
+			for (int j : occupiedCells[i]) {
+				int column = columnIndices[j];
+
+				rowBits[row][column >>> 6] |= 1L << column;
+				columnBits[column][row >>> 6] |= 1L << row;
+			}
+		}
+	}
+
+	/**
+	 * Collapses every run of unoccupied indices into a single index
+	 * 
+	 * @param occupied
+	 *            Which indices are occupied
+	 * @param collapsedIndices
+	 *            The array the collapsed index of every original index is written
+	 *            to
+	 * @return The first original index of every collapsed index
+	 */
+	private static int[] collapse(boolean[] occupied, int[] collapsedIndices) {
+		int[] origins = new int[occupied.length];
+		int count = 0;
+
+		for (int i = 0; i < occupied.length; i++) {
+			if (i == 0 || occupied[i] || occupied[i - 1]) {
+				origins[count++] = i;
+			}
+
+			collapsedIndices[i] = count - 1;
+		}
+
+		return Arrays.copyOf(origins, count);
+	}
+
+	/**
+	 * Divides the given region and adds the found sub-regions to the given list
+	 * 
+	 * @param region
+	 *            The region to divide
+	 * @param regions
+	 *            The list to add the sub-regions to
+	 */
+	protected void doDivide(TableRegion region, List<TableRegion> regions) {
+		List<Integer> emptyColumns = getEmptyColumns(region);
+		List<Integer> emptyRows = getEmptyRows(region);
+
+		// split at empty columns first and then split these pieces at the empty rows
+		for (int[] columnRange : getSections(emptyColumns, region.getColumnStart(), region.getColumnEnd())) {
+			for (int[] rowRange : getSections(emptyRows, region.getRowStart(), region.getRowEnd())) {
+				TableRegion piece = new TableRegion(rowRange[0], rowRange[1], columnRange[0], columnRange[1]);
+
+				if (getEmptyColumns(piece).size() > 0 || getEmptyRows(piece).size() > 0) {
+					// region can be divided further
+					doDivide(piece, regions);
+				} else {
+					regions.add(piece);
+				}
+			}
+		}
+	}
+
+	/**
+	 * Gets the sections between the given delimiters. Empty sections are omitted.
+	 * 
+	 * @param delimiters
+	 *            The sorted indices of the delimiters
+	 * @param start
+	 *            The first index of the range to split
+	 * @param end
+	 *            The last index of the range to split
+	 * @return A list of sections (first and last index)
+	 */
+	private static List<int[]> getSections(List<Integer> delimiters, int start, int end) {
+		List<int[]> sections = new ArrayList<>();
+
+		int sectionStart = start;
+		for (int currentDelimiter : delimiters) {
+			if (currentDelimiter > sectionStart) {
+				sections.add(new int[] { sectionStart, currentDelimiter - 1 });
+			}
+
+			sectionStart = currentDelimiter + 1;
+		}
+		if (sectionStart <= end) {
+			sections.add(new int[] { sectionStart, end });
+		}
+
+		return sections;
+	}
+
+	/**
+	 * Gets the (absolute) indices of the empty columns within the given region
+	 */
+	private List<Integer> getEmptyColumns(TableRegion region) {
+		List<Integer> empties = new ArrayList<>();
+
+		for (int i = region.getColumnStart(); i <= region.getColumnEnd(); i++) {
+			if (isClear(columnBits[i], region.getRowStart(), region.getRowEnd())) {
+				empties.add(i);
+			}
+		}
+
+		return empties;
+	}
+
+	/**
+	 * Gets the (absolute) indices of the empty rows within the given region
+	 */
+	private List<Integer> getEmptyRows(TableRegion region) {
+		List<Integer> empties = new ArrayList<>();
+
+		for (int i = region.getRowStart(); i <= region.getRowEnd(); i++) {
+			if (isClear(rowBits[i], region.getColumnStart(), region.getColumnEnd())) {
+				empties.add(i);
+			}
+		}
+
+		return empties;
+	}
+
+	/**
+	 * Checks whether none of the bits in the given range is set
+	 * 
+	 * @param bits
+	 *            The bitmap to check
+	 * @param from
+	 *            The index of the first bit to check
+	 * @param to
+	 *            The index of the last bit to check
+	 */
+	private static boolean isClear(long[] bits, int from, int to) {
+		if (from > to) {
+			// an empty range can't contain any set bits
+			return true;
+		}
+
+		int firstWord = from >>> 6;
+		int lastWord = to >>> 6;
+
+		for (int i = firstWord; i <= lastWord; i++) {
+			long mask = -1L;
+
+			if (i == firstWord) {
+				mask &= -1L << from;
+			}
+			if (i == lastWord) {
+				mask &= -1L >>> (63 - (to & 63));
+			}
+
+			if ((bits[i] & mask) != 0) {
+				return false;
+			}
+		}
+
+		return true;
+	}
+}
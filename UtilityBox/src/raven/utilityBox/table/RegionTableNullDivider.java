@@ -0,0 +1,14 @@
+package raven.utilityBox.table;
+
+public class RegionTableNullDivider<T> extends RegionTableDivider<T> {
+
+	public RegionTableNullDivider(Table<T> table) {
+		super(table);
+	}
+
+	@Override
+	protected boolean isEmpty(Object content) {
+		return content == null;
+	}
+
+}
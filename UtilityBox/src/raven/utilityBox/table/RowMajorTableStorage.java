@@ -0,0 +1,47 @@
+package raven.utilityBox.table;
+
+import raven.utilityBox.enums.ETableLayout;
+
+/**
+ * A dense table storage that keeps every row in its own array
+ * 
+ * @param <T>
+ *            The datatype of the stored cells
+ */
+public class RowMajorTableStorage<T> extends AbstractDenseTableStorage<T> {
+
+	public RowMajorTableStorage(Class<T> dataType, int rows, int columns) {
+		super(dataType, rows, columns);
+	}
+
+	public RowMajorTableStorage(Class<T> dataType, T[][] data) {
+		this(dataType, data.length, Math.max(0, Table.getColumnCount(data)));
+
+		fill(data);
+	}
+
+	@Override
+	public AbstractDenseTableStorage<T> createEmpty(int rows, int columns) {
+		return new RowMajorTableStorage<>(dataType, rows, columns);
+	}
+
+	@Override
+	protected int major(int row, int column) {
+		return row;
+	}
+
+	@Override
+	protected int minor(int row, int column) {
+		return column;
+	}
+
+	@Override
+	protected boolean lanesAreRows() {
+		return true;
+	}
+
+	@Override
+	public ETableLayout getLayout() {
+		return ETableLayout.ROW_MAJOR;
+	}
+}
@@ -0,0 +1,88 @@
+package raven.utilityBox.table;
+
+import raven.utilityBox.enums.ETableLayout;
+import raven.utilityBox.interfaces.ITableStorage;
+
+/**
+ * A table that only stores its non-empty cells. It is meant for tables that
+ * are mostly empty (e.g. spreadsheets with a few scattered data sets) as its
+ * memory usage scales with the amount of occupied cells rather than with the
+ * size of the table.
+ * 
+ * @param <T>
+ *            The datatype of the table's cells
+ */
+public class SparseTable<T> extends Table<T> {
+
+	public SparseTable(Class<T> type) {
+		super(type, ETableLayout.SPARSE);
+	}
+
+	public SparseTable(Class<T> type, T[][] data) {
+		super(type, data, ETableLayout.SPARSE);
+	}
+
+	/**
+	 * Creates a new sparse table of the given size without any content. The cells
+	 * can be filled via {@link #set(int, int, Object)}.
+	 * 
+	 * @param type
+	 *            The datatype of the table's cells
+	 * @param rows
+	 *            The amount of rows of the table
+	 * @param columns
+	 *            The amount of columns of the table
+	 */
+	public SparseTable(Class<T> type, int rows, int columns) {
+		super(type, new SparseTableStorage<>(type, rows, columns));
+	}
+
+	/**
+	 * Creates a new table that is backed by the given storage
+	 * 
+	 * @param type
+	 *            The datatype of the table's cells
+	 * @param storage
+	 *            The storage holding the table's data. It has to either be a
+	 *            {@link SparseTableStorage} or a view onto one.
+	 */
+	protected SparseTable(Class<T> type, ITableStorage<T> storage) {
+		super(type, storage);
+	}
+
+	@Override
+	protected SparseTable<T> createTable(ITableStorage<T> storage) {
+		if (storage == null) {
+			return new SparseTable<>(getDataType());
+		}
+
+		return new SparseTable<>(getDataType(), storage);
+	}
+
+	@Override
+	public SparseTable<T> copy(int rowStart, int rowEnd, int columnStart, int columnEnd)
+			throws IllegalAccessException {
+		return (SparseTable<T>) super.copy(rowStart, rowEnd, columnStart, columnEnd);
+	}
+
+	@Override
+	public SparseTable<T> copy() throws IllegalAccessException {
+		return (SparseTable<T>) super.copy();
+	}
+
+	@Override
+	public SparseTable<T> getTransposed() throws IllegalAccessException {
+		return (SparseTable<T>) super.getTransposed();
+	}
+
+	@Override
+	public boolean isEmpty() throws IllegalAccessException {
+		validateTableAccess();
+
+		if (getStorage() instanceof SparseTableStorage) {
+			return ((SparseTableStorage<T>) getStorage()).getOccupiedCellCount() == 0;
+		}
+
+		return super.isEmpty();
+	}
+}
@@ -0,0 +1,447 @@
+package raven.utilityBox.table;
+
+import java.lang.reflect.Array;
+import java.util.Arrays;
+
+import raven.utilityBox.enums.ETableLayout;
+import raven.utilityBox.interfaces.ITableStorage;
+
+/**
+ * A table storage that only stores non-empty cells. Every row that contains at
+ * least one cell is represented by an open-addressing hash map from the column
+ * index to the cell's content. Rows without any content don't occupy any memory
+ * apart from their slot in the row array.
+ * 
+ * @param <T>
+ *            The datatype of the stored cells
+ */
+public class SparseTableStorage<T> implements ITableStorage<T> {
+
+	/**
+	 * The datatype of the stored cells
+	 */
+	protected final Class<T> dataType;
+	/**
+	 * The maps containing the cells of the respective rows. Empty rows are
+	 * represented by <code>null</code>
+	 */
+	protected SparseRow[] rowMaps;
+	/**
+	 * The amount of columns of this storage
+	 */
+	protected int columns;
+	/**
+	 * The amount of non-empty cells in this storage
+	 */
+	protected int occupiedCells;
+
+
+	public SparseTableStorage(Class<T> dataType, int rows, int columns) {
+		this.dataType = dataType;
+		this.columns = columns;
+
+		rowMaps = new SparseRow[rows];
+	}
+
+	public SparseTableStorage(Class<T> dataType, T[][] data) {
+		this(dataType, data.length, Math.max(0, Table.getColumnCount(data)));
+
+		for (int i = 0; i < data.length; i++) {
+			for (int j = 0; j < data[i].length; j++) {
+				if (data[i][j] != null) {
+					set(i, j, data[i][j]);
+				}
+			}
+		}
+	}
+
+	/**
+	 * Gets the amount of non-empty cells in this storage
+	 */
+	public int getOccupiedCellCount() {
+		return occupiedCells;
+	}
+
+	/**
+	 * Gets the amount of non-empty cells in the given row
+	 * 
+	 * @param row
+	 *            The row's index
+	 */
+	public int getOccupiedCellCount(int row) {
+		return rowMaps[row] == null ? 0 : rowMaps[row].size;
+	}
+
+	/**
+	 * Counts the non-empty cells of every row and column by only visiting the
+	 * non-empty cells
+	 * 
+	 * @param rowCounts
+	 *            The array the amount of cells per row is added to
+	 * @param columnCounts
+	 *            The array the amount of cells per column is added to
+	 */
+	protected void countOccupiedCells(int[] rowCounts, int[] columnCounts) {
+		for (int i = 0; i < rowMaps.length; i++) {
+			SparseRow map = rowMaps[i];
+
+			if (map == null) {
+				continue;
+			}
+
+			rowCounts[i] += map.size;
+
+			for (int key : map.keys) {
+				if (key != SparseRow.FREE) {
+					columnCounts[key]++;
+				}
+			}
+		}
+	}
+
+	/**
+	 * Collects the non-empty cells ordered by their column and - within a column -
+	 * by their row without materializing any row or column
+	 * 
+	 * @param cellRows
+	 *            The array the row of every cell is written to. It has to provide
+	 *            room for {@link #getOccupiedCellCount()} cells.
+	 * @param cellValues
+	 *            The array the content of every cell is written to. It has to be
+	 *            as long as <code>cellRows</code>.
+	 * @return The position of the first cell of every column within the arrays
+	 *         followed by the total amount of cells
+	 */
+	protected int[] collectByColumn(int[] cellRows, Object[] cellValues) {
+		int[] offsets = new int[columns + 1];
+
+		for (SparseRow map : rowMaps) {
+			if (map != null) {
+				for (int key : map.keys) {
+					if (key != SparseRow.FREE) {
+						offsets[key + 1]++;
+					}
+				}
+			}
+		}
+
+		for (int j = 0; j < columns; j++) {
+			offsets[j + 1] += offsets[j];
+		}
+
+		int[] positions = Arrays.copyOf(offsets, columns);
+
+		for (int i = 0; i < rowMaps.length; i++) {
+			SparseRow map = rowMaps[i];
+
+			if (map == null) {
+				continue;
+			}
+
+			for (int k = 0; k < map.keys.length; k++) {
+				if (map.keys[k] != SparseRow.FREE) {
+					int position = positions[map.keys[k]]++;
+
+					cellRows[position] = i;
+					cellValues[position] = map.values[k];
+				}
+			}
+		}
+
+		return offsets;
+	}
+
+	@Override
+	public int getRowCount() {
+		return rowMaps.length;
+	}
+
+	@Override
+	public int getColumnCount() {
+		return columns;
+	}
+
+	@SuppressWarnings("unchecked")
+	@Override
+	public T get(int row, int column) {
+		if (column < 0 || column >= columns) {
+			throw new ArrayIndexOutOfBoundsException(column);
+		}
+
+		return rowMaps[row] == null ? null : (T) rowMaps[row].get(column);
+	}
+
+	@Override
+	public void set(int row, int column, T value) {
+		if (column < 0 || column >= columns) {
+			throw new ArrayIndexOutOfBoundsException(column);
+		}
+
+		if (value == null) {
+			if (rowMaps[row] != null) {
+				if (rowMaps[row].remove(column)) {
+					occupiedCells--;
+				}
+
+				if (rowMaps[row].size == 0) {
+					rowMaps[row] = null;
+				}
+			}
+		} else {
+			if (rowMaps[row] == null) {
+				rowMaps[row] = new SparseRow();
+			}
+
+			if (rowMaps[row].put(column, value)) {
+				occupiedCells++;
+			}
+		}
+	}
+
+	@SuppressWarnings("unchecked")
+	@Override
+	public T[] getRow(int index) {
+		T[] row = (T[]) Array.newInstance(dataType, columns);
+		SparseRow map = rowMaps[index];
+
+		if (map != null) {
+			for (int i = 0; i < map.keys.length; i++) {
+				if (map.keys[i] != SparseRow.FREE) {
+					row[map.keys[i]] = (T) map.values[i];
+				}
+			}
+		}
+
+		return row;
+	}
+
+	@SuppressWarnings("unchecked")
+	@Override
+	public T[] getColumn(int index) {
+		T[] column = (T[]) Array.newInstance(dataType, rowMaps.length);
+
+		for (int i = 0; i < rowMaps.length; i++) {
+			if (rowMaps[i] != null) {
+				column[i] = (T) rowMaps[i].get(index);
+			}
+		}
+
+		return column;
+	}
+
+	@Override
+	public void deleteRow(int index) {
+		occupiedCells -= getOccupiedCellCount(index);
+
+		SparseRow[] newRows = Arrays.copyOf(rowMaps, rowMaps.length - 1);
+		System.arraycopy(rowMaps, index + 1, newRows, index, rowMaps.length - index - 1);
+
+		rowMaps = newRows;
+	}
+
+	@Override
+	public void deleteColumn(int index) {
+		for (int i = 0; i < rowMaps.length; i++) {
+			SparseRow map = rowMaps[i];
+
+			if (map == null) {
+				continue;
+			}
+
+			SparseRow shifted = new SparseRow();
+
+			for (int j = 0; j < map.keys.length; j++) {
+				int key = map.keys[j];
+
+				if (key == SparseRow.FREE) {
+					continue;
+				}
+
+				if (key == index) {
+					occupiedCells--;
+				} else {
+					shifted.put(key > index ? key - 1 : key, map.values[j]);
+				}
+			}
+
+			rowMaps[i] = shifted.size == 0 ? null : shifted;
+		}
+
+		columns--;
+	}
+
+	@SuppressWarnings("unchecked")
+	@Override
+	public SparseTableStorage<T> copy(int rowStart, int rowEnd, int columnStart, int columnEnd, boolean transpose) {
+		int rows = rowEnd - rowStart + 1;
+		int columns = columnEnd - columnStart + 1;
+
+		SparseTableStorage<T> copy = createEmpty(transpose ? columns : rows, transpose ? rows : columns);
+
+		for (int i = rowStart; i <= rowEnd && i < rowMaps.length; i++) {
+			SparseRow map = rowMaps[i];
+
+			if (map == null) {
+				continue;
+			}
+
+			for (int j = 0; j < map.keys.length; j++) {
+				int key = map.keys[j];
+
+				if (key != SparseRow.FREE && key >= columnStart && key <= columnEnd) {
+					if (transpose) {
+						copy.set(key - columnStart, i - rowStart, (T) map.values[j]);
+					} else {
+						copy.set(i - rowStart, key - columnStart, (T) map.values[j]);
+					}
+				}
+			}
+		}
+
+		return copy;
+	}
+
+	@Override
+	public SparseTableStorage<T> createEmpty(int rows, int columns) {
+		return new SparseTableStorage<>(dataType, rows, columns);
+	}
+
+	@Override
+	public ETableLayout getLayout() {
+		return ETableLayout.SPARSE;
+	}
+
+
+	/**
+	 * An open-addressing hash map (with linear probing) from a column index to the
+	 * content of the respective cell
+	 */
+	protected static class SparseRow {
+		/**
+		 * The key marking a free slot
+		 */
+		protected static final int FREE = -1;
+
+		/**
+		 * The column indices of the stored cells
+		 */
+		protected int[] keys;
+		/**
+		 * The contents of the stored cells
+		 */
+		protected Object[] values;
+		/**
+		 * The amount of stored cells
+		 */
+		protected int size;
+
+
+		protected SparseRow() {
+			keys = new int[4];
+			values = new Object[4];
+
+			Arrays.fill(keys, FREE);
+		}
+
+		/**
+		 * Gets the slot the probing for the given key starts at
+		 */
+		private int slot(int key) {
+			return (key * 0x9E3779B9 >>> 16) & (keys.length - 1);
+		}
+
+		/**
+		 * Gets the content stored for the given column or <code>null</code> if there
+		 * is none
+		 */
+		protected Object get(int key) {
+			for (int i = slot(key);; i = (i + 1) & (keys.length - 1)) {
+				if (keys[i] == key) {
+					return values[i];
+				}
+				if (keys[i] == FREE) {
+					return null;
+				}
+			}
+		}
+
+		/**
+		 * Stores the given content for the given column
+		 * 
+		 * @return Whether the column hasn't been present before
+		 */
+		protected boolean put(int key, Object value) {
+			if ((size + 1) * 2 > keys.length) {
+				grow();
+			}
+
+			for (int i = slot(key);; i = (i + 1) & (keys.length - 1)) {
+				if (keys[i] == key) {
+					values[i] = value;
+					return false;
+				}
+				if (keys[i] == FREE) {
+					keys[i] = key;
+					values[i] = value;
+					size++;
+					return true;
+				}
+			}
+		}
+
+		/**
+		 * Removes the content stored for the given column
+		 * 
+		 * @return Whether there has been content for the given column
+		 */
+		protected boolean remove(int key) {
+			int mask = keys.length - 1;
+			int i = slot(key);
+
+			while (keys[i] != key) {
+				if (keys[i] == FREE) {
+					return false;
+				}
+				i = (i + 1) & mask;
+			}
+
+			// shift following entries of the cluster back so that lookups don't stop
+			// at the freed slot
+			for (int j = (i + 1) & mask; keys[j] != FREE; j = (j + 1) & mask) {
+				int home = slot(keys[j]);
+
+				if (((j - home) & mask) >= ((j - i) & mask)) {
+					keys[i] = keys[j];
+					values[i] = values[j];
+					i = j;
+				}
+			}
+
+			keys[i] = FREE;
+			values[i] = null;
+			size--;
+
+			return true;
+		}
+
+		/**
+		 * Doubles the capacity of this map
+		 */
+		private void grow() {
+			int[] oldKeys = keys;
+			Object[] oldValues = values;
+
+			keys = new int[oldKeys.length * 2];
+			values = new Object[oldValues.length * 2];
+			size = 0;
+
+			Arrays.fill(keys, FREE);
+
+			for (int i = 0; i < oldKeys.length; i++) {
+				if (oldKeys[i] != FREE) {
+					put(oldKeys[i], oldValues[i]);
+				}
+			}
+		}
+	}
+}
@@ -0,0 +1,238 @@
+package raven.utilityBox.table;
+
+import java.io.IOException;
+import java.lang.reflect.Array;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+import raven.utilityBox.enums.ETableLayout;
+import raven.utilityBox.interfaces.ISubTableHandler;
+
+/**
+ * A divider that consumes a table row by row and hands every sub-table to an
+ * {@link ISubTableHandler} as soon as it is complete. Only the non-empty cells
+ * of the rows since the last empty row are kept in memory: an empty row closes
+ * the current band of rows which is then divided by a
+ * {@link RegionTableDivider}. Runs of empty rows are passed in as a count and
+ * runs of columns that are empty in the whole band are collapsed into a single
+ * column before the band is put into a table, so blank areas are never
+ * expanded.<br>
+ * As every row that is empty in the whole table is empty in each of its
+ * sub-tables as well the found sub-tables are the same ones a
+ * {@link TableDivider} would find. They are emitted band by band (top to bottom)
+ * though, whereas a {@link TableDivider} splits at the empty columns first.
+ * 
+ * @param <T>
+ *            The datatype of the table's cells
+ */
+public abstract class StreamingTableDivider<T> {
+
+	/**
+	 * The datatype of the table's cells
+	 */
+	protected Class<T> dataType;
+	/**
+	 * The layout the created sub-tables should store their data in
+	 */
+	protected ETableLayout layout;
+	/**
+	 * The handler the found sub-tables are passed to
+	 */
+	protected ISubTableHandler<T> handler;
+	/**
+	 * The columns of the non-empty cells of every row of the currently open band
+	 */
+	private List<int[]> bandColumns;
+	/**
+	 * The non-empty cells of every row of the currently open band
+	 */
+	private List<T[]> bandCells;
+
+
+	public StreamingTableDivider(Class<T> dataType, ISubTableHandler<T> handler) {
+		this(dataType, handler, ETableLayout.ROW_MAJOR);
+	}
+
+	public StreamingTableDivider(Class<T> dataType, ISubTableHandler<T> handler, ETableLayout layout) {
+		this.dataType = dataType;
+		this.handler = handler;
+		this.layout = layout;
+
+		bandColumns = new ArrayList<>();
+		bandCells = new ArrayList<>();
+	}
+
+	/**
+	 * Checks whether a cell with the given content is considered as an empty cell
+	 * 
+	 * @param content
+	 *            The content to be evaluated
+	 * @return Whether the given content should be considered as "empty"
+	 */
+	protected abstract boolean isEmpty(Object content);
+
+	/**
+	 * Adds the next row of the table. If this row is empty all sub-tables above it
+	 * are passed to the handler.
+	 * 
+	 * @param row
+	 *            The row to add. The array must not be modified afterwards.
+	 * @throws IOException
+	 * @throws IllegalAccessException
+	 */
+	public void addRow(T[] row) throws IOException, IllegalAccessException {
+		int count = 0;
+
+		for (T currentContent : row) {
+			if (!isEmpty(currentContent)) {
+				count++;
+			}
+		}
+
+		@SuppressWarnings("unchecked")
+		T[] cells = (T[]) Array.newInstance(dataType, count);
+		int[] columns = new int[count];
+
+		for (int j = 0, k = 0; j < row.length; j++) {
+			if (!isEmpty(row[j])) {
+				columns[k] = j;
+				cells[k++] = row[j];
+			}
+		}
+
+		addRow(columns, cells);
+	}
+
+	/**
+	 * Adds the next row of the table given by its non-empty cells. If this row
+	 * doesn't contain any cells all sub-tables above it are passed to the handler.
+	 * 
+	 * @param columns
+	 *            The columns of the row's non-empty cells in ascending order
+	 * @param cells
+	 *            The row's non-empty cells. The arrays must not be modified
+	 *            afterwards.
+	 * @throws IOException
+	 * @throws IllegalAccessException
+	 */
+	public void addRow(int[] columns, T[] cells) throws IOException, IllegalAccessException {
+		if (cells.length == 0) {
+			closeBand();
+		} else {
+			bandColumns.add(columns);
+			bandCells.add(cells);
+		}
+	}
+
+	/**
+	 * Adds a run of empty rows. This closes the current band without the need of
+	 * materializing the rows.
+	 * 
+	 * @param count
+	 *            The amount of empty rows
+	 * @throws IOException
+	 * @throws IllegalAccessException
+	 */
+	public void addEmptyRows(int count) throws IOException, IllegalAccessException {
+		if (count > 0) {
+			closeBand();
+		}
+	}
+
+	/**
+	 * Indicates that all rows of the table have been added. All remaining
+	 * sub-tables are passed to the handler. Afterwards this divider can be used
+	 * for the next table.
+	 * 
+	 * @throws IOException
+	 * @throws IllegalAccessException
+	 */
+	public void finish() throws IOException, IllegalAccessException {
+		closeBand();
+	}
+
+	/**
+	 * Divides the current band of rows and passes its sub-tables to the handler
+	 * 
+	 * @throws IOException
+	 * @throws IllegalAccessException
+	 */
+	protected void closeBand() throws IOException, IllegalAccessException {
+		if (bandCells.isEmpty()) {
+			return;
+		}
+
+		T[][] data = collapseBand();
+
+		// release the rows before the sub-tables get processed
+		bandColumns = new ArrayList<>();
+		bandCells = new ArrayList<>();
+
+		RegionTableDivider<T> divider = new RegionTableDivider<T>(new Table<>(dataType, data, layout)) {
+
+			@Override
+			protected boolean isEmpty(Object content) {
+				return StreamingTableDivider.this.isEmpty(content);
+			}
+		};
+
+		for (Table<T> currentTable : divider.divide()) {
+			handler.handle(currentTable);
+		}
+	}
+
+	/**
+	 * Puts the current band into a two-dimensional array in which every run of
+	 * columns that are empty in the whole band is collapsed into a single column.
+	 * Such a column can't be part of any sub-table, so the sub-tables stay the
+	 * same.
+	 */
+	private T[][] collapseBand() {
+		int cellCount = 0;
+
+		for (int[] currentColumns : bandColumns) {
+			cellCount += currentColumns.length;
+		}
+
+		// the sorted distinct columns containing at least one cell
+		int[] occupied = new int[cellCount];
+		int position = 0;
+
+		for (int[] currentColumns : bandColumns) {
+			System.arraycopy(currentColumns, 0, occupied, position, currentColumns.length);
+			position += currentColumns.length;
+		}
+
+		Arrays.sort(occupied);
+
+		int distinct = 0;
+
+		for (int i = 0; i < occupied.length; i++) {
+			if (i == 0 || occupied[i] != occupied[i - 1]) {
+				occupied[distinct++] = occupied[i];
+			}
+		}
+
+		// the collapsed index of every occupied column
+		int[] collapsed = new int[distinct];
+
+		for (int i = 1; i < distinct; i++) {
+			collapsed[i] = collapsed[i - 1] + (occupied[i] == occupied[i - 1] + 1 ? 1 : 2);
+		}
+
+		@SuppressWarnings("unchecked")
+		T[][] data = (T[][]) Array.newInstance(dataType, bandCells.size(), collapsed[distinct - 1] + 1);
+
+		for (int i = 0; i < data.length; i++) {
+			int[] currentColumns = bandColumns.get(i);
+			T[] currentCells = bandCells.get(i);
+
+			for (int k = 0; k < currentColumns.length; k++) {
+				data[i][collapsed[Arrays.binarySearch(occupied, 0, distinct, currentColumns[k])]] = currentCells[k];
+			}
+		}
+
+		return data;
+	}
+}
@@ -0,0 +1,21 @@
+package raven.utilityBox.table;
+
+import raven.utilityBox.enums.ETableLayout;
+import raven.utilityBox.interfaces.ISubTableHandler;
+
+public class StreamingTableNullDivider<T> extends StreamingTableDivider<T> {
+
+	public StreamingTableNullDivider(Class<T> dataType, ISubTableHandler<T> handler) {
+		super(dataType, handler);
+	}
+
+	public StreamingTableNullDivider(Class<T> dataType, ISubTableHandler<T> handler, ETableLayout layout) {
+		super(dataType, handler, layout);
+	}
+
+	@Override
+	protected boolean isEmpty(Object content) {
+		return content == null;
+	}
+
+}
@@ -1,29 +1,55 @@
 package raven.utilityBox.table;
 
+import java.io.CharArrayWriter;
+import java.io.IOException;
+import java.io.StringWriter;
+import java.io.Writer;
 import java.lang.reflect.Array;
+import java.nio.channels.Channels;
+import java.nio.channels.WritableByteChannel;
+import java.nio.charset.Charset;
 import java.util.ArrayList;
 import java.util.Arrays;
 import java.util.Iterator;
 import java.util.List;
 
+import raven.utilityBox.enums.ETableLayout;
+import raven.utilityBox.interfaces.ITableStorage;
+
 public class Table<T> {
 
 	/**
-	 * The amount of columns the untransposed table has
+	 * The maximum amount of columns that are processed together when writing a
+	 * transposed CSV
 	 */
-	private int columns;
+	private static final int TRANSPOSE_TILE_WIDTH = 64;
 	/**
-	 * The amount of rows the untransposed table has
+	 * The amount of cells a tile should roughly contain when writing a transposed
+	 * CSV
 	 */
-	private int rows;
+	private static final int TRANSPOSE_TILE_CELLS = 1 << 16;
 	/**
 	 * Indicates whether this table is currently transposed
 	 */
 	private boolean isTransposed;
 	/**
-	 * The actual table holding the data
+	 * The storage holding the actual data
+	 */
+	private ITableStorage<T> storage;
+	/**
+	 * The layout the data of this table is stored in
+	 */
+	private ETableLayout layout;
+	/**
+	 * Indicates whether there are views referencing the storage of this table in
+	 * which case it must not be modified anymore
+	 */
+	private boolean storageShared;
+	/**
+	 * The index of the non-empty cells in the storage. It is created on demand and
+	 * then kept up-to-date on every modification.
 	 */
-	private T[][] dataTable;
+	private TableOccupancy occupancy;
 	/**
 	 * The datatype used in this table
 	 */
@@ -31,7 +57,12 @@ public class Table<T> {
 
 
 	public Table(Class<T> type) {
+		this(type, ETableLayout.ROW_MAJOR);
+	}
+
+	public Table(Class<T> type, ETableLayout layout) {
 		dataType = type;
+		this.layout = layout;
 	}
 
 	public Table(Class<T> type, T[][] data) {
@@ -39,37 +70,203 @@ public class Table<T> {
 		setData(data);
 	}
 
+	public Table(Class<T> type, T[][] data, ETableLayout layout) {
+		this(type, layout);
+		setData(data);
+	}
+
+	/**
+	 * Creates a new table that is backed by the given storage
+	 * 
+	 * @param type
+	 *            The datatype used in this table
+	 * @param storage
+	 *            The storage holding the table's data
+	 */
+	protected Table(Class<T> type, ITableStorage<T> storage) {
+		this(type, storage.getLayout());
+		this.storage = storage;
+	}
+
 	/**
 	 * Sets the data of this table
 	 * 
 	 * @param data
 	 *            The data to use for this table
 	 */
-	@SuppressWarnings("unchecked")
 	public void setData(T[][] data) {
 		isTransposed = false;
+		storageShared = false;
+		occupancy = null;
 		if (data != null) {
-			rows = data.length;
-			columns = getColumnCount(data);
+			storage = createStorage(data);
+		} else {
+			storage = null;
+		}
+	}
+
+	/**
+	 * Creates a new storage in the layout of this table that contains the given
+	 * data. Every row will be padded to the length of the longest row.
+	 * 
+	 * @param data
+	 *            The data to put into the storage
+	 */
+	protected ITableStorage<T> createStorage(T[][] data) {
+		switch (layout) {
+		case COLUMN_MAJOR:
+			return new ColumnMajorTableStorage<>(dataType, data);
+		case SPARSE:
+			return new SparseTableStorage<>(dataType, data);
+		default:
+			return new RowMajorTableStorage<>(dataType, data);
+		}
+	}
 
-			dataTable = (T[][]) Array.newInstance(dataType, rows, 0);
+	/**
+	 * Gets a copy of the raw data of this table in its untransposed orientation
+	 */
+	@SuppressWarnings("unchecked")
+	protected T[][] getData() {
+		if (storage == null) {
+			return null;
+		}
 
-			// make sure each row contains the respective amount of columns
-			for (int i = 0; i < rows; i++) {
-				dataTable[i] = Arrays.copyOf(data[i], columns);
+		T[][] data = (T[][]) Array.newInstance(dataType, storage.getRowCount(), 0);
+
+		for (int i = 0; i < data.length; i++) {
+			data[i] = Arrays.copyOf(storage.getRow(i), storage.getColumnCount());
+		}
+
+		return data;
+	}
+
+	/**
+	 * Makes sure that the storage of this table can be modified without affecting
+	 * any other table. If the storage is shared with a view (or is a view itself)
+	 * it is replaced by a copy.
+	 */
+	protected void prepareModification() {
+		if (storageShared || storage instanceof TableView) {
+			storage = storage.copy(0, storage.getRowCount() - 1, 0, storage.getColumnCount() - 1, false);
+			storageShared = false;
+		}
+	}
+
+	/**
+	 * Gets the index of the non-empty cells of this table's storage (in its
+	 * untransposed orientation)
+	 */
+	protected TableOccupancy getOccupancy() {
+		if (occupancy == null) {
+			occupancy = new TableOccupancy(storage);
+		}
+
+		return occupancy;
+	}
+
+	/**
+	 * Informs the index of non-empty cells (if it exists) about a modification of
+	 * the given storage cell. This has to be called by every method that writes to
+	 * the storage directly.
+	 * 
+	 * @param storageRow
+	 *            The cell's row in the storage
+	 * @param storageColumn
+	 *            The cell's column in the storage
+	 * @param wasOccupied
+	 *            Whether the cell has been non-empty before the modification
+	 * @param isOccupied
+	 *            Whether the cell is non-empty after the modification
+	 */
+	protected void updateOccupancy(int storageRow, int storageColumn, boolean wasOccupied, boolean isOccupied) {
+		if (occupancy != null) {
+			occupancy.cellChanged(storageRow, storageColumn, wasOccupied, isOccupied);
+		}
+	}
+
+	/**
+	 * Checks whether the row with the given index doesn't contain any non-empty
+	 * cells. Rows out of bounds are considered empty.
+	 * 
+	 * @param index
+	 *            The row's index
+	 * @throws IllegalAccessException
+	 */
+	public boolean isEmptyRow(int index) throws IllegalAccessException {
+		validateTableAccess();
+
+		if (index < 0 || index >= getRowCount()) {
+			return true;
+		}
+
+		return isTransposed() ? getOccupancy().isColumnEmpty(index) : getOccupancy().isRowEmpty(index);
+	}
+
+	/**
+	 * Checks whether the column with the given index doesn't contain any non-empty
+	 * cells. Columns out of bounds are considered empty.
+	 * 
+	 * @param index
+	 *            The column's index
+	 * @throws IllegalAccessException
+	 */
+	public boolean isEmptyColumn(int index) throws IllegalAccessException {
+		validateTableAccess();
+
+		if (index < 0 || index >= getColumnCount()) {
+			return true;
+		}
+
+		return isTransposed() ? getOccupancy().isRowEmpty(index) : getOccupancy().isColumnEmpty(index);
+	}
+
+	/**
+	 * Gets the indices of all rows that don't contain any non-empty cells
+	 * 
+	 * @throws IllegalAccessException
+	 */
+	public List<Integer> getEmptyRows() throws IllegalAccessException {
+		List<Integer> empties = new ArrayList<Integer>();
+
+		for (int i = 0; i < getRowCount(); i++) {
+			if (isEmptyRow(i)) {
+				empties.add(i);
 			}
-		} else {
-			rows = 0;
-			columns = 0;
-			dataTable = null;
 		}
+
+		return empties;
 	}
 
 	/**
-	 * Gets the raw-data-array used by this table
+	 * Gets the indices of all columns that don't contain any non-empty cells
+	 * 
+	 * @throws IllegalAccessException
 	 */
-	protected T[][] getData() {
-		return dataTable;
+	public List<Integer> getEmptyColumns() throws IllegalAccessException {
+		List<Integer> empties = new ArrayList<Integer>();
+
+		for (int i = 0; i < getColumnCount(); i++) {
+			if (isEmptyColumn(i)) {
+				empties.add(i);
+			}
+		}
+
+		return empties;
+	}
+
+	/**
+	 * Gets the storage backing this table
+	 */
+	protected ITableStorage<T> getStorage() {
+		return storage;
+	}
+
+	/**
+	 * Gets the layout the data of this table is stored in
+	 */
+	public ETableLayout getLayout() {
+		return layout;
 	}
 
 	/**
@@ -104,6 +301,18 @@ public class Table<T> {
 		isTransposed = true;
 	}
 
+	/**
+	 * Creates a transposed view of this table. This table itself remains
+	 * unchanged.
+	 * 
+	 * @throws IllegalAccessException
+	 */
+	public Table<T> getTransposed() throws IllegalAccessException {
+		validateTableAccess();
+
+		return createView(0, storage.getRowCount() - 1, 0, storage.getColumnCount() - 1, !isTransposed());
+	}
+
 	/**
 	 * Indicates whether this table is currently transposed
 	 */
@@ -126,9 +335,9 @@ public class Table<T> {
 		validateTableAccess();
 
 		if (isTransposed()) {
-			return dataTable[column][row];
+			return storage.get(column, row);
 		} else {
-			return dataTable[row][column];
+			return storage.get(row, column);
 		}
 	}
 
@@ -140,7 +349,7 @@ public class Table<T> {
 	public int getRowCount() throws IllegalAccessException {
 		validateTableAccess();
 
-		return isTransposed() ? columns : rows;
+		return isTransposed() ? storage.getColumnCount() : storage.getRowCount();
 	}
 
 	/**
@@ -151,65 +360,73 @@ public class Table<T> {
 	public int getColumnCount() throws IllegalAccessException {
 		validateTableAccess();
 
-		return isTransposed() ? rows : columns;
+		return isTransposed() ? storage.getRowCount() : storage.getColumnCount();
 	}
 
 	/**
-	 * Gets the row with the given index
+	 * Gets a copy of the row with the given index
 	 * 
 	 * @param index
 	 *            The index of the row to obtain
 	 * @return The respective row
 	 * @throws IllegalAccessException
 	 */
-	@SuppressWarnings("unchecked")
 	public T[] getRow(int index) throws IllegalAccessException {
+		return getBackingRow(index).clone();
+	}
+
+	/**
+	 * Gets a copy of the column with the given index
+	 * 
+	 * @param index
+	 *            The index of the column to obtain
+	 * @return The respective column
+	 * @throws IllegalAccessException
+	 */
+	public T[] getColumn(int index) throws IllegalAccessException {
+		return getBackingColumn(index).clone();
+	}
+
+	/**
+	 * Gets the row with the given index without copying it. Depending on the
+	 * storage the returned array may be the one backing this table (and any views
+	 * sharing its storage) and must therefore never be modified.
+	 * 
+	 * @param index
+	 *            The index of the row to obtain
+	 * @return The respective row
+	 * @throws IllegalAccessException
+	 */
+	@SuppressWarnings("unchecked")
+	T[] getBackingRow(int index) throws IllegalAccessException {
 		validateTableAccess();
 
 		if (index >= getRowCount()) {
 			return (T[]) Array.newInstance(dataType, getColumnCount());
 		}
 
-		if (isTransposed()) {
-			T[] row = (T[]) Array.newInstance(dataType, getColumnCount());
-
-			for (int i = 0; i < rows; i++) {
-				row[i] = dataTable[i][index];
-			}
-
-			return row;
-		} else {
-			return Arrays.copyOf(dataTable[index], dataTable[index].length);
-		}
+		return isTransposed() ? storage.getColumn(index) : storage.getRow(index);
 	}
 
 	/**
-	 * Gets the column with the given index
+	 * Gets the column with the given index without copying it. Depending on the
+	 * storage the returned array may be the one backing this table (and any views
+	 * sharing its storage) and must therefore never be modified.
 	 * 
 	 * @param index
-	 *            The index of the row to obtain
+	 *            The index of the column to obtain
 	 * @return The respective column
 	 * @throws IllegalAccessException
 	 */
 	@SuppressWarnings("unchecked")
-	public T[] getColumn(int index) throws IllegalAccessException {
+	T[] getBackingColumn(int index) throws IllegalAccessException {
 		validateTableAccess();
 
 		if (index >= getColumnCount()) {
 			return (T[]) Array.newInstance(dataType, getRowCount());
 		}
 
-		T[] column = (T[]) Array.newInstance(dataType, getRowCount());
-
-		for (int i = 0; i < getRowCount(); i++) {
-			if (isTransposed()) {
-				column[i] = dataTable[index][i];
-			} else {
-				column[i] = dataTable[i][index];
-			}
-		}
-
-		return column;
+		return isTransposed() ? storage.getRow(index) : storage.getColumn(index);
 	}
 
 	/**
@@ -220,33 +437,7 @@ public class Table<T> {
 	public Iterator<T[]> getRowIterator() throws IllegalAccessException {
 		validateTableAccess();
 
-		return new Iterator<T[]>() {
-			int currentRow;
-
-			@Override
-			public boolean hasNext() {
-				try {
-					return currentRow < getRowCount();
-				} catch (IllegalAccessException e) {
-					e.printStackTrace();
-				}
-
-				return false;
-			}
-
-			@Override
-			public T[] next() {
-				currentRow++;
-
-				try {
-					return getRow(currentRow - 1);
-				} catch (IllegalAccessException e) {
-					e.printStackTrace();
-				}
-
-				return null;
-			}
-		};
+		return new LaneIterator(true, true);
 	}
 
 	/**
@@ -257,33 +448,31 @@ public class Table<T> {
 	public Iterator<T[]> getColumnIterator() throws IllegalAccessException {
 		validateTableAccess();
 
-		return new Iterator<T[]>() {
-			int currentColumn;
-
-			@Override
-			public boolean hasNext() {
-				try {
-					return currentColumn < getColumnCount();
-				} catch (IllegalAccessException e) {
-					e.printStackTrace();
-				}
+		return new LaneIterator(false, true);
+	}
 
-				return false;
-			}
+	/**
+	 * Gets an iterator for iterating over the rows of this table without copying
+	 * them (see {@link #getBackingRow(int)})
+	 * 
+	 * @throws IllegalAccessException
+	 */
+	Iterator<T[]> getBackingRowIterator() throws IllegalAccessException {
+		validateTableAccess();
 
-			@Override
-			public T[] next() {
-				currentColumn++;
+		return new LaneIterator(true, false);
+	}
 
-				try {
-					return getColumn(currentColumn - 1);
-				} catch (IllegalAccessException e) {
-					e.printStackTrace();
-				}
+	/**
+	 * Gets an iterator for iterating over the columns of this table without
+	 * copying them (see {@link #getBackingColumn(int)})
+	 * 
+	 * @throws IllegalAccessException
+	 */
+	Iterator<T[]> getBackingColumnIterator() throws IllegalAccessException {
+		validateTableAccess();
 
-				return null;
-			}
-		};
+		return new LaneIterator(false, false);
 	}
 
 	/**
@@ -297,9 +486,9 @@ public class Table<T> {
 
 		List<T> elements = new ArrayList<T>();
 
-		for (int i = 0; i < rows; i++) {
-			for (int j = 0; j < columns; i++) {
-				elements.add(dataTable[i][j]);
+		for (int i = 0; i < storage.getRowCount(); i++) {
+			for (int j = 0; j < storage.getColumnCount(); j++) {
+				elements.add(storage.get(i, j));
 			}
 		}
 
@@ -333,7 +522,7 @@ public class Table<T> {
 	 * Checks whether this table is valid
 	 */
 	public boolean isValid() {
-		return dataTable == null || rows == 0 && columns == 0;
+		return storage == null || storage.getRowCount() == 0 && storage.getColumnCount() == 0;
 	}
 
 	/**
@@ -344,19 +533,7 @@ public class Table<T> {
 	public boolean isEmpty() throws IllegalAccessException {
 		validateTableAccess();
 
-		Iterator<T[]> it = (isTransposed() ? getColumnIterator() : getRowIterator());
-
-		while (it.hasNext()) {
-			T[] current = it.next();
-
-			for (T currentElement : current) {
-				if (currentElement != null) {
-					return false;
-				}
-			}
-		}
-
-		return true;
+		return getOccupancy().getOccupiedCount() == 0;
 	}
 
 	/**
@@ -367,7 +544,8 @@ public class Table<T> {
 	}
 
 	/**
-	 * Copies the specified sub-table
+	 * Copies the specified sub-table. The copy is a view onto the data of this
+	 * table so no cells are copied until either of the tables is being modified.
 	 * 
 	 * @param rowStart
 	 *            The index of the first row that should be copied
@@ -380,28 +558,58 @@ public class Table<T> {
 	 * @return The respective sub-table
 	 * @throws IllegalAccessException
 	 */
-	@SuppressWarnings("unchecked")
 	public Table<T> copy(int rowStart, int rowEnd, int columnStart, int columnEnd) throws IllegalAccessException {
 		validateTableAccess();
 
 		if (rowEnd < rowStart || columnEnd < columnStart) {
-			return new Table<T>(dataType);
+			return createTable(null);
 		}
 		if (rowStart < 0 || rowEnd < 0 || columnStart < 0 || columnEnd < 0) {
 			throw new IllegalArgumentException("Only positive indices allowed!");
 		}
 
-		T[][] copyData = (T[][]) Array.newInstance(dataType, rowEnd - rowStart + 1, 0);
+		if (isTransposed()) {
+			return createView(columnStart, columnEnd, rowStart, rowEnd, true);
+		} else {
+			return createView(rowStart, rowEnd, columnStart, columnEnd, false);
+		}
+	}
 
-		for (int i = rowStart; i <= rowEnd; i++) {
-			if (columnStart < getColumnCount()) {
-				copyData[i - rowStart] = Arrays.copyOfRange(getRow(i), columnStart, columnEnd + 1);
-			} else {
-				copyData[i - rowStart] = (T[]) Array.newInstance(dataType, columnEnd - columnStart + 1);
-			}
+	/**
+	 * Creates a new table that views the specified range of this table's storage
+	 * 
+	 * @param rowStart
+	 *            The index of the first storage row
+	 * @param rowEnd
+	 *            The index of the last storage row
+	 * @param columnStart
+	 *            The index of the first storage column
+	 * @param columnEnd
+	 *            The index of the last storage column
+	 * @param transpose
+	 *            Whether the view should be transposed
+	 */
+	private Table<T> createView(int rowStart, int rowEnd, int columnStart, int columnEnd, boolean transpose) {
+		storageShared = true;
+
+		return createTable(TableView.create(dataType, storage, rowStart, rowEnd, columnStart, columnEnd, transpose));
+	}
+
+	/**
+	 * Creates a new table of the same kind as this one. This is used for all
+	 * copies and views of this table so that subclasses can keep their own type
+	 * across these operations.
+	 * 
+	 * @param storage
+	 *            The storage backing the new table or <code>null</code> if the new
+	 *            table should be empty
+	 */
+	protected Table<T> createTable(ITableStorage<T> storage) {
+		if (storage == null) {
+			return new Table<T>(dataType, layout);
 		}
 
-		return new Table<>(dataType, copyData);
+		return new Table<>(dataType, storage);
 	}
 
 	/**
@@ -453,28 +661,243 @@ public class Table<T> {
 	 * @throws IllegalAccessException
 	 */
 	public String toCSV(String separator, String replacement, String emptyReplacement) throws IllegalAccessException {
+		StringWriter writer = new StringWriter();
+
+		try {
+			writeCSV(writer, separator, replacement, emptyReplacement);
+		} catch (IOException e) {
+			// a StringWriter doesn't throw IOExceptions
+			throw new IllegalStateException(e);
+		}
+
+		return writer.toString();
+	}
+
+	/**
+	 * Writes this table as a CSV into the given writer. Every row is terminated by
+	 * a newline. Occurrences of the separator inside a cell are replaced by the
+	 * given replacement and newlines inside a cell are replaced by a blank. No
+	 * copy of the whole CSV is created.
+	 * 
+	 * @param out
+	 *            The writer to write to. It won't be flushed or closed.
+	 * @param separator
+	 *            The separator-character to be used
+	 * @param replacement
+	 *            The replacement for the separator in the cell-content
+	 * @param emptyReplacement
+	 *            The replacement for empty cells
+	 * @throws IOException
+	 * @throws IllegalAccessException
+	 */
+	public void writeCSV(Writer out, String separator, String replacement, String emptyReplacement)
+			throws IOException, IllegalAccessException {
+		writeCSV(out, new CSVCellEncoder(separator, replacement, emptyReplacement, false));
+	}
+
+	/**
+	 * Writes this table as a CSV into the given writer using the given encoder.
+	 * Every row is terminated by a newline.
+	 * 
+	 * @param out
+	 *            The writer to write to. It won't be flushed or closed.
+	 * @param encoder
+	 *            The encoder to use for the cells
+	 * @throws IOException
+	 * @throws IllegalAccessException
+	 */
+	public void writeCSV(Writer out, CSVCellEncoder encoder) throws IOException, IllegalAccessException {
 		validateTableAccess();
 
-		StringBuilder builder = new StringBuilder();
+		encoder.begin(out);
 
-		Iterator<T[]> it = getRowIterator();
+		int rows = getRowCount();
 
-		while (it.hasNext()) {
-			T[] row = it.next();
+		for (int i = 0; i < rows; i++) {
+			T[] row = getBackingRow(i);
+
+			for (int j = 0; j < row.length; j++) {
+				if (j > 0) {
+					encoder.writeSeparator();
+				}
+
+				encoder.writeCell(row[j]);
+			}
+
+			encoder.endRow();
+		}
+
+		encoder.end();
+	}
+
+	/**
+	 * Writes the transposed version of this table as a CSV into the given writer
+	 * without modifying this table (so that it can be written concurrently in both
+	 * orientations). The result is the same as {@link #getTransposed()} written via
+	 * {@link #writeCSV(Writer, CSVCellEncoder)}.<br>
+	 * If the columns of this table are stored contiguously they are simply written
+	 * one after another. Otherwise the table is traversed row by row in tiles of
+	 * columns: every column of a tile is encoded into its own line buffer, which is
+	 * written out once all rows have been visited. This avoids walking every column
+	 * with a stride of a whole row while the memory needed stays limited to the
+	 * lines of a single tile. A sparse storage is neither walked by rows nor by
+	 * columns: its non-empty cells are sorted by column once and every line is
+	 * written straight from them.
+	 * 
+	 * @param out
+	 *            The writer to write to. It won't be flushed or closed.
+	 * @param encoder
+	 *            The encoder to use for the cells
+	 * @throws IOException
+	 * @throws IllegalAccessException
+	 */
+	public void writeTransposedCSV(Writer out, CSVCellEncoder encoder) throws IOException, IllegalAccessException {
+		validateTableAccess();
+
+		int rows = getRowCount();
+		int columns = getColumnCount();
+
+		if (storage instanceof SparseTableStorage && !isTransposed()) {
+			writeSparseColumnsCSV(out, encoder, (SparseTableStorage<T>) storage);
+
+			return;
+		}
+
+		// the rows of this table are contiguous unless the storage keeps columns together
+		boolean contiguousRows = (storage.getLayout() == ETableLayout.COLUMN_MAJOR) == isTransposed();
+
+		if (!contiguousRows) {
+			encoder.begin(out);
+
+			for (int j = 0; j < columns; j++) {
+				T[] column = getBackingColumn(j);
 
-			for (T currentContent : row) {
-				builder.append((currentContent == null ? emptyReplacement : currentContent.toString().replace(separator, replacement).replace("\n", " "))
-						+ separator);
+				for (int i = 0; i < column.length; i++) {
+					if (i > 0) {
+						encoder.writeSeparator();
+					}
+
+					encoder.writeCell(column[i]);
+				}
+
+				encoder.endRow();
 			}
-			if (row.length > 0) {
-				// remove last tab
-				builder.deleteCharAt(builder.length() - separator.length());
+
+			encoder.end();
+
+			return;
+		}
+
+		int tileWidth = Math.max(1, Math.min(TRANSPOSE_TILE_WIDTH, TRANSPOSE_TILE_CELLS / Math.max(1, rows)));
+
+		// every line ends with a newline which resets the encoder's state, so the lines
+		// can be encoded independently of each other
+		CSVCellEncoder[] lineEncoders = new CSVCellEncoder[tileWidth];
+		CharArrayWriter[] lines = new CharArrayWriter[tileWidth];
+
+		for (int k = 0; k < tileWidth; k++) {
+			lineEncoders[k] = encoder.copy();
+			lines[k] = new CharArrayWriter();
+		}
+
+		for (int tileStart = 0; tileStart < columns; tileStart += tileWidth) {
+			int tileEnd = Math.min(columns, tileStart + tileWidth);
+
+			for (int j = tileStart; j < tileEnd; j++) {
+				lines[j - tileStart].reset();
+				lineEncoders[j - tileStart].begin(lines[j - tileStart]);
+			}
+
+			for (int i = 0; i < rows; i++) {
+				T[] row = getBackingRow(i);
+
+				for (int j = tileStart; j < tileEnd; j++) {
+					if (i > 0) {
+						lineEncoders[j - tileStart].writeSeparator();
+					}
+
+					lineEncoders[j - tileStart].writeCell(row[j]);
+				}
 			}
 
-			builder.append("\n");
+			for (int j = tileStart; j < tileEnd; j++) {
+				lineEncoders[j - tileStart].endRow();
+				lineEncoders[j - tileStart].end();
+
+				lines[j - tileStart].writeTo(out);
+			}
 		}
+	}
 
-		return builder.toString();
+	/**
+	 * Writes the columns of the given sparse storage as the lines of a CSV. Only
+	 * the non-empty cells are visited, no row or column is materialized.
+	 * 
+	 * @param out
+	 *            The writer to write to. It won't be flushed or closed.
+	 * @param encoder
+	 *            The encoder to use for the cells
+	 * @param sparse
+	 *            The storage to write
+	 * @throws IOException
+	 */
+	private static void writeSparseColumnsCSV(Writer out, CSVCellEncoder encoder, SparseTableStorage<?> sparse)
+			throws IOException {
+		int rows = sparse.getRowCount();
+		int columns = sparse.getColumnCount();
+
+		int[] cellRows = new int[sparse.getOccupiedCellCount()];
+		Object[] cellValues = new Object[cellRows.length];
+		int[] offsets = sparse.collectByColumn(cellRows, cellValues);
+
+		encoder.begin(out);
+
+		for (int j = 0; j < columns; j++) {
+			int nextCell = offsets[j];
+
+			for (int i = 0; i < rows; i++) {
+				if (i > 0) {
+					encoder.writeSeparator();
+				}
+
+				if (nextCell < offsets[j + 1] && cellRows[nextCell] == i) {
+					encoder.writeCell(cellValues[nextCell++]);
+				} else {
+					encoder.writeCell(null);
+				}
+			}
+
+			encoder.endRow();
+		}
+
+		encoder.end();
+	}
+
+	/**
+	 * Writes this table as a CSV into the given channel.
+	 * 
+	 * @param channel
+	 *            The channel to write to. It won't be closed.
+	 * @param charset
+	 *            The charset to encode the CSV with
+	 * @param separator
+	 *            The separator-character to be used
+	 * @param replacement
+	 *            The replacement for the separator in the cell-content
+	 * @param emptyReplacement
+	 *            The replacement for empty cells
+	 * @throws IOException
+	 * @throws IllegalAccessException
+	 * @see #writeCSV(Writer, String, String, String)
+	 */
+	public void writeCSV(WritableByteChannel channel, Charset charset, String separator, String replacement,
+			String emptyReplacement) throws IOException, IllegalAccessException {
+		Writer out = Channels.newWriter(channel, charset.newEncoder(), -1);
+
+		writeCSV(out, separator, replacement, emptyReplacement);
+
+		// don't close the writer as that would close the channel as well
+		out.flush();
 	}
 
 	/**
@@ -530,11 +953,14 @@ public class Table<T> {
 		validateTableAccess();
 
 		if (row < getRowCount() && column < getColumnCount()) {
-			if (isTransposed()) {
-				dataTable[column][row] = data;
-			} else {
-				dataTable[row][column] = data;
-			}
+			prepareModification();
+
+			int storageRow = isTransposed() ? column : row;
+			int storageColumn = isTransposed() ? row : column;
+
+			updateOccupancy(storageRow, storageColumn, storage.get(storageRow, storageColumn) != null, data != null);
+
+			storage.set(storageRow, storageColumn, data);
 		}
 	}
 
@@ -545,7 +971,6 @@ public class Table<T> {
 	 *            The index of the column to delete
 	 * @throws IllegalAccessException
 	 */
-	@SuppressWarnings("unchecked")
 	public void deleteColumn(int index) throws IllegalAccessException {
 		validateTableAccess();
 
@@ -553,103 +978,165 @@ public class Table<T> {
 			return;
 		}
 
-		int firstStart = 0;
-		int firstEnd = index - 1;
-		int secondStart = index + 1;
-		int secondEnd = getColumnCount() - 1;
+		resetOrientation();
 
-		Table<T> firstPart = copy(0, getRowCount() - 1, firstStart, firstEnd);
-		Table<T> secondPart = copy(0, getRowCount() - 1, secondStart, secondEnd);
+		if (!(storage instanceof TableView) || !((TableView<T>) storage).canDeleteColumn(index)) {
+			prepareModification();
+		}
 
-		if (firstPart.isValid()) {
-			setData(secondPart.getData());
-			return;
+		if (occupancy != null) {
+			occupancy.removeColumn(storage, index);
 		}
 
-		if (secondPart.isValid()) {
-			setData(firstPart.getData());
+		storage.deleteColumn(index);
+
+		discardEmptyStorage();
+	}
+
+	/**
+	 * Deletes the specified row
+	 * 
+	 * @param index
+	 *            The index of the row to delete
+	 * @throws IllegalAccessException
+	 */
+	public void deleteRow(int index) throws IllegalAccessException {
+		validateTableAccess();
+
+		if (index < 0 || index >= getRowCount()) {
 			return;
 		}
 
-		// merge data
-		T[][] firstData = firstPart.getData();
-		T[][] secondData = secondPart.getData();
+		resetOrientation();
 
-		T[][] mergeData = (T[][]) Array.newInstance(getDataType(), getRowCount(), 0);
+		if (!(storage instanceof TableView) || !((TableView<T>) storage).canDeleteRow(index)) {
+			prepareModification();
+		}
 
-		for (int i = 0; i < getRowCount(); i++) {
-			int currentCol = 0;
+		if (occupancy != null) {
+			occupancy.removeRow(storage, index);
+		}
 
-			mergeData[i] = (T[]) Array.newInstance(getDataType(), getColumnCount() - 1);
+		storage.deleteRow(index);
 
-			for (T currentData : firstData[i]) {
-				mergeData[i][currentCol] = currentData;
+		discardEmptyStorage();
+	}
 
-				currentCol++;
-			}
-			for (T currentData : secondData[i]) {
-				mergeData[i][currentCol] = currentData;
+	/**
+	 * Deletes the rows with the given indices. The index of non-empty cells is
+	 * updated once for all of them instead of once per row.
+	 * 
+	 * @param indices
+	 *            The indices of the rows to delete in ascending order
+	 * @throws IllegalAccessException
+	 */
+	public void deleteRows(List<Integer> indices) throws IllegalAccessException {
+		validateTableAccess();
 
-				currentCol++;
-			}
+		if (indices.isEmpty()) {
+			return;
 		}
 
-		setData(mergeData);
+		resetOrientation();
+
+		TableOccupancy index = detachOccupancy(indices, true);
+
+		for (int i = 0; i < indices.size(); i++) {
+			deleteRow(indices.get(i) - i);
+		}
+
+		if (storage != null) {
+			occupancy = index;
+		}
 	}
 
 	/**
-	 * Deletes the specified row
+	 * Deletes the columns with the given indices. The index of non-empty cells is
+	 * updated once for all of them instead of once per column.
 	 * 
-	 * @param index
-	 *            The index of the row to delete
+	 * @param indices
+	 *            The indices of the columns to delete in ascending order
 	 * @throws IllegalAccessException
 	 */
-	@SuppressWarnings("unchecked")
-	public void deleteRow(int index) throws IllegalAccessException {
+	public void deleteColumns(List<Integer> indices) throws IllegalAccessException {
 		validateTableAccess();
 
-		if (index < 0 || index >= getRowCount()) {
+		if (indices.isEmpty()) {
 			return;
 		}
 
-		int firstStart = 0;
-		int firstEnd = index - 1;
-		int secondStart = index + 1;
-		int secondEnd = getRowCount() - 1;
+		resetOrientation();
 
-		Table<T> firstPart = copy(firstStart, firstEnd, 0, getColumnCount() - 1);
-		Table<T> secondPart = copy(secondStart, secondEnd, 0, getColumnCount() - 1);
+		TableOccupancy index = detachOccupancy(indices, false);
 
-		if (firstPart.isValid()) {
-			setData(secondPart.getData());
-			return;
+		for (int i = 0; i < indices.size(); i++) {
+			deleteColumn(indices.get(i) - i);
 		}
 
-		if (secondPart.isValid()) {
-			setData(firstPart.getData());
-			return;
+		if (storage != null) {
+			occupancy = index;
 		}
+	}
 
-		// merge data
-		T[][] firstData = firstPart.getData();
-		T[][] secondData = secondPart.getData();
+	/**
+	 * Removes the given storage rows or columns from the index of non-empty cells
+	 * and detaches the index from this table so that the following single
+	 * deletions don't update it again. If the deletions fail the index stays
+	 * detached and is rebuilt on demand.
+	 * 
+	 * @param indices
+	 *            The sorted indices of the rows/columns about to be deleted
+	 * @param storageRows
+	 *            Whether the indices refer to rows of the storage
+	 * @return The updated index (may be <code>null</code>)
+	 */
+	private TableOccupancy detachOccupancy(List<Integer> indices, boolean storageRows) {
+		TableOccupancy index = occupancy;
 
-		T[][] mergeData = (T[][]) Array.newInstance(getDataType(), getRowCount() - 1, 0);
+		if (index != null) {
+			if (storageRows) {
+				index.removeRows(storage, indices);
+			} else {
+				index.removeColumns(storage, indices);
+			}
+		}
 
-		int currentRow = 0;
+		occupancy = null;
 
-		for (T[] currentData : firstData) {
-			mergeData[currentRow] = currentData;
+		return index;
+	}
 
-			currentRow++;
+	/**
+	 * Makes sure this table isn't transposed anymore without changing its content.
+	 * A transposed table is backed by a transposed view of its storage afterwards
+	 * (which doesn't copy any cells). Deleting rows or columns always leaves a
+	 * table untransposed so that a following {@link #transpose()} transposes its
+	 * current content.
+	 */
+	private void resetOrientation() {
+		if (!isTransposed()) {
+			return;
 		}
-		for (T[] currentData : secondData) {
-			mergeData[currentRow] = currentData;
 
-			currentRow++;
+		storage = TableView.create(dataType, storage, 0, storage.getRowCount() - 1, 0, storage.getColumnCount() - 1,
+				true);
+		storageShared = false;
+		isTransposed = false;
+
+		if (occupancy != null) {
+			occupancy.transpose();
 		}
+	}
 
-		setData(mergeData);
+	/**
+	 * Drops the storage of this table if the last row or column has been deleted
+	 * from it
+	 */
+	private void discardEmptyStorage() {
+		if (storage.getRowCount() == 0 || storage.getColumnCount() == 0) {
+			storage = null;
+			occupancy = null;
+		}
 	}
 
 	/**
@@ -670,43 +1157,9 @@ public class Table<T> {
 		try {
 			validateTableAccess();
 
-			List<Integer> removeIndices = new ArrayList<Integer>();
-
-			outerLoop: for (int i = 0; i < getRowCount(); i++) {
-				T[] currentRow = getRow(i);
-
-				for (T currentCell : currentRow) {
-					if (currentCell != null) {
-						continue outerLoop;
-					}
-				}
-
-				removeIndices.add(i);
-			}
-
-			// delete the respective rows
-			for (int i = 0; i < removeIndices.size(); i++) {
-				deleteRow(removeIndices.get(i) - i);
-			}
-
-			removeIndices.clear();
+			deleteRows(getEmptyRows());
 
-			outerLoop: for (int i = 0; i < getColumnCount(); i++) {
-				T[] currentColumn = getColumn(i);
-
-				for (T currentCell : currentColumn) {
-					if (currentCell != null) {
-						continue outerLoop;
-					}
-				}
-
-				removeIndices.add(i);
-			}
-
-			// delete the respective rows
-			for (int i = 0; i < removeIndices.size(); i++) {
-				deleteColumn(removeIndices.get(i) - i);
-			}
+			deleteColumns(getEmptyColumns());
 		} catch (IllegalAccessException e) {
 			e.printStackTrace();
 		}
@@ -721,4 +1174,57 @@ public class Table<T> {
 
 		System.out.println(originalTable.toCSV());
 	}
+
+
+	/**
+	 * An iterator over the rows or columns of this table
+	 */
+	private class LaneIterator implements Iterator<T[]> {
+		/**
+		 * Whether the rows are iterated instead of the columns
+		 */
+		private final boolean rows;
+		/**
+		 * Whether every row/column should be copied
+		 */
+		private final boolean copy;
+		/**
+		 * The index of the next row/column
+		 */
+		private int current;
+
+
+		public LaneIterator(boolean rows, boolean copy) {
+			this.rows = rows;
+			this.copy = copy;
+		}
+
+		@Override
+		public boolean hasNext() {
+			try {
+				return current < (rows ? getRowCount() : getColumnCount());
+			} catch (IllegalAccessException e) {
+				e.printStackTrace();
+			}
+
+			return false;
+		}
+
+		@Override
+		public T[] next() {
+			current++;
+
+			try {
+				if (rows) {
+					return copy ? getRow(current - 1) : getBackingRow(current - 1);
+				} else {
+					return copy ? getColumn(current - 1) : getBackingColumn(current - 1);
+				}
+			} catch (IllegalAccessException e) {
+				e.printStackTrace();
+			}
+
+			return null;
+		}
+	}
 }
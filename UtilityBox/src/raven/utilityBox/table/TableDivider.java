@@ -16,6 +16,13 @@ public abstract class TableDivider<T> {
 	}
 
 
+	/**
+	 * Gets the table this divider is working on
+	 */
+	protected Table<T> getTable() {
+		return mainTable;
+	}
+
 	/**
 	 * Checks whether a cell with the given content is considered as an empty cell
 	 * 
@@ -48,8 +55,8 @@ public abstract class TableDivider<T> {
 
 		List<Table<T>> subTables = new ArrayList<Table<T>>();
 
-		List<Integer> emptyColumns = getEmpties(table.getColumnIterator());
-		List<Integer> emptyRows = getEmpties(table.getRowIterator());
+		List<Integer> emptyColumns = getEmptyColumns(table);
+		List<Integer> emptyRows = getEmptyRows(table);
 
 		// split at empty columns first
 		List<Table<T>> firstCut = new ArrayList<>();
@@ -95,8 +102,8 @@ public abstract class TableDivider<T> {
 			if (currentTable.isValid()) {
 				it.remove();
 			} else {
-				emptyColumns = getEmpties(currentTable.getColumnIterator());
-				emptyRows = getEmpties(currentTable.getRowIterator());
+				emptyColumns = getEmptyColumns(currentTable);
+				emptyRows = getEmptyRows(currentTable);
 
 				if (emptyColumns.size() > 0 || emptyRows.size() > 0) {
 					// table can be divided further
@@ -111,6 +118,30 @@ public abstract class TableDivider<T> {
 		return subTables;
 	}
 
+	/**
+	 * Gets the indices of the empty columns of the given table
+	 * 
+	 * @param table
+	 *            The table to check
+	 * @return A list of indices of the empty columns
+	 * @throws IllegalAccessException
+	 */
+	protected List<Integer> getEmptyColumns(Table<T> table) throws IllegalAccessException {
+		return getEmpties(table.getBackingColumnIterator());
+	}
+
+	/**
+	 * Gets the indices of the empty rows of the given table
+	 * 
+	 * @param table
+	 *            The table to check
+	 * @return A list of indices of the empty rows
+	 * @throws IllegalAccessException
+	 */
+	protected List<Integer> getEmptyRows(Table<T> table) throws IllegalAccessException {
+		return getEmpties(table.getBackingRowIterator());
+	}
+
 	/**
 	 * Gets the indices of the empty data sets within the iterated data set
 	 * 
@@ -1,5 +1,7 @@
 package raven.utilityBox.table;
 
+import java.util.List;
+
 public class TableNullDivider<T> extends TableDivider<T> {
 
 	public TableNullDivider(Table<T> table) {
@@ -11,4 +13,15 @@ public class TableNullDivider<T> extends TableDivider<T> {
 		return content == null;
 	}
 
+	@Override
+	protected List<Integer> getEmptyColumns(Table<T> table) throws IllegalAccessException {
+		// the table keeps track of its null-cells itself
+		return table.getEmptyColumns();
+	}
+
+	@Override
+	protected List<Integer> getEmptyRows(Table<T> table) throws IllegalAccessException {
+		return table.getEmptyRows();
+	}
+
 }
@@ -0,0 +1,225 @@
+package raven.utilityBox.table;
+
+import java.util.Collections;
+import java.util.List;
+
+import raven.utilityBox.interfaces.ITableStorage;
+
+/**
+ * An index keeping track of the amount of non-empty (non-<code>null</code>)
+ * cells in every row and column of a table storage. It has to be informed
+ * about every modification of the storage so that checking a row or column for
+ * emptiness never requires a scan of its cells.
+ */
+public class TableOccupancy {
+
+	/**
+	 * The amount of non-empty cells per row
+	 */
+	protected int[] rowCounts;
+	/**
+	 * The amount of non-empty cells per column
+	 */
+	protected int[] columnCounts;
+	/**
+	 * The total amount of non-empty cells
+	 */
+	protected int occupiedCells;
+
+
+	/**
+	 * Creates the index for the given storage by scanning it once. Of a
+	 * {@link SparseTableStorage} only the non-empty cells are visited.
+	 * 
+	 * @param storage
+	 *            The storage to index
+	 */
+	public TableOccupancy(ITableStorage<?> storage) {
+		rowCounts = new int[storage.getRowCount()];
+		columnCounts = new int[storage.getColumnCount()];
+
+		if (storage instanceof SparseTableStorage) {
+			SparseTableStorage<?> sparse = (SparseTableStorage<?>) storage;
+
+			sparse.countOccupiedCells(rowCounts, columnCounts);
+			occupiedCells = sparse.getOccupiedCellCount();
+
+			return;
+		}
+
+		for (int i = 0; i < rowCounts.length; i++) {
+			Object[] row = storage.getRow(i);
+
+			for (int j = 0; j < columnCounts.length; j++) {
+				if (row[j] != null) {
+					rowCounts[i]++;
+					columnCounts[j]++;
+				}
+			}
+
+			occupiedCells += rowCounts[i];
+		}
+	}
+
+	/**
+	 * Checks whether the given row doesn't contain any non-empty cells
+	 */
+	public boolean isRowEmpty(int row) {
+		return rowCounts[row] == 0;
+	}
+
+	/**
+	 * Checks whether the given column doesn't contain any non-empty cells
+	 */
+	public boolean isColumnEmpty(int column) {
+		return columnCounts[column] == 0;
+	}
+
+	/**
+	 * Gets the amount of non-empty cells in the given row
+	 */
+	public int getOccupiedCount(int row) {
+		return rowCounts[row];
+	}
+
+	/**
+	 * Gets the total amount of non-empty cells
+	 */
+	public int getOccupiedCount() {
+		return occupiedCells;
+	}
+
+	/**
+	 * Updates the index after the content of a cell has been changed
+	 * 
+	 * @param row
+	 *            The cell's row
+	 * @param column
+	 *            The cell's column
+	 * @param wasOccupied
+	 *            Whether the cell has been non-empty before the change
+	 * @param isOccupied
+	 *            Whether the cell is non-empty after the change
+	 */
+	public void cellChanged(int row, int column, boolean wasOccupied, boolean isOccupied) {
+		if (wasOccupied == isOccupied) {
+			return;
+		}
+
+		int delta = isOccupied ? 1 : -1;
+
+		rowCounts[row] += delta;
+		columnCounts[column] += delta;
+		occupiedCells += delta;
+	}
+
+	/**
+	 * Updates the index after the indexed storage has been replaced by its
+	 * transposed version
+	 */
+	public void transpose() {
+		int[] counts = rowCounts;
+
+		rowCounts = columnCounts;
+		columnCounts = counts;
+	}
+
+	/**
+	 * Updates the index before the given row is removed from the storage
+	 * 
+	 * @param storage
+	 *            The indexed storage (still containing the row)
+	 * @param index
+	 *            The index of the row that is about to be removed
+	 */
+	public void removeRow(ITableStorage<?> storage, int index) {
+		removeRows(storage, Collections.singletonList(index));
+	}
+
+	/**
+	 * Updates the index before the given rows are removed from the storage. The
+	 * counts are compacted only once for all of them.
+	 * 
+	 * @param storage
+	 *            The indexed storage (still containing the rows)
+	 * @param indices
+	 *            The sorted indices of the rows that are about to be removed
+	 */
+	public void removeRows(ITableStorage<?> storage, List<Integer> indices) {
+		for (int index : indices) {
+			if (rowCounts[index] > 0) {
+				Object[] row = storage.getRow(index);
+
+				for (int j = 0; j < columnCounts.length; j++) {
+					if (row[j] != null) {
+						columnCounts[j]--;
+					}
+				}
+
+				occupiedCells -= rowCounts[index];
+			}
+		}
+
+		rowCounts = remove(rowCounts, indices);
+	}
+
+	/**
+	 * Updates the index before the given column is removed from the storage
+	 * 
+	 * @param storage
+	 *            The indexed storage (still containing the column)
+	 * @param index
+	 *            The index of the column that is about to be removed
+	 */
+	public void removeColumn(ITableStorage<?> storage, int index) {
+		removeColumns(storage, Collections.singletonList(index));
+	}
+
+	/**
+	 * Updates the index before the given columns are removed from the storage. The
+	 * counts are compacted only once for all of them.
+	 * 
+	 * @param storage
+	 *            The indexed storage (still containing the columns)
+	 * @param indices
+	 *            The sorted indices of the columns that are about to be removed
+	 */
+	public void removeColumns(ITableStorage<?> storage, List<Integer> indices) {
+		for (int index : indices) {
+			if (columnCounts[index] > 0) {
+				Object[] column = storage.getColumn(index);
+
+				for (int i = 0; i < rowCounts.length; i++) {
+					if (column[i] != null) {
+						rowCounts[i]--;
+					}
+				}
+
+				occupiedCells -= columnCounts[index];
+			}
+		}
+
+		columnCounts = remove(columnCounts, indices);
+	}
+
+	/**
+	 * Creates a copy of the given array without the elements at the given
+	 * (sorted) indices
+	 */
+	private static int[] remove(int[] array, List<Integer> indices) {
+		int[] result = new int[array.length - indices.size()];
+		int sourceStart = 0;
+		int targetStart = 0;
+
+		for (int index : indices) {
+			System.arraycopy(array, sourceStart, result, targetStart, index - sourceStart);
+
+			targetStart += index - sourceStart;
+			sourceStart = index + 1;
+		}
+
+		System.arraycopy(array, sourceStart, result, targetStart, array.length - sourceStart);
+
+		return result;
+	}
+}
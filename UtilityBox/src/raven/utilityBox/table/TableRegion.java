@@ -0,0 +1,91 @@
+package raven.utilityBox.table;
+
+/**
+ * A rectangular range of cells within a table. All bounds are inclusive.
+ */
+public class TableRegion {
+
+	/**
+	 * The index of the region's first row
+	 */
+	protected final int rowStart;
+	/**
+	 * The index of the region's last row
+	 */
+	protected final int rowEnd;
+	/**
+	 * The index of the region's first column
+	 */
+	protected final int columnStart;
+	/**
+	 * The index of the region's last column
+	 */
+	protected final int columnEnd;
+
+
+	public TableRegion(int rowStart, int rowEnd, int columnStart, int columnEnd) {
+		this.rowStart = rowStart;
+		this.rowEnd = rowEnd;
+		this.columnStart = columnStart;
+		this.columnEnd = columnEnd;
+	}
+
+	/**
+	 * Gets the index of the region's first row
+	 */
+	public int getRowStart() {
+		return rowStart;
+	}
+
+	/**
+	 * Gets the index of the region's last row
+	 */
+	public int getRowEnd() {
+		return rowEnd;
+	}
+
+	/**
+	 * Gets the index of the region's first column
+	 */
+	public int getColumnStart() {
+		return columnStart;
+	}
+
+	/**
+	 * Gets the index of the region's last column
+	 */
+	public int getColumnEnd() {
+		return columnEnd;
+	}
+
+	/**
+	 * Gets the amount of rows in this region
+	 */
+	public int getRowCount() {
+		return rowEnd - rowStart + 1;
+	}
+
+	/**
+	 * Gets the amount of columns in this region
+	 */
+	public int getColumnCount() {
+		return columnEnd - columnStart + 1;
+	}
+
+	/**
+	 * Copies the content of this region out of the given table
+	 * 
+	 * @param table
+	 *            The table to copy from
+	 * @return The sub-table corresponding to this region
+	 * @throws IllegalAccessException
+	 */
+	public <T> Table<T> copyFrom(Table<T> table) throws IllegalAccessException {
+		return table.copy(rowStart, rowEnd, columnStart, columnEnd);
+	}
+
+	@Override
+	public String toString() {
+		return "[" + rowStart + "-" + rowEnd + "] x [" + columnStart + "-" + columnEnd + "]";
+	}
+}
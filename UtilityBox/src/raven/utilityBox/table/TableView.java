@@ -0,0 +1,355 @@
+package raven.utilityBox.table;
+
+import java.lang.reflect.Array;
+
+import raven.utilityBox.enums.ETableLayout;
+import raven.utilityBox.interfaces.ITableStorage;
+
+/**
+ * A read-only window onto the storage of another table. A view only consists of
+ * an offset into its source and the information whether it is transposed, so
+ * creating one doesn't copy any cells. Views of views are collapsed so that
+ * every view directly references a storage that actually holds data.<br>
+ * The only modification a view supports is the removal of its first or last
+ * row or column as this merely shrinks the window. Any other modification has
+ * to be done on a copy (see {@link #copy(int, int, int, int, boolean)}).
+ * 
+ * @param <T>
+ *            The datatype of the viewed cells
+ */
+public class TableView<T> implements ITableStorage<T> {
+
+	/**
+	 * The storage this view is looking at
+	 */
+	protected final ITableStorage<T> source;
+	/**
+	 * The datatype of the viewed cells
+	 */
+	protected final Class<T> dataType;
+	/**
+	 * The amount of rows of this view
+	 */
+	protected int rows;
+	/**
+	 * The amount of columns of this view
+	 */
+	protected int columns;
+	/**
+	 * The source's row corresponding to the first row (or column if transposed)
+	 * of this view
+	 */
+	protected int rowOffset;
+	/**
+	 * The source's column corresponding to the first column (or row if
+	 * transposed) of this view
+	 */
+	protected int columnOffset;
+	/**
+	 * Indicates whether this view shows its range transposed
+	 */
+	protected final boolean transposed;
+	/**
+	 * The range of source rows that is visible through this view. Everything
+	 * outside of it is treated as an empty cell.
+	 */
+	protected final int minSourceRow, maxSourceRow;
+	/**
+	 * The range of source columns that is visible through this view. Everything
+	 * outside of it is treated as an empty cell.
+	 */
+	protected final int minSourceColumn, maxSourceColumn;
+
+
+	protected TableView(Class<T> dataType, ITableStorage<T> source, int rows, int columns, int rowOffset,
+			int columnOffset, boolean transposed, int minSourceRow, int maxSourceRow, int minSourceColumn,
+			int maxSourceColumn) {
+		this.dataType = dataType;
+		this.source = source;
+		this.rows = rows;
+		this.columns = columns;
+		this.rowOffset = rowOffset;
+		this.columnOffset = columnOffset;
+		this.transposed = transposed;
+		this.minSourceRow = minSourceRow;
+		this.maxSourceRow = maxSourceRow;
+		this.minSourceColumn = minSourceColumn;
+		this.maxSourceColumn = maxSourceColumn;
+	}
+
+	/**
+	 * Creates a view onto the specified range of the given storage. Indices
+	 * outside the bounds of the storage are treated as references to empty
+	 * cells.
+	 * 
+	 * @param dataType
+	 *            The datatype of the viewed cells
+	 * @param storage
+	 *            The storage to look at
+	 * @param rowStart
+	 *            The index of the first row of the range
+	 * @param rowEnd
+	 *            The index of the last row of the range
+	 * @param columnStart
+	 *            The index of the first column of the range
+	 * @param columnEnd
+	 *            The index of the last column of the range
+	 * @param transpose
+	 *            Whether the view should show the range transposed
+	 * @return The created view
+	 */
+	public static <T> TableView<T> create(Class<T> dataType, ITableStorage<T> storage, int rowStart, int rowEnd,
+			int columnStart, int columnEnd, boolean transpose) {
+		int rows = rowEnd - rowStart + 1;
+		int columns = columnEnd - columnStart + 1;
+
+		if (storage instanceof TableView) {
+			TableView<T> outer = (TableView<T>) storage;
+
+			// translate the range into the coordinates of the outer view's source
+			int sourceRowStart = outer.rowOffset + (outer.transposed ? columnStart : rowStart);
+			int sourceColumnStart = outer.columnOffset + (outer.transposed ? rowStart : columnStart);
+			int sourceRowEnd = outer.rowOffset + (outer.transposed ? columnEnd : rowEnd);
+			int sourceColumnEnd = outer.columnOffset + (outer.transposed ? rowEnd : columnEnd);
+
+			// the visible part of the outer view must not grow
+			int outerMaxRow = Math.min(outer.maxSourceRow,
+					outer.rowOffset + (outer.transposed ? outer.columns : outer.rows) - 1);
+			int outerMaxColumn = Math.min(outer.maxSourceColumn,
+					outer.columnOffset + (outer.transposed ? outer.rows : outer.columns) - 1);
+
+			return new TableView<>(dataType, outer.source, transpose ? columns : rows, transpose ? rows : columns,
+					sourceRowStart, sourceColumnStart, outer.transposed != transpose,
+					Math.max(outer.minSourceRow, Math.max(outer.rowOffset, sourceRowStart)),
+					Math.min(outerMaxRow, sourceRowEnd),
+					Math.max(outer.minSourceColumn, Math.max(outer.columnOffset, sourceColumnStart)),
+					Math.min(outerMaxColumn, sourceColumnEnd));
+		}
+
+		return new TableView<>(dataType, storage, transpose ? columns : rows, transpose ? rows : columns, rowStart,
+				columnStart, transpose, rowStart, Math.min(rowEnd, storage.getRowCount() - 1), columnStart,
+				Math.min(columnEnd, storage.getColumnCount() - 1));
+	}
+
+	/**
+	 * Maps the given cell of this view to the row of the source
+	 */
+	protected int sourceRow(int row, int column) {
+		return rowOffset + (transposed ? column : row);
+	}
+
+	/**
+	 * Maps the given cell of this view to the column of the source
+	 */
+	protected int sourceColumn(int row, int column) {
+		return columnOffset + (transposed ? row : column);
+	}
+
+	@Override
+	public int getRowCount() {
+		return rows;
+	}
+
+	@Override
+	public int getColumnCount() {
+		return columns;
+	}
+
+	@Override
+	public T get(int row, int column) {
+		int sourceRow = sourceRow(row, column);
+		int sourceColumn = sourceColumn(row, column);
+
+		if (!isSourceVisible(sourceRow, sourceColumn)) {
+			return null;
+		}
+
+		return source.get(sourceRow, sourceColumn);
+	}
+
+	/**
+	 * Checks whether the given cell of the source is visible through this view.
+	 * Cells that aren't visible are treated as empty cells.
+	 * 
+	 * @param sourceRow
+	 *            The cell's row in the source
+	 * @param sourceColumn
+	 *            The cell's column in the source
+	 */
+	protected boolean isSourceVisible(int sourceRow, int sourceColumn) {
+		return sourceRow >= minSourceRow && sourceRow <= maxSourceRow && sourceColumn >= minSourceColumn
+				&& sourceColumn <= maxSourceColumn;
+	}
+
+	/**
+	 * Gets the storage this view is looking at
+	 */
+	public ITableStorage<T> getSource() {
+		return source;
+	}
+
+	@Override
+	public void set(int row, int column, T value) {
+		throw new UnsupportedOperationException("Can't modify the content of a table view!");
+	}
+
+	@Override
+	public T[] getRow(int index) {
+		if (coversWholeSourceRange(transposed) && isVisible(index, true)) {
+			// the row is a complete lane of the source
+			return transposed ? source.getColumn(columnOffset + index) : source.getRow(rowOffset + index);
+		}
+
+		return gather(index, true);
+	}
+
+	@Override
+	public T[] getColumn(int index) {
+		if (coversWholeSourceRange(!transposed) && isVisible(index, false)) {
+			// the column is a complete lane of the source
+			return transposed ? source.getRow(rowOffset + index) : source.getColumn(columnOffset + index);
+		}
+
+		return gather(index, false);
+	}
+
+	/**
+	 * Checks whether this view covers all source rows (or all source columns)
+	 * without any clipping
+	 * 
+	 * @param sourceRows
+	 *            Whether to check the source rows instead of the columns
+	 */
+	protected boolean coversWholeSourceRange(boolean sourceRows) {
+		if (sourceRows) {
+			return rowOffset == 0 && minSourceRow == 0 && maxSourceRow == source.getRowCount() - 1
+					&& (transposed ? columns : rows) == source.getRowCount();
+		} else {
+			return columnOffset == 0 && minSourceColumn == 0 && maxSourceColumn == source.getColumnCount() - 1
+					&& (transposed ? rows : columns) == source.getColumnCount();
+		}
+	}
+
+	/**
+	 * Checks whether the given row or column of this view lies within the visible
+	 * range of the source
+	 * 
+	 * @param index
+	 *            The index of the row/column
+	 * @param row
+	 *            Whether the index refers to a row
+	 */
+	protected boolean isVisible(int index, boolean row) {
+		if (row != transposed) {
+			return rowOffset + index >= minSourceRow && rowOffset + index <= maxSourceRow;
+		} else {
+			return columnOffset + index >= minSourceColumn && columnOffset + index <= maxSourceColumn;
+		}
+	}
+
+	/**
+	 * Collects a row or column of this view into a new array
+	 * 
+	 * @param index
+	 *            The index of the row/column
+	 * @param row
+	 *            Whether a row should be collected
+	 */
+	@SuppressWarnings("unchecked")
+	protected T[] gather(int index, boolean row) {
+		T[] content = (T[]) Array.newInstance(dataType, row ? columns : rows);
+
+		for (int i = 0; i < content.length; i++) {
+			content[i] = row ? get(index, i) : get(i, index);
+		}
+
+		return content;
+	}
+
+	/**
+	 * Checks whether the row with the given index can be deleted from this view
+	 * without having to copy it, which is the case for the first and the last row
+	 */
+	public boolean canDeleteRow(int index) {
+		return index == 0 || index == rows - 1;
+	}
+
+	/**
+	 * Checks whether the column with the given index can be deleted from this view
+	 * without having to copy it, which is the case for the first and the last
+	 * column
+	 */
+	public boolean canDeleteColumn(int index) {
+		return index == 0 || index == columns - 1;
+	}
+
+	@Override
+	public void deleteRow(int index) {
+		if (!canDeleteRow(index)) {
+			throw new UnsupportedOperationException("Can only remove the first or last row of a table view!");
+		}
+
+		if (index == 0) {
+			if (transposed) {
+				columnOffset++;
+			} else {
+				rowOffset++;
+			}
+		}
+
+		rows--;
+	}
+
+	@Override
+	public void deleteColumn(int index) {
+		if (!canDeleteColumn(index)) {
+			throw new UnsupportedOperationException("Can only remove the first or last column of a table view!");
+		}
+
+		if (index == 0) {
+			if (transposed) {
+				rowOffset++;
+			} else {
+				columnOffset++;
+			}
+		}
+
+		columns--;
+	}
+
+	@Override
+	public ITableStorage<T> copy(int rowStart, int rowEnd, int columnStart, int columnEnd, boolean transpose) {
+		int copyRows = transpose ? columnEnd - columnStart + 1 : rowEnd - rowStart + 1;
+		int copyColumns = transpose ? rowEnd - rowStart + 1 : columnEnd - columnStart + 1;
+
+		ITableStorage<T> copy = source.createEmpty(copyRows, copyColumns);
+
+		for (int i = rowStart; i <= rowEnd && i < rows; i++) {
+			for (int j = columnStart; j <= columnEnd && j < columns; j++) {
+				T content = get(i, j);
+
+				if (content == null) {
+					continue;
+				}
+
+				if (transpose) {
+					copy.set(j - columnStart, i - rowStart, content);
+				} else {
+					copy.set(i - rowStart, j - columnStart, content);
+				}
+			}
+		}
+
+		return copy;
+	}
+
+	@Override
+	public ITableStorage<T> createEmpty(int rows, int columns) {
+		return source.createEmpty(rows, columns);
+	}
+
+	@Override
+	public ETableLayout getLayout() {
+		return source.getLayout();
+	}
+}
@@ -0,0 +1,363 @@
+package raven.utilityBox.util;
+
+import java.util.ArrayList;
+import java.util.BitSet;
+import java.util.LinkedList;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+
+/**
+ * A matcher finding all occurrences of a set of keywords in a text in a single
+ * linear scan (Aho-Corasick automaton). The keywords are compiled into the
+ * automaton once so that the cost of a search does only depend on the length
+ * of the text (and the amount of occurrences) but not on the amount of
+ * keywords.<br>
+ * Optionally the search ignores the case (both keywords and text are converted
+ * via {@link String#toLowerCase()}) and/or only accepts occurrences as whole
+ * words in the sense of the regex boundary matcher <code>\b</code>.
+ *
+ * @author Raven
+ *
+ */
+public class AhoCorasickMatcher {
+
+	/**
+	 * The keywords to search for (in lowercase if {@link #ignoreCase})
+	 */
+	protected final String[] keywords;
+	/**
+	 * Indicates whether the case should be ignored
+	 */
+	protected final boolean ignoreCase;
+	/**
+	 * The sorted labels of the outgoing transitions of every state
+	 */
+	protected final char[][] labels;
+	/**
+	 * The target states of the respective {@link #labels}
+	 */
+	protected final int[][] targets;
+	/**
+	 * The state to continue with if there is no transition for a character
+	 */
+	protected final int[] failure;
+	/**
+	 * The indices of the keywords ending in the respective state
+	 */
+	protected final int[][] outputs;
+	/**
+	 * The next state on the {@link #failure} chain that has outputs (-1 if none)
+	 */
+	protected final int[] outputLink;
+	/**
+	 * The indices of the empty keywords
+	 */
+	protected final int[] emptyKeywords;
+
+
+	/**
+	 * Compiles the given keywords into a matcher
+	 *
+	 * @param keywords
+	 *            The keywords to search for
+	 * @param ignoreCase
+	 *            Whether the case should be ignored during the search
+	 */
+	public AhoCorasickMatcher(String[] keywords, boolean ignoreCase) {
+		this.ignoreCase = ignoreCase;
+		this.keywords = new String[keywords.length];
+
+		// build the trie
+		List<TreeMap<Character, Integer>> trie = new ArrayList<>();
+		List<List<Integer>> stateOutputs = new ArrayList<>();
+		List<Integer> empty = new ArrayList<>();
+
+		trie.add(new TreeMap<Character, Integer>());
+		stateOutputs.add(new ArrayList<Integer>());
+
+		for (int i = 0; i < keywords.length; i++) {
+			this.keywords[i] = ignoreCase ? keywords[i].toLowerCase() : keywords[i];
+
+			if (this.keywords[i].isEmpty()) {
+				empty.add(i);
+				continue;
+			}
+
+			int state = 0;
+
+			for (int j = 0; j < this.keywords[i].length(); j++) {
+				Integer next = trie.get(state).get(this.keywords[i].charAt(j));
+
+				if (next == null) {
+					next = trie.size();
+
+					trie.get(state).put(this.keywords[i].charAt(j), next);
+					trie.add(new TreeMap<Character, Integer>());
+					stateOutputs.add(new ArrayList<Integer>());
+				}
+
+				state = next;
+			}
+
+			stateOutputs.get(state).add(i);
+		}
+
+		int stateCount = trie.size();
+
+		labels = new char[stateCount][];
+		targets = new int[stateCount][];
+		failure = new int[stateCount];
+		outputs = new int[stateCount][];
+		outputLink = new int[stateCount];
+
+		for (int state = 0; state < stateCount; state++) {
+			labels[state] = new char[trie.get(state).size()];
+			targets[state] = new int[trie.get(state).size()];
+
+			int index = 0;
+			for (Map.Entry<Character, Integer> current : trie.get(state).entrySet()) {
+				labels[state][index] = current.getKey();
+				targets[state][index] = current.getValue();
+				index++;
+			}
+
+			outputs[state] = toArray(stateOutputs.get(state));
+		}
+
+		emptyKeywords = toArray(empty);
+
+		// compute the failure links breadth-first
+		LinkedList<Integer> queue = new LinkedList<>();
+		outputLink[0] = -1;
+
+		for (int child : targets[0]) {
+			failure[child] = 0;
+			outputLink[child] = -1;
+			queue.add(child);
+		}
+
+		while (!queue.isEmpty()) {
+			int state = queue.removeFirst();
+
+			for (int i = 0; i < labels[state].length; i++) {
+				int child = targets[state][i];
+				int fallback = failure[state];
+
+				while (fallback != 0 && transition(fallback, labels[state][i]) < 0) {
+					fallback = failure[fallback];
+				}
+
+				int next = transition(fallback, labels[state][i]);
+				failure[child] = (next < 0) ? 0 : next;
+				outputLink[child] = (outputs[failure[child]].length > 0) ? failure[child] : outputLink[failure[child]];
+
+				queue.add(child);
+			}
+		}
+	}
+
+	/**
+	 * Converts the given list into an array
+	 */
+	private static int[] toArray(List<Integer> list) {
+		int[] array = new int[list.size()];
+
+		for (int i = 0; i < array.length; i++) {
+			array[i] = list.get(i);
+		}
+
+		return array;
+	}
+
+	/**
+	 * Gets the state reached from the given state via the given character
+	 *
+	 * @return The target state or -1 if there is no such transition
+	 */
+	protected int transition(int state, char c) {
+		char[] stateLabels = labels[state];
+
+		// binary search in the sorted labels
+		int low = 0;
+		int high = stateLabels.length - 1;
+
+		while (low <= high) {
+			int middle = (low + high) >>> 1;
+
+			if (stateLabels[middle] < c) {
+				low = middle + 1;
+			} else {
+				if (stateLabels[middle] > c) {
+					high = middle - 1;
+				} else {
+					return targets[state][middle];
+				}
+			}
+		}
+
+		return -1;
+	}
+
+	/**
+	 * Gets the keywords of this matcher (in lowercase if the case is ignored)
+	 */
+	public String[] getKeywords() {
+		return keywords;
+	}
+
+	/**
+	 * Checks whether the given text contains any of the keywords
+	 *
+	 * @param text
+	 *            The text to search
+	 * @param wholeWords
+	 *            Whether the keywords have to occur as whole words
+	 */
+	public boolean containsAny(CharSequence text, boolean wholeWords) {
+		return search(text, wholeWords, true).cardinality() > 0;
+	}
+
+	/**
+	 * Finds all keywords contained in the given text
+	 *
+	 * @param text
+	 *            The text to search
+	 * @param wholeWords
+	 *            Whether the keywords have to occur as whole words
+	 * @return The set of the indices of all keywords that have been found
+	 */
+	public BitSet findAll(CharSequence text, boolean wholeWords) {
+		return search(text, wholeWords, false);
+	}
+
+	/**
+	 * Searches the given text for the keywords
+	 *
+	 * @param text
+	 *            The text to search
+	 * @param wholeWords
+	 *            Whether the keywords have to occur as whole words
+	 * @param stopAtFirst
+	 *            Whether the search should stop as soon as a keyword has been
+	 *            found
+	 * @return The set of the indices of the keywords that have been found
+	 */
+	protected BitSet search(CharSequence text, boolean wholeWords, boolean stopAtFirst) {
+		BitSet found = new BitSet(keywords.length);
+
+		if (ignoreCase) {
+			text = text.toString().toLowerCase();
+		}
+
+		if (emptyKeywords.length > 0) {
+			for (int i = 0; i <= text.length(); i++) {
+				if (!wholeWords || isWordBoundary(text, i)) {
+					for (int current : emptyKeywords) {
+						found.set(current);
+					}
+
+					if (stopAtFirst) {
+						return found;
+					}
+
+					break;
+				}
+			}
+		}
+
+		int state = 0;
+
+		for (int i = 0; i < text.length(); i++) {
+			char c = text.charAt(i);
+			int next = transition(state, c);
+
+			while (next < 0 && state != 0) {
+				state = failure[state];
+				next = transition(state, c);
+			}
+
+			state = (next < 0) ? 0 : next;
+
+			// collect all keywords ending here
+			for (int outputState = (outputs[state].length > 0) ? state
+					: outputLink[state]; outputState > 0; outputState = outputLink[outputState]) {
+				for (int current : outputs[outputState]) {
+					if (found.get(current)) {
+						continue;
+					}
+
+					if (!wholeWords || (isWordBoundary(text, i + 1 - keywords[current].length())
+							&& isWordBoundary(text, i + 1))) {
+						found.set(current);
+
+						if (stopAtFirst) {
+							return found;
+						}
+					}
+				}
+			}
+		}
+
+		return found;
+	}
+
+	/**
+	 * Checks whether there is a word boundary at the given position of the given
+	 * text. This is the same check the regex boundary matcher <code>\b</code>
+	 * performs (without the {@link java.util.regex.Pattern#UNICODE_CHARACTER_CLASS}
+	 * flag): word characters are letters, digits and underscores and non-spacing
+	 * marks belong to the character they are attached to.
+	 *
+	 * @param text
+	 *            The text to check
+	 * @param index
+	 *            The position between two characters (0 is the start of the
+	 *            text)
+	 */
+	public static boolean isWordBoundary(CharSequence text, int index) {
+		boolean left = false;
+		boolean right = false;
+
+		if (index > 0) {
+			int c = Character.codePointBefore(text, index);
+			left = isWordCharacter(c)
+					|| (Character.getType(c) == Character.NON_SPACING_MARK && hasBaseCharacter(text, index - 1));
+		}
+
+		if (index < text.length()) {
+			int c = Character.codePointAt(text, index);
+			right = isWordCharacter(c)
+					|| (Character.getType(c) == Character.NON_SPACING_MARK && hasBaseCharacter(text, index));
+		}
+
+		return left ^ right;
+	}
+
+	/**
+	 * Checks whether the given code point is a word character
+	 */
+	public static boolean isWordCharacter(int codePoint) {
+		return codePoint == '_' || Character.isLetterOrDigit(codePoint);
+	}
+
+	/**
+	 * Checks whether the non-spacing mark at the given position belongs to a
+	 * letter or digit
+	 */
+	private static boolean hasBaseCharacter(CharSequence text, int index) {
+		for (int i = index; i >= 0; i--) {
+			int c = Character.codePointAt(text, i);
+
+			if (Character.isLetterOrDigit(c)) {
+				return true;
+			}
+
+			if (Character.getType(c) != Character.NON_SPACING_MARK) {
+				return false;
+			}
+		}
+
+		return false;
+	}
+}
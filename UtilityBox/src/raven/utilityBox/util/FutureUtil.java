@@ -0,0 +1,57 @@
+package raven.utilityBox.util;
+
+import java.io.IOException;
+import java.io.InterruptedIOException;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Future;
+
+/**
+ * A class containing methods for working with the results of asynchronous
+ * computations
+ * 
+ * @author Raven
+ *
+ */
+public class FutureUtil {
+
+	/**
+	 * Waits for the given result and rethrows the exception that may have occurred
+	 * while computing it
+	 * 
+	 * @param result
+	 *            The result to wait for
+	 * @return The computed result
+	 * @throws IOException
+	 *             If the computation threw an IOException, any other checked
+	 *             exception (wrapped) or if the current thread has been
+	 *             interrupted
+	 * @throws IllegalAccessException
+	 *             If the computation threw an IllegalAccessException
+	 */
+	public static <T> T getResult(Future<T> result) throws IOException, IllegalAccessException {
+		try {
+			return result.get();
+		} catch (InterruptedException e) {
+			Thread.currentThread().interrupt();
+
+			throw new InterruptedIOException("Interrupted while waiting for a result");
+		} catch (ExecutionException e) {
+			Throwable cause = e.getCause();
+
+			if (cause instanceof IOException) {
+				throw (IOException) cause;
+			}
+			if (cause instanceof IllegalAccessException) {
+				throw (IllegalAccessException) cause;
+			}
+			if (cause instanceof RuntimeException) {
+				throw (RuntimeException) cause;
+			}
+			if (cause instanceof Error) {
+				throw (Error) cause;
+			}
+
+			throw new IOException(cause);
+		}
+	}
+}
@@ -0,0 +1,154 @@
+package raven.utilityBox.util;
+
+import java.util.Locale;
+
+/**
+ * A class containing methods for modifying the content of a {@link StringBuilder} in place. Each of them yields the
+ * same result as the respective {@link String} operation but doesn't create any intermediate objects.
+ *
+ * @author Raven
+ *
+ */
+public class StringBuilderUtil {
+
+	/**
+	 * Converts the content of the given builder to lowercase. The result is the same as the one of
+	 * {@link String#toLowerCase()}.
+	 *
+	 * @param builder
+	 *            The builder to convert
+	 */
+	public static void toLowerCase(StringBuilder builder) {
+		if (requiresSpecialCasing(builder)) {
+			// the conversion depends on the context or changes the length
+			String lowerCase = builder.toString().toLowerCase();
+
+			builder.setLength(0);
+			builder.append(lowerCase);
+
+			return;
+		}
+
+		for (int i = 0; i < builder.length(); i++) {
+			char c = builder.charAt(i);
+
+			if (Character.isHighSurrogate(c) && i + 1 < builder.length()
+					&& Character.isLowSurrogate(builder.charAt(i + 1))) {
+				int lowerCase = Character.toLowerCase(Character.toCodePoint(c, builder.charAt(i + 1)));
+
+				builder.setCharAt(i, Character.highSurrogate(lowerCase));
+				builder.setCharAt(i + 1, Character.lowSurrogate(lowerCase));
+				i++;
+			} else {
+				builder.setCharAt(i, Character.toLowerCase(c));
+			}
+		}
+	}
+
+	/**
+	 * Checks whether the lowercase conversion of the given builder can't be done character by character
+	 */
+	private static boolean requiresSpecialCasing(StringBuilder builder) {
+		String language = Locale.getDefault().getLanguage();
+
+		if (language.equals("tr") || language.equals("az") || language.equals("lt")) {
+			return true;
+		}
+
+		for (int i = 0; i < builder.length(); i++) {
+			char c = builder.charAt(i);
+
+			// capital I with dot above and capital sigma
+			if (c == '\u0130' || c == '\u03A3') {
+				return true;
+			}
+		}
+
+		return false;
+	}
+
+	/**
+	 * Removes all leading and trailing characters up to (and including) the space character. The result is the same as
+	 * the one of {@link String#trim()}.
+	 *
+	 * @param builder
+	 *            The builder to trim
+	 */
+	public static void trim(StringBuilder builder) {
+		int end = builder.length();
+
+		while (end > 0 && builder.charAt(end - 1) <= ' ') {
+			end--;
+		}
+
+		builder.setLength(end);
+
+		int start = 0;
+
+		while (start < end && builder.charAt(start) <= ' ') {
+			start++;
+		}
+
+		if (start > 0) {
+			builder.delete(0, start);
+		}
+	}
+
+	/**
+	 * Replaces every sequence of at least two whitespaces by a single blank. The result is the same as the one of
+	 * <code>replaceAll("\\s\\s+", " ")</code>.
+	 *
+	 * @param builder
+	 *            The builder whose whitespaces should be collapsed
+	 */
+	public static void collapseWhitespaces(StringBuilder builder) {
+		int writeIndex = 0;
+		int readIndex = 0;
+
+		while (readIndex < builder.length()) {
+			char c = builder.charAt(readIndex);
+
+			if (isWhitespace(c)) {
+				int runEnd = readIndex + 1;
+
+				while (runEnd < builder.length() && isWhitespace(builder.charAt(runEnd))) {
+					runEnd++;
+				}
+
+				// a single whitespace is kept as it is
+				builder.setCharAt(writeIndex++, (runEnd - readIndex > 1) ? ' ' : c);
+				readIndex = runEnd;
+			} else {
+				builder.setCharAt(writeIndex++, c);
+				readIndex++;
+			}
+		}
+
+		builder.setLength(writeIndex);
+	}
+
+	/**
+	 * Checks whether the given character is a whitespace in the sense of the regex character class <code>\s</code>
+	 */
+	public static boolean isWhitespace(char c) {
+		return c == ' ' || c == '\t' || c == '\n' || c == '\u000B' || c == '\f' || c == '\r';
+	}
+
+	/**
+	 * Replaces every occurrence of the given character
+	 *
+	 * @param builder
+	 *            The builder to modify
+	 * @param target
+	 *            The character to replace
+	 * @param replacement
+	 *            The character to replace it with
+	 */
+	public static void replace(StringBuilder builder, char target, char replacement) {
+		for (int i = 0; i < builder.length(); i++) {
+			if (builder.charAt(i) == target) {
+				builder.setCharAt(i, replacement);
+			}
+		}
+	}
+}
@@ -0,0 +1,230 @@
+package raven.utilityBox.actions;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNotEquals;
+import static org.junit.Assert.assertTrue;
+
+import java.io.File;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.zip.ZipEntry;
+import java.util.zip.ZipOutputStream;
+
+import org.junit.Test;
+
+import raven.utilityBox.enums.EStatus;
+import raven.utilityBox.enums.ETableLayout;
+import raven.utilityBox.files.RunStateStore;
+import raven.utilityBox.interfaces.ISubTableHandler;
+import raven.utilityBox.openDocument.StreamingODSExtractor;
+import raven.utilityBox.preferences.rules.ExtractODSToCSVRule;
+import raven.utilityBox.table.Table;
+import raven.utilityBox.table.TableNullDivider;
+
+/**
+ * Checks that {@link ExtractODSToCSVAction} names the CSVs of the sub-tables
+ * the same way it did when every sheet was divided by a {@link TableNullDivider}
+ * as a whole
+ */
+public class ExtractODSToCSVActionTest {
+
+	/**
+	 * A sheet with side-by-side regions in two bands of rows (plus a named region)
+	 * for which dividing band by band finds the sub-tables in a different order
+	 * than dividing the whole sheet
+	 */
+	private static final String[][] SHEET = { { "a1", "a2", null, "b1", "b2" }, { "a3", "a4", null, "b3", "b4" },
+			{ null, null, null, null, null }, { "c1", "c2", null, "d1", "d2" }, { "c3", "c4", null, "d3", "d4" },
+			{ null, null, null, null, null }, { "Named", null, null, "e1", "e2" }, { "n1", "n2", null, "e3", "e4" },
+			{ "n3", "n4" } };
+
+
+	@Test
+	public void namesSubTablesLikeTableDivider() throws Exception {
+		File spreadSheet = writeSpreadSheet(SHEET);
+
+		try {
+			ExtractODSToCSVAction action = new ExtractODSToCSVAction(spreadSheet.getAbsolutePath(),
+					spreadSheet.getParent());
+			ExtractODSToCSVRule rules = (ExtractODSToCSVRule) action.getDefaultPreferences();
+
+			List<String> baseline = new ArrayList<>();
+			Table<String> sheet = StreamingODSExtractor.extract(spreadSheet.getAbsolutePath()).get(0);
+
+			for (Table<String> currentTable : new TableNullDivider<>(sheet).divide()) {
+				baseline.add(describe(action, currentTable, baseline.size()));
+			}
+
+			assertEquals(describe(action, rules), baseline);
+		} finally {
+			spreadSheet.delete();
+		}
+	}
+
+	@Test
+	public void streamingFindsTheSameSubTables() throws Exception {
+		File spreadSheet = writeSpreadSheet(SHEET);
+
+		try {
+			ExtractODSToCSVAction action = new ExtractODSToCSVAction(spreadSheet.getAbsolutePath(),
+					spreadSheet.getParent());
+			ExtractODSToCSVRule rules = (ExtractODSToCSVRule) action.getDefaultPreferences();
+			ExtractODSToCSVRule streamingRules = new ExtractODSToCSVRule() {
+				@Override
+				public boolean streamSubTables() {
+					return true;
+				}
+			};
+			streamingRules.initializeWithDefaults();
+
+			List<String> divided = describe(action, rules);
+			List<String> streamed = describe(action, streamingRules);
+
+			// the unnamed sub-tables are numbered differently when streaming
+			assertNotEquals("numbering", divided, streamed);
+
+			assertEquals(contents(divided), contents(streamed));
+		} finally {
+			spreadSheet.delete();
+		}
+	}
+
+	@Test
+	public void persistsStateOnlyWhenCheckingTimestamp() throws Exception {
+		File spreadSheet = writeSpreadSheet(SHEET);
+		File targetDir = Files.createTempDirectory("csvs").toFile();
+		File store = new File(targetDir, ExtractODSToCSVAction.TIMESTAMP_FILE);
+		File lock = new File(targetDir, ExtractODSToCSVAction.TIMESTAMP_FILE + RunStateStore.LOCK_SUFFIX);
+
+		try {
+			ExtractODSToCSVAction action = new ExtractODSToCSVAction();
+			action.setParameter(
+					new Object[] { spreadSheet.getAbsolutePath(), targetDir.getAbsolutePath(), false, "", true, 1 });
+
+			assertEquals(EStatus.OK, action.run());
+			assertTrue(new File(targetDir, "Table0.csv").exists());
+			assertTrue(new File(targetDir, "Table0_t.csv").exists());
+			assertFalse(store.exists());
+			assertFalse(lock.exists());
+
+			action.setParameter(
+					new Object[] { spreadSheet.getAbsolutePath(), targetDir.getAbsolutePath(), true, "", true, 1 });
+
+			assertEquals(EStatus.OK, action.run());
+			assertTrue(store.exists());
+		} finally {
+			for (File currentFile : targetDir.listFiles()) {
+				currentFile.delete();
+			}
+			targetDir.delete();
+			spreadSheet.delete();
+		}
+	}
+
+	@Test
+	public void fingerprintsDependOnContentAndOrientation() throws Exception {
+		ExtractODSToCSVAction action = new ExtractODSToCSVAction();
+		ExtractODSToCSVRule rules = (ExtractODSToCSVRule) action.getDefaultPreferences();
+		String[][] data = { { "a", null }, { "c", "d" } };
+
+		byte[] rowMajor = action.digestContent(new Table<>(String.class, data, ETableLayout.ROW_MAJOR));
+		byte[] columnMajor = action.digestContent(new Table<>(String.class, data, ETableLayout.COLUMN_MAJOR));
+		Table<String> transposed = new Table<>(String.class, data);
+		transposed.transpose();
+
+		assertEquals(action.computeFingerprint(rowMajor, false, rules),
+				action.computeFingerprint(columnMajor, false, rules));
+		assertNotEquals("orientation", action.computeFingerprint(rowMajor, false, rules),
+				action.computeFingerprint(rowMajor, true, rules));
+		assertNotEquals("content", action.computeFingerprint(rowMajor, false, rules),
+				action.computeFingerprint(action.digestContent(transposed), false, rules));
+	}
+
+	/**
+	 * Describes the sub-tables the given action extracts with the given rules
+	 */
+	private static List<String> describe(final ExtractODSToCSVAction action, ExtractODSToCSVRule rules)
+			throws IOException, IllegalAccessException {
+		final List<String> descriptions = new ArrayList<>();
+
+		action.extractSubTables(new ISubTableHandler<String>() {
+
+			@Override
+			public void handle(Table<String> subTable) throws IllegalAccessException {
+				descriptions.add(describe(action, subTable, descriptions.size()));
+			}
+		}, rules);
+
+		return descriptions;
+	}
+
+	/**
+	 * Describes the given sub-table by the name of its CSV and its content
+	 */
+	private static String describe(ExtractODSToCSVAction action, Table<String> subTable, int tableCounter)
+			throws IllegalAccessException {
+		String name = action.getTableName(subTable, tableCounter);
+
+		return name + ".csv:\n" + subTable.toCSV();
+	}
+
+	/**
+	 * Gets the sorted contents of the given descriptions without the names
+	 */
+	private static List<String> contents(List<String> descriptions) {
+		List<String> contents = new ArrayList<>();
+
+		for (String currentDescription : descriptions) {
+			contents.add(currentDescription.substring(currentDescription.indexOf('\n') + 1));
+		}
+
+		Collections.sort(contents);
+
+		return contents;
+	}
+
+	/**
+	 * Writes a spreadsheet consisting of a single sheet with the given content
+	 * into a temporary file
+	 */
+	private static File writeSpreadSheet(String[][] sheet) throws IOException {
+		StringBuilder content = new StringBuilder("<?xml version=\"1.0\" encoding=\"UTF-8\"?>")
+				.append("<office:document-content xmlns:office=\"").append(StreamingODSExtractor.OFFICE_NS)
+				.append("\" xmlns:table=\"").append(StreamingODSExtractor.TABLE_NS).append("\" xmlns:text=\"")
+				.append(StreamingODSExtractor.TEXT_NS).append("\"><office:body><office:spreadsheet>")
+				.append("<table:table table:name=\"Sheet1\">");
+
+		for (String[] currentRow : sheet) {
+			content.append("<table:table-row>");
+
+			for (String currentCell : currentRow) {
+				if (currentCell == null) {
+					content.append("<table:table-cell/>");
+				} else {
+					content.append("<table:table-cell><text:p>").append(currentCell)
+							.append("</text:p></table:table-cell>");
+				}
+			}
+
+			content.append("</table:table-row>");
+		}
+
+		content.append("</table:table></office:spreadsheet></office:body></office:document-content>");
+
+		File file = File.createTempFile("subTables", ".ods");
+
+		try (ZipOutputStream out = new ZipOutputStream(new FileOutputStream(file))) {
+			out.putNextEntry(new ZipEntry(StreamingODSExtractor.CONTENT_ENTRY));
+			out.write(content.toString().getBytes(StandardCharsets.UTF_8));
+			out.closeEntry();
+		}
+
+		return file;
+	}
+}
@@ -0,0 +1,250 @@
+package raven.utilityBox.openDocument;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertTrue;
+
+import java.io.File;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Random;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.zip.ZipEntry;
+import java.util.zip.ZipOutputStream;
+
+import org.junit.Test;
+
+import raven.utilityBox.enums.ETableLayout;
+import raven.utilityBox.interfaces.ISubTableHandler;
+import raven.utilityBox.table.SparseTable;
+import raven.utilityBox.table.Table;
+import raven.utilityBox.table.TableNullDivider;
+
+/**
+ * Checks that {@link StreamingODSExtractor} finds the same sub-tables as a
+ * {@link TableNullDivider} on the whole sheet without expanding repeated empty
+ * rows and columns
+ */
+public class StreamingODSExtractorTest {
+
+	/**
+	 * The length of the runs of empty rows and columns in the huge sheet. Expanding
+	 * them in a dense table would need terabytes.
+	 */
+	private static final int HUGE_RUN = 1000000;
+	/**
+	 * The amount of random sheets that are checked
+	 */
+	private static final int RANDOM_SHEETS = 200;
+
+
+	@Test
+	public void keepsHugeRunsCollapsed() throws Exception {
+		// a run of empty cells between and after the cells of the first row, a run
+		// of empty rows and a repeated cell in the last row followed by empty rows
+		File spreadSheet = writeContent(new StringBuilder().append("<table:table-row>").append(cell("a", 1))
+				.append(cell(null, HUGE_RUN)).append(cell("b", 1)).append(cell(null, HUGE_RUN))
+				.append("</table:table-row>").append(row(cell(null, 1), HUGE_RUN))
+				.append(row(cell("c", 1) + cell("d", 3), 1)).append(row(cell(null, HUGE_RUN), HUGE_RUN)).toString());
+
+		try {
+			Table<String> sheet = StreamingODSExtractor.extract(spreadSheet.getAbsolutePath(), ETableLayout.SPARSE)
+					.get(0);
+
+			assertTrue(sheet instanceof SparseTable);
+			assertEquals(HUGE_RUN + 2, sheet.getRowCount());
+			assertEquals(HUGE_RUN + 2, sheet.getColumnCount());
+			assertEquals("a", sheet.get(0, 0));
+			assertEquals("b", sheet.get(0, HUGE_RUN + 1));
+			assertNull(sheet.get(HUGE_RUN, HUGE_RUN));
+			assertEquals("c", sheet.get(HUGE_RUN + 1, 0));
+			assertEquals("d", sheet.get(HUGE_RUN + 1, 3));
+
+			// the same sheet with runs of a single row or column
+			String[][] small = { { "a", null, null, null, null, "b" }, {}, { "c", "d", "d", "d" } };
+			List<String> expected = divide(new Table<>(String.class, small, ETableLayout.ROW_MAJOR));
+
+			for (ETableLayout layout : ETableLayout.values()) {
+				assertEquals(layout.toString(), expected,
+						describe(StreamingODSExtractor.extractSubtables(spreadSheet.getAbsolutePath(), layout)));
+			}
+
+			assertEquals(sorted(expected), sorted(stream(spreadSheet, null)));
+		} finally {
+			spreadSheet.delete();
+		}
+	}
+
+	@Test
+	public void dividesRandomSheetsLikeTableDivider() throws Exception {
+		Random random = new Random(0);
+		ExecutorService executor = Executors.newFixedThreadPool(2);
+
+		try {
+			for (int k = 0; k < RANDOM_SHEETS; k++) {
+				File spreadSheet = writeContent(randomContent(random));
+
+				try {
+					String path = spreadSheet.getAbsolutePath();
+					String message = "sheet " + k;
+					Table<String> sheet = StreamingODSExtractor.extract(path).get(0);
+					List<String> expected = sheet.isValid() ? new ArrayList<String>() : divide(sheet);
+
+					for (ETableLayout layout : ETableLayout.values()) {
+						Table<String> extracted = StreamingODSExtractor.extract(path, layout).get(0);
+
+						assertEquals(message, sheet.isValid(), extracted.isValid());
+						if (!sheet.isValid()) {
+							assertEquals(message, sheet.toCSV(), extracted.toCSV());
+						}
+						assertEquals(message, expected,
+								describe(StreamingODSExtractor.extractSubtables(path, layout)));
+						assertEquals(message, expected,
+								describe(StreamingODSExtractor.extractSubtables(path, layout, executor)));
+					}
+
+					assertEquals(message, sorted(expected), sorted(stream(spreadSheet, null)));
+					assertEquals(message, sorted(expected), sorted(stream(spreadSheet, executor)));
+				} finally {
+					spreadSheet.delete();
+				}
+			}
+		} finally {
+			executor.shutdown();
+		}
+	}
+
+	/**
+	 * Divides the given table with a {@link TableNullDivider} and describes the
+	 * found sub-tables
+	 */
+	private static List<String> divide(Table<String> table) throws IllegalAccessException {
+		return describe(new TableNullDivider<>(table).divide());
+	}
+
+	/**
+	 * Describes the sub-tables the streaming extraction passes to the handler
+	 */
+	private static List<String> stream(File spreadSheet, ExecutorService executor)
+			throws IOException, IllegalAccessException {
+		final List<Table<String>> subTables = new ArrayList<>();
+		ISubTableHandler<String> handler = new ISubTableHandler<String>() {
+
+			@Override
+			public void handle(Table<String> subTable) {
+				subTables.add(subTable);
+			}
+		};
+
+		if (executor == null) {
+			StreamingODSExtractor.extractSubtables(spreadSheet.getAbsolutePath(), handler);
+		} else {
+			StreamingODSExtractor.extractSubtables(spreadSheet.getAbsolutePath(), ETableLayout.ROW_MAJOR, handler,
+					executor);
+		}
+
+		return describe(subTables);
+	}
+
+	/**
+	 * Describes every given table by its content
+	 */
+	private static List<String> describe(List<Table<String>> tables) throws IllegalAccessException {
+		List<String> descriptions = new ArrayList<>();
+
+		for (Table<String> currentTable : tables) {
+			descriptions.add(currentTable.getRowCount() + "x" + currentTable.getColumnCount() + ":\n"
+					+ currentTable.toCSV());
+		}
+
+		return descriptions;
+	}
+
+	private static List<String> sorted(List<String> descriptions) {
+		List<String> sorted = new ArrayList<>(descriptions);
+		Collections.sort(sorted);
+
+		return sorted;
+	}
+
+	/**
+	 * Creates the rows of a random sheet whose rows and cells are repeated
+	 * randomly
+	 */
+	private static String randomContent(Random random) {
+		StringBuilder content = new StringBuilder();
+		int rows = random.nextInt(8);
+
+		for (int i = 0; i < rows; i++) {
+			StringBuilder cells = new StringBuilder();
+			int columns = random.nextInt(8);
+
+			for (int j = 0; j < columns; j++) {
+				cells.append(cell((random.nextInt(3) == 0) ? "x" + i + "/" + j : null, 1 + random.nextInt(3)));
+			}
+
+			content.append(row(cells.toString(), 1 + random.nextInt(3)));
+		}
+
+		return content.toString();
+	}
+
+	/**
+	 * Creates a cell with the given content that is repeated the given amount of
+	 * times
+	 */
+	private static String cell(String content, int repetition) {
+		StringBuilder cell = new StringBuilder("<table:table-cell");
+
+		if (repetition > 1) {
+			cell.append(" table:number-columns-repeated=\"").append(repetition).append("\"");
+		}
+
+		if (content == null) {
+			return cell.append("/>").toString();
+		}
+
+		return cell.append("><text:p>").append(content).append("</text:p></table:table-cell>").toString();
+	}
+
+	/**
+	 * Creates a row with the given cells that is repeated the given amount of
+	 * times
+	 */
+	private static String row(String cells, int repetition) {
+		StringBuilder row = new StringBuilder("<table:table-row");
+
+		if (repetition > 1) {
+			row.append(" table:number-rows-repeated=\"").append(repetition).append("\"");
+		}
+
+		return row.append(">").append(cells).append("</table:table-row>").toString();
+	}
+
+	/**
+	 * Writes a spreadsheet consisting of a single sheet with the given rows into a
+	 * temporary file
+	 */
+	private static File writeContent(String rows) throws IOException {
+		String content = "<?xml version=\"1.0\" encoding=\"UTF-8\"?><office:document-content xmlns:office=\""
+				+ StreamingODSExtractor.OFFICE_NS + "\" xmlns:table=\"" + StreamingODSExtractor.TABLE_NS
+				+ "\" xmlns:text=\"" + StreamingODSExtractor.TEXT_NS + "\"><office:body><office:spreadsheet>"
+				+ "<table:table table:name=\"Sheet1\">" + rows
+				+ "</table:table></office:spreadsheet></office:body></office:document-content>";
+
+		File file = File.createTempFile("runs", ".ods");
+
+		try (ZipOutputStream out = new ZipOutputStream(new FileOutputStream(file))) {
+			out.putNextEntry(new ZipEntry(StreamingODSExtractor.CONTENT_ENTRY));
+			out.write(content.getBytes(StandardCharsets.UTF_8));
+			out.closeEntry();
+		}
+
+		return file;
+	}
+}
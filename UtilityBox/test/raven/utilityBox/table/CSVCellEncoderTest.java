@@ -0,0 +1,149 @@
+package raven.utilityBox.table;
+
+import static org.junit.Assert.assertEquals;
+
+import java.io.IOException;
+import java.io.StringWriter;
+import java.util.Random;
+
+import org.junit.Test;
+
+/**
+ * Checks that {@link CSVCellEncoder} produces exactly the same characters as
+ * the regex-based path it replaced: every cell is passed through
+ * <code>replace(separator, replacement).replace("\n", " ")</code>, the cells are
+ * joined by the separator and afterwards the percent signs in the complete CSV
+ * are escaped by a regex.
+ */
+public class CSVCellEncoderTest {
+
+	/**
+	 * The regex the percent signs used to be escaped with
+	 */
+	private static final String PERCENT_REGEX = "(^|[^\\\\]|(?:^|[^\\\\])(?:\\\\\\\\)+)(%)";
+	/**
+	 * The replacement used together with {@link #PERCENT_REGEX}
+	 */
+	private static final String PERCENT_REPLACEMENT = "$1\\\\$2";
+	/**
+	 * The characters the random cells are built of. They are chosen so that
+	 * separators, newlines, percent signs and runs of backslashes occur often.
+	 */
+	private static final String CELL_CHARACTERS = "ab %%\\\\\\;;,:\n\t";
+	/**
+	 * The separator/replacement pairs the random tables are encoded with
+	 */
+	private static final String[][] SEPARATORS = { { ";", "," }, { "\t", "    " }, { ",", "%" }, { "; ", " \\" },
+			{ "::", "\n" }, { "%;", "\\%" }, { "\\", "\\\\" } };
+
+
+	@Test
+	public void escapesUnescapedPercentSigns() throws Exception {
+		assertEncoding(new String[][] { { "%", "a%b", "%%", "100 %" } }, ";", ",", "");
+	}
+
+	@Test
+	public void keepsEscapedPercentSigns() throws Exception {
+		assertEncoding(new String[][] { { "\\%", "a\\%b", "\\%\\%", "\\%%" } }, ";", ",", "");
+	}
+
+	@Test
+	public void handlesRunsOfBackslashes() throws Exception {
+		assertEncoding(new String[][] { { "\\\\%", "\\\\\\%", "\\\\\\\\%", "a\\\\" }, { "\\", "%", "\\\\", "\\%" } },
+				";", ",", "");
+	}
+
+	@Test
+	public void handlesPercentSignsAcrossCells() throws Exception {
+		assertEncoding(new String[][] { { "a\\", "%b", null, "%" }, { "%", null, "\\", "\\" } }, "\\", "/", "%");
+	}
+
+	@Test
+	public void replacesMultiCharacterSeparators() throws Exception {
+		assertEncoding(new String[][] { { "a; b", "; ;", "a;b", ";  " }, { null, "; ; ;", "", "x" } }, "; ", "_", "-");
+		assertEncoding(new String[][] { { "a::b", ":::", "::::", "%::%" } }, "::", "\\", "");
+	}
+
+	@Test
+	public void foldsEmbeddedNewlines() throws Exception {
+		assertEncoding(new String[][] { { "a\nb", "\n", "\n\n%", "a\r\nb" }, { "%\n%", "\\\n%", null, "\n" } }, ";",
+				"\n", "\n");
+	}
+
+	@Test
+	public void matchesRegexPathOnRandomTables() throws Exception {
+		Random random = new Random(0);
+
+		for (int k = 0; k < 2000; k++) {
+			String[] separator = SEPARATORS[k % SEPARATORS.length];
+			String[][] data = new String[1 + random.nextInt(6)][1 + random.nextInt(6)];
+
+			for (String[] currentRow : data) {
+				for (int j = 0; j < currentRow.length; j++) {
+					if (random.nextInt(5) > 0) {
+						currentRow[j] = randomCell(random);
+					}
+				}
+			}
+
+			assertEncoding(data, separator[0], separator[1], random.nextBoolean() ? "" : "%\\");
+		}
+	}
+
+	/**
+	 * Asserts that the given data is encoded the same way as by the regex-based
+	 * path, both with and without escaping the percent signs
+	 */
+	private static void assertEncoding(String[][] data, String separator, String replacement,
+			String emptyReplacement) throws IOException, IllegalAccessException {
+		Table<String> table = new Table<>(String.class, data);
+
+		for (boolean escape : new boolean[] { true, false }) {
+			StringWriter out = new StringWriter();
+			table.writeCSV(out, new CSVCellEncoder(separator, replacement, emptyReplacement, escape));
+
+			String expected = regexPath(data, separator, replacement, emptyReplacement, escape);
+
+			assertEquals("separator \"" + separator + "\", escape " + escape, expected, out.toString());
+		}
+	}
+
+	/**
+	 * Encodes the given data the way it has been done before the introduction of
+	 * {@link CSVCellEncoder}
+	 */
+	private static String regexPath(String[][] data, String separator, String replacement,
+			String emptyReplacement, boolean escape) {
+		StringBuilder builder = new StringBuilder();
+
+		for (String[] currentRow : data) {
+			for (int j = 0; j < currentRow.length; j++) {
+				if (j > 0) {
+					builder.append(separator);
+				}
+
+				builder.append(currentRow[j] == null ? emptyReplacement
+						: currentRow[j].replace(separator, replacement).replace("\n", " "));
+			}
+
+			builder.append("\n");
+		}
+
+		String csv = builder.toString();
+
+		return escape ? csv.replaceAll(PERCENT_REGEX, PERCENT_REPLACEMENT) : csv;
+	}
+
+	/**
+	 * Creates a random cell content out of {@link #CELL_CHARACTERS}
+	 */
+	private static String randomCell(Random random) {
+		char[] content = new char[random.nextInt(8)];
+
+		for (int i = 0; i < content.length; i++) {
+			content[i] = CELL_CHARACTERS.charAt(random.nextInt(CELL_CHARACTERS.length()));
+		}
+
+		return new String(content);
+	}
+}
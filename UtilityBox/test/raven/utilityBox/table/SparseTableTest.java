@@ -0,0 +1,59 @@
+package raven.utilityBox.table;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+import java.util.Random;
+
+import org.junit.Test;
+
+/**
+ * Checks that a {@link SparseTable} keeps its type across copies and views and
+ * that it indexes its non-empty cells the same way a dense table does
+ */
+public class SparseTableTest {
+
+	@Test
+	public void copiesAndViewsStaySparse() throws Exception {
+		SparseTable<String> table = new SparseTable<>(String.class,
+				new String[][] { { "a", null, "b" }, { null, null, null }, { "c", null, "d" } });
+
+		assertTrue(table.copy() instanceof SparseTable);
+		assertTrue(table.getTransposed() instanceof SparseTable);
+		assertTrue(table.copy(5, 4, 0, 0) instanceof SparseTable);
+
+		for (Table<String> currentTable : new RegionTableNullDivider<>(table).divide()) {
+			assertTrue(currentTable instanceof SparseTable);
+		}
+
+		SparseTable<String> copy = table.copy(0, 0, 0, 2);
+		copy.set(0, 1, "x");
+
+		assertEquals("a\tx\tb\n", copy.toCSV());
+		assertEquals(null, table.get(0, 1));
+	}
+
+	@Test
+	public void indexesNonEmptyCellsLikeDenseTable() throws Exception {
+		Random random = new Random(0);
+
+		for (int k = 0; k < 500; k++) {
+			String[][] data = new String[1 + random.nextInt(8)][1 + random.nextInt(8)];
+
+			for (String[] currentRow : data) {
+				for (int j = 0; j < currentRow.length; j++) {
+					if (random.nextInt(4) == 0) {
+						currentRow[j] = "x" + j;
+					}
+				}
+			}
+
+			Table<String> dense = new Table<>(String.class, data);
+			SparseTable<String> sparse = new SparseTable<>(String.class, data);
+
+			assertEquals(dense.getEmptyRows(), sparse.getEmptyRows());
+			assertEquals(dense.getEmptyColumns(), sparse.getEmptyColumns());
+			assertEquals(dense.isEmpty(), sparse.getOccupancy().getOccupiedCount() == 0);
+		}
+	}
+}
@@ -0,0 +1,241 @@
+package raven.utilityBox.table;
+
+import static org.junit.Assert.assertArrayEquals;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Random;
+
+import org.junit.Test;
+
+import raven.utilityBox.enums.ETableLayout;
+
+/**
+ * Checks that the structural modifications of a {@link Table} behave the way
+ * they did when every modification copied the table's data: deleting a row or
+ * column leaves the table untransposed, so a following
+ * {@link Table#transpose()} transposes its current content.
+ */
+public class TableTest {
+
+	/**
+	 * The amount of random operation sequences that are checked per layout
+	 */
+	private static final int RANDOM_SEQUENCES = 500;
+
+
+	@Test
+	public void deletionResetsTransposition() throws Exception {
+		for (ETableLayout layout : ETableLayout.values()) {
+			Table<String> table = new Table<>(String.class,
+					new String[][] { { "a", "b", "c" }, { "d", null, "f" } }, layout);
+
+			table.transpose();
+			table.deleteRow(1);
+
+			assertFalse(layout.toString(), table.isTransposed());
+			assertArrayEquals(layout.toString(), new String[][] { { "a", "d" }, { "c", "f" } }, content(table));
+
+			table.transpose();
+
+			assertTrue(layout.toString(), table.isTransposed());
+			assertArrayEquals(layout.toString(), new String[][] { { "a", "c" }, { "d", "f" } }, content(table));
+
+			table.deleteColumn(0);
+
+			assertFalse(layout.toString(), table.isTransposed());
+			assertArrayEquals(layout.toString(), new String[][] { { "c" }, { "f" } }, content(table));
+		}
+	}
+
+	@Test
+	public void matchesCopyingTableOnRandomModifications() throws Exception {
+		Random random = new Random(0);
+
+		for (ETableLayout layout : ETableLayout.values()) {
+			for (int k = 0; k < RANDOM_SEQUENCES; k++) {
+				String[][] data = randomData(random);
+				Table<String> table = new Table<>(String.class, data, layout);
+				boolean transposed = false;
+
+				for (int step = 0; step < 12 && !table.isValid(); step++) {
+					String message = layout + ", sequence " + k + ", step " + step;
+
+					switch (random.nextInt(6)) {
+					case 0:
+						table.transpose();
+
+						if (!transposed) {
+							data = transpose(data);
+							transposed = true;
+						}
+						break;
+
+					case 1:
+						int row = random.nextInt(data.length);
+
+						table.deleteRow(row);
+						data = deleteRow(data, row);
+						transposed = false;
+						break;
+
+					case 2:
+						int column = random.nextInt(data[0].length);
+
+						table.deleteColumn(column);
+						data = transpose(deleteRow(transpose(data), column));
+						transposed = false;
+						break;
+
+					case 3:
+						String content = random.nextBoolean() ? null : "s" + step;
+						int setRow = random.nextInt(data.length);
+						int setColumn = random.nextInt(data[0].length);
+
+						table.set(setRow, setColumn, content);
+						data[setRow][setColumn] = content;
+						break;
+
+					case 4:
+						if (table.isEmpty()) {
+							// trimming would remove every row and fail to look for empty columns
+							break;
+						}
+
+						// modifications of the original must not show up in a copy
+						Table<String> copy = table.copy();
+						String[][] copyData = content(copy);
+						String[][] trimmed = trim(data);
+
+						table.trim();
+
+						if (trimmed.length != data.length || trimmed[0].length != data[0].length) {
+							transposed = false;
+						}
+						data = trimmed;
+
+						assertArrayEquals(message, copyData, content(copy));
+						break;
+
+					default:
+						table.getTransposed();
+						break;
+					}
+
+					if (data.length == 0) {
+						assertTrue(message, table.isValid());
+						break;
+					}
+
+					assertEquals(message, transposed, table.isTransposed());
+					assertArrayEquals(message, data, content(table));
+					assertEquals(message, emptyRows(data), table.getEmptyRows());
+					assertEquals(message, emptyRows(transpose(data)), table.getEmptyColumns());
+				}
+			}
+		}
+	}
+
+	/**
+	 * Reads the content of the given table cell by cell
+	 */
+	private static String[][] content(Table<String> table) throws IllegalAccessException {
+		String[][] content = new String[table.getRowCount()][table.getColumnCount()];
+
+		for (int i = 0; i < content.length; i++) {
+			for (int j = 0; j < content[i].length; j++) {
+				content[i][j] = table.get(i, j);
+			}
+		}
+
+		return content;
+	}
+
+	/**
+	 * Gets the indices of the rows of the given data that only contain
+	 * <code>null</code>
+	 */
+	private static List<Integer> emptyRows(String[][] data) {
+		List<Integer> empties = new ArrayList<>();
+
+		for (int i = 0; i < data.length; i++) {
+			if (Arrays.equals(data[i], new String[data[i].length])) {
+				empties.add(i);
+			}
+		}
+
+		return empties;
+	}
+
+	/**
+	 * Creates random data with at least one row and one column
+	 */
+	private static String[][] randomData(Random random) {
+		String[][] data = new String[1 + random.nextInt(5)][1 + random.nextInt(5)];
+
+		for (int i = 0; i < data.length; i++) {
+			for (int j = 0; j < data[i].length; j++) {
+				if (random.nextInt(3) > 0) {
+					data[i][j] = i + "/" + j;
+				}
+			}
+		}
+
+		return data;
+	}
+
+	private static String[][] transpose(String[][] data) {
+		String[][] transposed = new String[data.length == 0 ? 0 : data[0].length][data.length];
+
+		for (int i = 0; i < data.length; i++) {
+			for (int j = 0; j < data[i].length; j++) {
+				transposed[j][i] = data[i][j];
+			}
+		}
+
+		return transposed;
+	}
+
+	private static String[][] deleteRow(String[][] data, int row) {
+		if (data.length == 1 || data[0].length == 0) {
+			return new String[0][];
+		}
+
+		String[][] result = new String[data.length - 1][];
+
+		for (int i = 0, target = 0; i < data.length; i++) {
+			if (i != row) {
+				result[target++] = data[i].clone();
+			}
+		}
+
+		return result;
+	}
+
+	/**
+	 * Removes the empty rows and afterwards the empty columns of the given data
+	 */
+	private static String[][] trim(String[][] data) {
+		for (int pass = 0; pass < 2; pass++) {
+			for (int i = data.length - 1; i >= 0; i--) {
+				boolean empty = true;
+
+				for (String currentCell : data[i]) {
+					empty &= currentCell == null;
+				}
+
+				if (empty) {
+					data = deleteRow(data, i);
+				}
+			}
+
+			data = transpose(data);
+		}
+
+		return data;
+	}
+}
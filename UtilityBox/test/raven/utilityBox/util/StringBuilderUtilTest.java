@@ -0,0 +1,152 @@
+package raven.utilityBox.util;
+
+import static org.junit.Assert.assertEquals;
+
+import java.util.Locale;
+import java.util.Random;
+
+import org.junit.Test;
+
+/**
+ * Checks that the in-place operations of {@link StringBuilderUtil} yield the
+ * same results as the {@link String} operations they replace
+ */
+public class StringBuilderUtilTest {
+
+	/**
+	 * The characters the random Strings are built of: whitespaces (inside and
+	 * outside of <code>\s</code>), control characters, letters with special
+	 * lowercase mappings and both halves of a surrogate pair
+	 */
+	private static final String CHARACTERS = "aZ ÄßΣσİIi\t\n\u000B\f\r\u0000\u001F  𐐀-_.";
+	/**
+	 * The amount of random Strings every operation is checked with
+	 */
+	private static final int RANDOM_STRINGS = 5000;
+
+
+	@Test
+	public void toLowerCaseMatchesString() {
+		for (String current : new String[] { "", "ABC", "MiXeD cAsE", "ÄÖÜ", "ΟΔΟΣ", "İSTANBUL", "𐐀\uD801",
+				"\uDC00A" }) {
+			assertLowerCase(current);
+		}
+
+		Random random = new Random(0);
+
+		for (int i = 0; i < RANDOM_STRINGS; i++) {
+			assertLowerCase(randomString(random));
+		}
+	}
+
+	@Test
+	public void toLowerCaseMatchesStringInSpecialLocales() {
+		Locale defaultLocale = Locale.getDefault();
+
+		try {
+			for (String language : new String[] { "tr", "az", "lt", "el" }) {
+				Locale.setDefault(new Locale(language));
+
+				Random random = new Random(0);
+
+				for (int i = 0; i < RANDOM_STRINGS / 10; i++) {
+					assertLowerCase(randomString(random));
+				}
+			}
+		} finally {
+			Locale.setDefault(defaultLocale);
+		}
+	}
+
+	@Test
+	public void trimMatchesString() {
+		for (String current : new String[] { "", " ", "\u0000a ", " a b ", " a ", "\t\n" }) {
+			assertTrim(current);
+		}
+
+		Random random = new Random(1);
+
+		for (int i = 0; i < RANDOM_STRINGS; i++) {
+			assertTrim(randomString(random));
+		}
+	}
+
+	@Test
+	public void collapseWhitespacesMatchesRegex() {
+		for (String current : new String[] { "", " ", "  ", "a  b", "a\tb", "a\t\nb", "   ", "a   b" }) {
+			assertCollapsedWhitespaces(current);
+		}
+
+		Random random = new Random(2);
+
+		for (int i = 0; i < RANDOM_STRINGS; i++) {
+			assertCollapsedWhitespaces(randomString(random));
+		}
+	}
+
+	@Test
+	public void replaceMatchesString() {
+		Random random = new Random(3);
+
+		for (int i = 0; i < RANDOM_STRINGS; i++) {
+			String current = randomString(random);
+			char target = CHARACTERS.charAt(random.nextInt(CHARACTERS.length()));
+			StringBuilder builder = new StringBuilder(current);
+
+			StringBuilderUtil.replace(builder, target, '/');
+
+			assertEquals(escape(current), current.replace(target, '/'), builder.toString());
+		}
+	}
+
+	private static void assertLowerCase(String content) {
+		StringBuilder builder = new StringBuilder(content);
+		StringBuilderUtil.toLowerCase(builder);
+
+		assertEquals(escape(content) + " (" + Locale.getDefault() + ")", content.toLowerCase(), builder.toString());
+	}
+
+	private static void assertTrim(String content) {
+		StringBuilder builder = new StringBuilder(content);
+		StringBuilderUtil.trim(builder);
+
+		assertEquals(escape(content), content.trim(), builder.toString());
+	}
+
+	private static void assertCollapsedWhitespaces(String content) {
+		StringBuilder builder = new StringBuilder(content);
+		StringBuilderUtil.collapseWhitespaces(builder);
+
+		assertEquals(escape(content), content.replaceAll("\\s\\s+", " "), builder.toString());
+	}
+
+	/**
+	 * Creates a random String out of {@link #CHARACTERS}
+	 */
+	private static String randomString(Random random) {
+		char[] content = new char[random.nextInt(12)];
+
+		for (int i = 0; i < content.length; i++) {
+			content[i] = CHARACTERS.charAt(random.nextInt(CHARACTERS.length()));
+		}
+
+		return new String(content);
+	}
+
+	/**
+	 * Makes the given String readable in a failure message
+	 */
+	private static String escape(String content) {
+		StringBuilder builder = new StringBuilder("\"");
+
+		for (char c : content.toCharArray()) {
+			if (c < ' ' || c > '~') {
+				builder.append(String.format("\\u%04X", (int) c));
+			} else {
+				builder.append(c);
+			}
+		}
+
+		return builder.append('"').toString();
+	}
+}